@@ -0,0 +1,109 @@
+package org.hzero.benchmark.excel;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.alibaba.fastjson.JSONObject;
+import com.monitorjbl.xlsx.StreamingReader;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.hzero.excel.entity.Column;
+import org.hzero.excel.supporter.ExcelReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Excel 读取吞吐量基准测试，流式读取 50 万行的sheet页并逐行转换为 JSONObject，结果单位为 行/秒
+ * <p>
+ * 行缓存和读取缓冲区使用 hzero.excel 的默认配置，与 ExcelHelper.read 一致；readRowsBaseline 使用优化前的 {@link BaselineExcelReader} 作为对照
+ *
+ * @author agent 2026/10/18
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(ExcelReaderBenchmark.ROWS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class ExcelReaderBenchmark {
+
+    static final int ROWS = 500_000;
+    private static final int CACHE_SIZE = 100;
+    private static final int BUFFER_SIZE = 1024;
+
+    private File file;
+    private List<Column> columns;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        columns = new ArrayList<>();
+        columns.add(new Column().setIndex(0).setName("lineNum").setColumnType(Column.LONG));
+        columns.add(new Column().setIndex(1).setName("itemCode").setColumnType(Column.STRING));
+        columns.add(new Column().setIndex(2).setName("itemName").setColumnType(Column.STRING));
+        columns.add(new Column().setIndex(3).setName("amount").setColumnType(Column.DECIMAL).setFormat("#.00"));
+        columns.add(new Column().setIndex(4).setName("creationDate").setColumnType(Column.DATE));
+        file = File.createTempFile("hzero-excel-benchmark-", ".xlsx");
+        SXSSFWorkbook workbook = new SXSSFWorkbook(1000);
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+            Sheet sheet = workbook.createSheet();
+            Date date = new Date();
+            for (int i = 0; i < ROWS; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue(i);
+                row.createCell(1).setCellValue("ITEM-" + i);
+                // 重复的字符串进入共享字符串表
+                row.createCell(2).setCellValue("物料名称" + (i % 1000));
+                row.createCell(3).setCellValue(i * 1.25);
+                row.createCell(4).setCellValue(date);
+                row.getCell(4).setCellStyle(dateStyle);
+            }
+            workbook.write(outputStream);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (file != null && !file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    @Benchmark
+    public void readRows(Blackhole blackhole) throws IOException {
+        ExcelReader excelReader = new ExcelReader();
+        read(blackhole, row -> excelReader.readDataRow(row, columns));
+    }
+
+    @Benchmark
+    public void readRowsBaseline(Blackhole blackhole) throws IOException {
+        BaselineExcelReader excelReader = new BaselineExcelReader();
+        read(blackhole, row -> excelReader.readDataRow(row, columns));
+    }
+
+    private void read(Blackhole blackhole, Function<Row, JSONObject> reader) throws IOException {
+        try (Workbook workbook = StreamingReader.builder()
+                .rowCacheSize(CACHE_SIZE)
+                .bufferSize(BUFFER_SIZE)
+                .open(file)) {
+            for (Row row : workbook.getSheetAt(0)) {
+                blackhole.consume(reader.apply(row));
+            }
+        }
+    }
+}
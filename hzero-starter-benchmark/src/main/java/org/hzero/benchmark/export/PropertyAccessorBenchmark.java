@@ -0,0 +1,81 @@
+package org.hzero.benchmark.export;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.beanutils.BeanUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.hzero.export.util.PropertyAccessor;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * 导出读取单元格值的基准测试，对比 {@link PropertyAccessor} 与 FieldUtils.readField、BeanUtils.getProperty
+ * <p>
+ * fieldName 分别为当前类的字段和父类的字段
+ *
+ * @author agent 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertyAccessorBenchmark {
+
+    @Param({"name", "amount"})
+    private String fieldName;
+
+    private ExportLine target;
+
+    @Setup
+    public void setup() {
+        target = new ExportLine();
+        target.setName("benchmark");
+        target.setAmount(new BigDecimal("1024.50"));
+    }
+
+    @Benchmark
+    public Object fieldUtilsReadField() throws IllegalAccessException {
+        return FieldUtils.readField(target, fieldName, true);
+    }
+
+    @Benchmark
+    public Object propertyAccessorReadField() {
+        return PropertyAccessor.readField(target, fieldName);
+    }
+
+    @Benchmark
+    public Object beanUtilsGetProperty() throws Exception {
+        return BeanUtils.getProperty(target, fieldName);
+    }
+
+    @Benchmark
+    public Object propertyAccessorReadProperty() {
+        return PropertyAccessor.readProperty(target, fieldName);
+    }
+
+    public static class BaseLine {
+        private BigDecimal amount;
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+    }
+
+    public static class ExportLine extends BaseLine {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
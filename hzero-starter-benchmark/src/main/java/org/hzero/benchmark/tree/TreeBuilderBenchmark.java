@@ -0,0 +1,93 @@
+package org.hzero.benchmark.tree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.hzero.core.algorithm.tree.Child;
+import org.hzero.core.algorithm.tree.Node;
+import org.hzero.core.algorithm.tree.TreeBuilder;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * 构建树基准测试，随机生成 1 万到 100 万个节点的森林，节点顺序打乱
+ * <p>
+ * 构建树会修改节点的子节点列表，每次调用前重新创建节点，创建节点的耗时不计入结果
+ *
+ * @author agent 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class TreeBuilderBenchmark {
+
+    private static final Node<Long, TreeNode> NODE = new Node<Long, TreeNode>() {
+        @Override
+        public Long getKey(TreeNode obj) {
+            return obj.id;
+        }
+
+        @Override
+        public Long getParentKey(TreeNode obj) {
+            return obj.parentId;
+        }
+    };
+
+    @Param({"10000", "100000", "1000000"})
+    private int size;
+
+    private long[] ids;
+    private Long[] parentIds;
+    private List<TreeNode> nodes;
+
+    @Setup(Level.Trial)
+    public void setupForest() {
+        Random random = new Random(42);
+        List<Integer> order = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order, random);
+        ids = new long[size];
+        parentIds = new Long[size];
+        for (int i = 0; i < size; i++) {
+            long id = order.get(i) + 1L;
+            ids[i] = id;
+            // 约 1% 的节点为根节点
+            parentIds[i] = id == 1 || random.nextInt(100) == 0 ? null : 1 + (long) random.nextInt((int) id - 1);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setupNodes() {
+        nodes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            nodes.add(new TreeNode(ids[i], parentIds[i]));
+        }
+    }
+
+    @Benchmark
+    public List<TreeNode> buildTree() {
+        return TreeBuilder.buildTree(nodes, NODE);
+    }
+
+    @Benchmark
+    public List<TreeNode> buildTreeWithRootKey() {
+        return TreeBuilder.buildTree(nodes, null, NODE);
+    }
+
+    public static class TreeNode extends Child<TreeNode> {
+        private final Long id;
+        private final Long parentId;
+
+        TreeNode(Long id, Long parentId) {
+            this.id = id;
+            this.parentId = parentId;
+        }
+    }
+}
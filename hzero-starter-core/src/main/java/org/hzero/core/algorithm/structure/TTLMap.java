@@ -1,20 +1,31 @@
 package org.hzero.core.algorithm.structure;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.Assert;
 
 import org.hzero.core.base.BaseConstants;
-import org.hzero.core.util.Pair;
+import org.hzero.core.util.SystemClock;
 
 /**
  * key值有有效期的Map集合<p></p>
  * 当一个key被set了超过一段时间(ttl x timeUnit),则再次get的时候则会返回null值<p></p>
- * 注意,计时的最小时间单位为毫秒{@link TimeUnit#MILLISECONDS}
+ * 注意,计时的最小时间单位为毫秒{@link TimeUnit#MILLISECONDS}<p></p>
+ * 线程安全：读取时检查是否过期，写入时由时间轮按时间片清理已过期的key，均摊 O(1)；
+ * 设置了最大容量时，超出后按近似 LRU(CLOCK) 淘汰最近未访问的key<p></p>
+ * 不兼容变更：<ul>
+ * <li>不再支持 null key，put 时抛出 {@link NullPointerException}，get/containsKey/remove 返回空</li>
+ * <li>{@link #innerMap} 由 {@code Map<K, Pair<V, Long>>} 改为 {@code ConcurrentMap<K, Node<K, V>>}，直接访问该字段的子类需要调整；
+ * 通过 {@link Builder#innerMapClass} 指定的非 {@link ConcurrentMap} 实现会回退为 {@link ConcurrentHashMap}</li>
+ * </ul>
  *
  * @param <K> key类型
  * @param <V> value类型
@@ -25,7 +36,7 @@ public class TTLMap<K, V> implements Map<K, V> {
     /**
      * 内部Map集合
      */
-    protected Map<K, Pair<V, Long>> innerMap;
+    protected ConcurrentMap<K, Node<K, V>> innerMap;
     /**
      * key超时时间单位
      */
@@ -38,12 +49,37 @@ public class TTLMap<K, V> implements Map<K, V> {
      * ️以毫秒计key超时时间
      */
     private long ttlInMillisecond;
+    /**
+     * 最大容量，小于等于 0 表示不限制
+     */
+    private int maximumSize;
 
     /**
-     * 默认内部Map集合类型--HashMap
+     * 时间轮，每个槽存放在对应时间片内过期的key
+     */
+    private Set<Node<K, V>>[] wheel;
+    /**
+     * 时间轮每个时间片的毫秒数
+     */
+    private long tickInMillisecond;
+    /**
+     * 已清理到的时间片
+     */
+    private volatile long sweptTick;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    /**
+     * 淘汰队列，按写入顺序排列，仅在设置了最大容量时使用
+     */
+    private final Queue<Node<K, V>> evictionQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger evictionQueueSize = new AtomicInteger();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    /**
+     * 默认内部Map集合类型--ConcurrentHashMap
      */
     @SuppressWarnings("rawtypes")
-    private static final Class<? extends Map> DEFAULT_INNER_MAP_CLASS = HashMap.class;
+    private static final Class<? extends Map> DEFAULT_INNER_MAP_CLASS = ConcurrentHashMap.class;
     /**
      * 默认超时时间单位--分钟
      */
@@ -52,6 +88,10 @@ public class TTLMap<K, V> implements Map<K, V> {
      * 默认超时时间单位数--10
      */
     private static final long DEFAULT_TTL = 10;
+    /**
+     * 时间轮槽数，必须为2的幂
+     */
+    private static final int WHEEL_SIZE = 512;
 
     public TTLMap() {
         this.initWithDefaultValue();
@@ -68,33 +108,35 @@ public class TTLMap<K, V> implements Map<K, V> {
         }
     }
 
+    /**
+     * 返回key的数量，可能包含最近一个时间片内刚过期但尚未清理的key
+     */
     @Override
     public int size() {
-        this.clearTimeoutKeys();
+        this.expire(SystemClock.now());
         return this.innerMap.size();
     }
 
     @Override
     public boolean isEmpty() {
-        this.clearTimeoutKeys();
+        this.expire(SystemClock.now());
         return this.innerMap.isEmpty();
     }
 
     @Override
     public boolean containsKey(Object key) {
-        if (this.clearTimeoutKey(key)) {
-            return false;
-        }
-        return this.innerMap.containsKey(key);
+        return this.getNode(key, false) != null;
     }
 
     @Override
     public boolean containsValue(Object value) {
-        this.clearTimeoutKeys();
-        if (this.innerMap.isEmpty()) {
-            return false;
+        final long nowTimestamp = SystemClock.now();
+        for (Node<K, V> node : this.innerMap.values()) {
+            if (!node.isTimeOut(nowTimestamp) && Objects.equals(node.value, value)) {
+                return true;
+            }
         }
-        return this.innerMap.values().stream().map(Pair::getFirst).anyMatch(v -> Objects.equals(v, value));
+        return false;
     }
 
     @Override
@@ -104,8 +146,7 @@ public class TTLMap<K, V> implements Map<K, V> {
 
     @Override
     public V put(K key, V value) {
-        this.innerMap.put(key, new Pair<>(value, System.currentTimeMillis() + this.ttlInMillisecond));
-        return value;
+        return this.put(key, value, this.ttlInMillisecond, TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -117,8 +158,7 @@ public class TTLMap<K, V> implements Map<K, V> {
      * @return value
      */
     public V put(K key, V value, long ttl) {
-        this.innerMap.put(key, new Pair<>(value, System.currentTimeMillis() + this.timeUnit.toMillis(ttl)));
-        return value;
+        return this.put(key, value, ttl, this.timeUnit);
     }
 
     /**
@@ -131,21 +171,42 @@ public class TTLMap<K, V> implements Map<K, V> {
      * @return value
      */
     public V put(K key, V value, long ttl, TimeUnit timeUnit) {
+        Objects.requireNonNull(key, "TTLMap does not support null keys");
         if (timeUnit == null) {
             timeUnit = this.timeUnit;
         }
-        this.innerMap.put(key, new Pair<>(value, System.currentTimeMillis() + timeUnit.toMillis(ttl)));
+        final long nowTimestamp = SystemClock.now();
+        long ttlInMillis = timeUnit.toMillis(ttl);
+        long expireTime = nowTimestamp + ttlInMillis;
+        if (ttlInMillis > 0 && expireTime < nowTimestamp) {
+            expireTime = Long.MAX_VALUE;
+        }
+        Node<K, V> node = new Node<>(key, value, expireTime);
+        Node<K, V> oldNode = this.innerMap.put(key, node);
+        if (oldNode != null) {
+            this.unlink(oldNode);
+        }
+        this.wheel[this.slotOf(expireTime)].add(node);
+        if (this.maximumSize > 0) {
+            this.evictionQueue.offer(node);
+            this.evictionQueueSize.incrementAndGet();
+        }
+        this.expire(nowTimestamp);
+        this.evict(nowTimestamp);
         return value;
     }
 
     @Override
     public V remove(Object key) {
-        if (!this.containsKey(key)) {
+        if (key == null) {
             return null;
         }
-        V value = this.getTrueValue(key);
-        this.innerMap.remove(key);
-        return value;
+        Node<K, V> node = this.innerMap.remove(key);
+        if (node == null) {
+            return null;
+        }
+        this.unlink(node);
+        return node.isTimeOut(SystemClock.now()) ? null : node.value;
     }
 
     @Override
@@ -162,50 +223,66 @@ public class TTLMap<K, V> implements Map<K, V> {
     @Override
     public void clear() {
         this.innerMap.clear();
+        for (Set<Node<K, V>> slot : this.wheel) {
+            slot.clear();
+        }
+        this.evictionQueue.clear();
+        this.evictionQueueSize.set(0);
     }
 
+    /**
+     * 返回未过期key的快照
+     */
     @Override
     public Set<K> keySet() {
-        this.clearTimeoutKeys();
-        if (this.innerMap.isEmpty()) {
-            return Collections.emptySet();
+        final long nowTimestamp = SystemClock.now();
+        Set<K> keySet = new HashSet<>();
+        for (Node<K, V> node : this.innerMap.values()) {
+            if (!node.isTimeOut(nowTimestamp)) {
+                keySet.add(node.key);
+            }
         }
-        return this.innerMap.keySet();
+        return keySet;
     }
 
     @Override
     public Collection<V> values() {
-        this.clearTimeoutKeys();
-        if (this.innerMap.isEmpty()) {
-            return Collections.emptyList();
+        final long nowTimestamp = SystemClock.now();
+        List<V> values = new ArrayList<>();
+        for (Node<K, V> node : this.innerMap.values()) {
+            if (!node.isTimeOut(nowTimestamp)) {
+                values.add(node.value);
+            }
         }
-        return this.innerMap.values().stream().map(Pair::getFirst).collect(Collectors.toList());
+        return values;
     }
 
     @Override
     public Set<Entry<K, V>> entrySet() {
-        this.clearTimeoutKeys();
-        if (this.innerMap.isEmpty()) {
-            return Collections.emptySet();
+        final long nowTimestamp = SystemClock.now();
+        Set<Entry<K, V>> entrySet = new HashSet<>();
+        for (Node<K, V> node : this.innerMap.values()) {
+            if (!node.isTimeOut(nowTimestamp)) {
+                entrySet.add(new InnerEntry<>(node.key, node.value));
+            }
         }
-        return this.innerMap.entrySet().stream().map(entry ->
-                new InnerEntry<>(entry.getKey(), Optional.ofNullable(entry.getValue()).map(Pair::getFirst).orElse(null))
-        ).collect(Collectors.toSet());
+        return entrySet;
     }
 
     /**
-     * 清理所有已过期的key
+     * 清理所有已过期的key，需要遍历全部key，一般情况下由时间轮自动清理，无需调用
      *
      * @return 被清理的key的数量
      */
     protected int clearTimeoutKeys() {
-        if (this.innerMap.isEmpty()) {
-            return 0;
+        final long nowTimestamp = SystemClock.now();
+        int count = 0;
+        for (Node<K, V> node : this.innerMap.values()) {
+            if (node.isTimeOut(nowTimestamp) && this.removeNode(node)) {
+                count++;
+            }
         }
-        final long nowTimestamp = System.currentTimeMillis();
-        Set<K> keySet = this.innerMap.keySet().stream().filter(key -> this.isTimeOut(key, nowTimestamp)).collect(Collectors.toSet());
-        keySet.forEach(this.innerMap::remove);
-        return keySet.size();
+        return count;
     }
 
     /**
@@ -215,15 +292,11 @@ public class TTLMap<K, V> implements Map<K, V> {
      * @return 该key是否被清理
      */
     protected boolean clearTimeoutKey(Object key) {
-        if (this.innerMap.isEmpty()) {
-            return false;
-        }
-        if (this.isTimeOut(key, System.currentTimeMillis())) {
-            this.innerMap.remove(key);
-            return true;
-        } else {
+        if (key == null) {
             return false;
         }
+        Node<K, V> node = this.innerMap.get(key);
+        return node != null && node.isTimeOut(SystemClock.now()) && this.removeNode(node);
     }
 
     /**
@@ -234,14 +307,11 @@ public class TTLMap<K, V> implements Map<K, V> {
      * @return 是否已过期
      */
     protected boolean isTimeOut(Object key, long nowTimestamp) {
-        if (this.innerMap.isEmpty()) {
+        if (key == null) {
             return true;
         }
-        Pair<V, Long> pair = this.innerMap.get(key);
-        if (pair == null) {
-            return true;
-        }
-        return (pair.getSecond() < nowTimestamp);
+        Node<K, V> node = this.innerMap.get(key);
+        return node == null || node.isTimeOut(nowTimestamp);
     }
 
     /**
@@ -251,21 +321,183 @@ public class TTLMap<K, V> implements Map<K, V> {
      * @return key对应的真实value
      */
     protected V getTrueValue(Object key) {
-        if (this.innerMap.isEmpty()) {
+        Node<K, V> node = this.getNode(key, true);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * 获取未过期的节点，已过期的节点顺便清理
+     *
+     * @param key    key
+     * @param access 是否记录访问
+     * @return 未过期的节点
+     */
+    private Node<K, V> getNode(Object key, boolean access) {
+        if (key == null) {
+            return null;
+        }
+        Node<K, V> node = this.innerMap.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (node.isTimeOut(SystemClock.now())) {
+            this.removeNode(node);
             return null;
         }
-        return clearTimeoutKey(key) ? null : Optional.ofNullable(this.innerMap.get(key)).map(Pair::getFirst).orElse(null);
+        if (access && this.maximumSize > 0 && !node.accessed) {
+            node.accessed = true;
+        }
+        return node;
+    }
+
+    /**
+     * 节点仍是当前值时移除
+     *
+     * @param node 节点
+     * @return 是否移除
+     */
+    private boolean removeNode(Node<K, V> node) {
+        if (this.innerMap.remove(node.key, node)) {
+            this.unlink(node);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 从时间轮中摘除节点，淘汰队列中的节点在出队时丢弃
+     *
+     * @param node 节点
+     */
+    private void unlink(Node<K, V> node) {
+        node.removed = true;
+        this.wheel[this.slotOf(node.expireTime)].remove(node);
+    }
 
+    private int slotOf(long expireTime) {
+        return (int) ((expireTime / this.tickInMillisecond) & (WHEEL_SIZE - 1));
+    }
+
+    /**
+     * 转动时间轮，清理已经结束的时间片中过期的key，同一时间只有一个线程清理
+     *
+     * @param nowTimestamp 当前时间戳(毫秒计)
+     */
+    private void expire(long nowTimestamp) {
+        // 当前时间片尚未结束，只清理到上一个时间片
+        long tick = nowTimestamp / this.tickInMillisecond - 1;
+        if (tick <= this.sweptTick || !this.sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long from = Math.max(this.sweptTick + 1, tick - WHEEL_SIZE + 1);
+            for (long current = from; current <= tick; current++) {
+                Iterator<Node<K, V>> iterator = this.wheel[(int) (current & (WHEEL_SIZE - 1))].iterator();
+                while (iterator.hasNext()) {
+                    Node<K, V> node = iterator.next();
+                    if (node.removed) {
+                        iterator.remove();
+                    } else if (node.isTimeOut(nowTimestamp)) {
+                        // 之后轮次过期的节点留在槽中
+                        iterator.remove();
+                        this.removeNode(node);
+                    }
+                }
+            }
+            this.sweptTick = tick;
+        } finally {
+            this.sweeping.set(false);
+        }
+    }
+
+    /**
+     * 超出最大容量时淘汰：过期或已被替换的节点直接丢弃，最近访问过的节点清除访问标记后重新入队，其余节点淘汰
+     *
+     * @param nowTimestamp 当前时间戳(毫秒计)
+     */
+    private void evict(long nowTimestamp) {
+        if (this.maximumSize <= 0 || !this.evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // 最多转两圈：第一圈清除访问标记，第二圈一定能淘汰
+            int budget = this.evictionQueueSize.get() * 2 + 1;
+            while (budget-- > 0 && (this.innerMap.size() > this.maximumSize
+                    || this.evictionQueueSize.get() > this.maximumSize * 2)) {
+                Node<K, V> node = this.evictionQueue.poll();
+                if (node == null) {
+                    break;
+                }
+                this.evictionQueueSize.decrementAndGet();
+                if (node.removed || this.innerMap.get(node.key) != node) {
+                    continue;
+                }
+                if (node.isTimeOut(nowTimestamp)
+                        || (this.innerMap.size() > this.maximumSize && !node.accessed)) {
+                    this.removeNode(node);
+                    continue;
+                }
+                node.accessed = false;
+                this.evictionQueue.offer(node);
+                this.evictionQueueSize.incrementAndGet();
+            }
+        } finally {
+            this.evicting.set(false);
+        }
     }
 
     /**
      * 用默认值初始化对象
      */
     private void initWithDefaultValue() {
-        this.innerMap = new HashMap<>();
+        this.innerMap = new ConcurrentHashMap<>();
         this.timeUnit = TTLMap.DEFAULT_TIME_UNIT;
         this.ttl = TTLMap.DEFAULT_TTL;
-        this.ttlInMillisecond = this.timeUnit.toMillis(ttl);
+        this.initWheel();
+    }
+
+    /**
+     * 根据默认超时时间初始化时间轮，一圈约为默认超时时间
+     */
+    @SuppressWarnings("unchecked")
+    private void initWheel() {
+        this.ttlInMillisecond = this.timeUnit.toMillis(this.ttl);
+        this.tickInMillisecond = Math.max(1L, this.ttlInMillisecond / WHEEL_SIZE);
+        this.wheel = new Set[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            this.wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.sweptTick = SystemClock.now() / this.tickInMillisecond - 1;
+    }
+
+    /**
+     * 内部节点
+     *
+     * @param <K> key类型
+     * @param <V> value类型
+     */
+    protected static final class Node<K, V> {
+        final K key;
+        final V value;
+        final long expireTime;
+        /**
+         * 淘汰队列上次经过后是否被访问过
+         */
+        volatile boolean accessed;
+        /**
+         * 是否已从Map中移除或被替换
+         */
+        volatile boolean removed;
+
+        Node(K key, V value, long expireTime) {
+            this.key = key;
+            this.value = value;
+            this.expireTime = expireTime;
+        }
+
+        boolean isTimeOut(long nowTimestamp) {
+            return this.expireTime < nowTimestamp;
+        }
     }
 
     /**
@@ -357,6 +589,10 @@ public class TTLMap<K, V> implements Map<K, V> {
          * key超时时间单位数
          */
         protected long ttl;
+        /**
+         * 最大容量
+         */
+        protected int maximumSize;
 
         private final Logger logger = LoggerFactory.getLogger(Builder.class);
 
@@ -368,7 +604,7 @@ public class TTLMap<K, V> implements Map<K, V> {
 
         /**
          * 内部Map集合类型<p></p>
-         * 默认HashMap
+         * 默认ConcurrentHashMap，必须为{@link ConcurrentMap}的实现，否则使用默认值
          *
          * @param innerMapClass
          * @return
@@ -405,6 +641,19 @@ public class TTLMap<K, V> implements Map<K, V> {
             return this;
         }
 
+        /**
+         * 最大容量，超出后淘汰最近未访问的key<p></p>
+         * 默认0，不限制
+         *
+         * @param maximumSize
+         * @return
+         */
+        public Builder<K, V> maximumSize(int maximumSize) {
+            Assert.isTrue(maximumSize >= 0, BaseConstants.ErrorCode.DATA_INVALID);
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
         /**
          * 构建
          *
@@ -414,14 +663,21 @@ public class TTLMap<K, V> implements Map<K, V> {
         public TTLMap<K, V> build() {
             TTLMap<K, V> ttlMap = new TTLMap<>(true);
             try {
-                ttlMap.innerMap = this.innerMapClass.newInstance();
+                if (ConcurrentMap.class.isAssignableFrom(this.innerMapClass)) {
+                    ttlMap.innerMap = (ConcurrentMap<K, Node<K, V>>) this.innerMapClass.newInstance();
+                } else {
+                    this.logger.warn("TTLMap inner map class {} is not a ConcurrentMap, fallback to {}", this.innerMapClass.getName(), DEFAULT_INNER_MAP_CLASS.getName());
+                    ttlMap.innerMap = new ConcurrentHashMap<>();
+                }
                 ttlMap.timeUnit = this.timeUnit;
                 ttlMap.ttl = this.ttl;
-                ttlMap.ttlInMillisecond = ttlMap.timeUnit.toMillis(ttlMap.ttl);
+                ttlMap.maximumSize = this.maximumSize;
+                ttlMap.initWheel();
             } catch (InstantiationException | IllegalAccessException e) {
                 this.logger.error("can not build TTLMap with class {}, fallback to default builder", this.innerMapClass.getName());
                 this.logger.error(e.getMessage(), e);
                 ttlMap = new TTLMap<>();
+                ttlMap.maximumSize = this.maximumSize;
             }
             return ttlMap;
         }
@@ -7,7 +7,8 @@ import java.util.stream.Collectors;
 
 /**
  * <p>
- * 递归构建树工具
+ * 构建树工具
+ * 先按父节点的KEY分组，再从根节点逐层挂载子节点，时间复杂度 O(n)，不使用递归，树的深度不受栈大小限制
  * </p>
  *
  * @author qingsheng.chen 2018/7/26 星期四 13:43
@@ -21,21 +22,13 @@ public class TreeBuilder {
     public static <P, T extends Child<T>> List<T> buildTree(List<T> objList, Node<P, T> nodeOperation) {
         Map<P, T> objMap = objList.stream().collect(Collectors.toMap(nodeOperation::getKey, Function.identity()));
         Map<P, List<T>> objGroupMap = new HashMap<>(16);
-        objMap.forEach((key, value) -> {
-            P parent;
-            if (objMap.containsKey(nodeOperation.getParentKey(value))) {
-                parent = nodeOperation.getParentKey(value);
-            } else {
+        for (T value : objList) {
+            P parent = nodeOperation.getParentKey(value);
+            if (!objMap.containsKey(parent)) {
                 parent = null;
             }
-            if (objGroupMap.containsKey(parent)) {
-                objGroupMap.get(parent).add(value);
-            } else {
-                List<T> list = new ArrayList<>();
-                list.add(value);
-                objGroupMap.put(parent, list);
-            }
-        });
+            objGroupMap.computeIfAbsent(parent, k -> new ArrayList<>()).add(value);
+        }
         return recursiveBuildTree(objGroupMap, null, new ArrayList<>(), nodeOperation);
     }
 
@@ -112,16 +105,7 @@ public class TreeBuilder {
      * @return 树
      */
     public static <P, T extends Child<T>> List<T> recursiveBuildTree(Map<P, List<T>> map, P parentId, List<T> list, Node<P, T> nodeOperation) {
-        if (map.containsKey(parentId)) {
-            List<T> parentList = map.get(parentId);
-            for (T node : parentList) {
-                if (map.containsKey(nodeOperation.getKey(node))) {
-                    node.addChildren(recursiveBuildTree(map, nodeOperation.getKey(node), new ArrayList<>(), nodeOperation));
-                }
-                list.add(node);
-            }
-        }
-        return list;
+        return attachChildren(map, parentId, list, nodeOperation);
     }
 
     /**
@@ -137,13 +121,37 @@ public class TreeBuilder {
      * @return 树
      */
     public static <P, T extends Child<T>> List<T> recursiveBuildTree(Map<P, List<T>> map, P parentId, List<T> list, Key<P, T> key, ParentKey<P, T> parentKey) {
-        if (map.containsKey(parentId)) {
-            List<T> parentList = map.get(parentId);
-            for (T node : parentList) {
-                if (map.containsKey(key.getKey(node))) {
-                    node.addChildren(recursiveBuildTree(map, key.getKey(node), new ArrayList<>(), key, parentKey));
-                }
-                list.add(node);
+        return attachChildren(map, parentId, list, key);
+    }
+
+    /**
+     * 从根节点开始逐层挂载子节点，每个节点只处理一次，节点间存在环时不会死循环
+     *
+     * @param map      对象Map，按照父节点的KEY分组
+     * @param parentId 根节点的KEY
+     * @param list     返回的结果
+     * @param key      获取当前节点的KEY
+     * @param <P>      KEY的泛型
+     * @param <T>      对象泛型
+     * @return 树
+     */
+    private static <P, T extends Child<T>> List<T> attachChildren(Map<P, List<T>> map, P parentId, List<T> list, Key<P, T> key) {
+        List<T> roots = map.get(parentId);
+        if (roots == null) {
+            return list;
+        }
+        list.addAll(roots);
+        Set<T> visited = Collections.newSetFromMap(new IdentityHashMap<>(map.size() * 2));
+        Deque<T> stack = new ArrayDeque<>(roots);
+        while (!stack.isEmpty()) {
+            T node = stack.pop();
+            if (!visited.add(node)) {
+                continue;
+            }
+            List<T> children = map.get(key.getKey(node));
+            if (children != null) {
+                node.addChildren(new ArrayList<>(children));
+                children.forEach(stack::push);
             }
         }
         return list;
@@ -151,16 +159,18 @@ public class TreeBuilder {
 
     /**
      * 参考 https://stackoverflow.com/questions/22625065/collectors-groupingby-doesnt-accept-null-keys
+     * 分组时直接追加到同一个List，不复制
      */
     public static <T, A> Collector<T, ?, Map<A, List<T>>> groupingByWithNullKeys(Function<? super T, ? extends A> classifier) {
-        return Collectors.toMap(
-                classifier,
-                Collections::singletonList,
-                (List<T> oldList, List<T> newEl) -> {
-                    List<T> newList = new ArrayList<>(oldList.size() + 1);
-                    newList.addAll(oldList);
-                    newList.addAll(newEl);
-                    return newList;
+        return Collector.of(
+                HashMap::new,
+                (Map<A, List<T>> map, T element) -> map.computeIfAbsent(classifier.apply(element), k -> new ArrayList<>()).add(element),
+                (Map<A, List<T>> left, Map<A, List<T>> right) -> {
+                    right.forEach((k, v) -> left.merge(k, v, (oldList, newList) -> {
+                        oldList.addAll(newList);
+                        return oldList;
+                    }));
+                    return left;
                 });
     }
 }
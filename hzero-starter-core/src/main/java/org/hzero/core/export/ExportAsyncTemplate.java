@@ -12,9 +12,25 @@ public interface ExportAsyncTemplate extends AsyncTemplate<ExportTaskDTO> {
 
     String FILE_TYPE_ZIP = "zip";
     String FILE_TYPE_EXCEL = "excel";
+    String FILE_TYPE_CSV = "csv";
+    String FILE_TYPE_TSV = "tsv";
 
     String FILE_TYPE_KEY = "fileType";
     String FILE_KEY = "file";
+    /**
+     * 导出结果的临时文件 {@link java.io.File}，doWhenFinish 返回后删除
+     */
+    String FILE_HANDLE_KEY = "fileHandle";
+
+    /**
+     * 是否以临时文件接收导出结果，返回 true 时 additionInfo 中传递 {@link #FILE_HANDLE_KEY}，不再传递 {@link #FILE_KEY} 字节数组，
+     * 导出文件不会整体读入内存
+     *
+     * @return 是否以临时文件接收导出结果
+     */
+    default boolean supportFileHandle() {
+        return false;
+    }
 
 }
 
@@ -11,6 +11,10 @@ import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import javax.crypto.*;
 import javax.crypto.spec.SecretKeySpec;
 
@@ -29,10 +33,85 @@ import org.springframework.util.StringUtils;
 @SuppressWarnings("all")
 public class EncryptionUtils {
     private static final String DEFAULT_CHARSET = "UTF-8";
+    /**
+     * 每种密钥最多缓存的数量，超出后清空重新缓存
+     */
+    private static final int MAX_CACHED_KEYS = 256;
+    /**
+     * 线程内复用的密码器，key 为算法名称
+     */
+    private static final ThreadLocal<Map<String, CipherHolder>> CIPHERS = ThreadLocal.withInitial(HashMap::new);
 
     private EncryptionUtils() {
     }
 
+    /**
+     * 使用当前线程缓存的密码器加解密，密钥和模式与上次相同时不再重复初始化
+     *
+     * @param algorithm 算法
+     * @param mode      {@link Cipher#ENCRYPT_MODE} 或 {@link Cipher#DECRYPT_MODE}
+     * @param key       密钥
+     * @param input     输入
+     * @return 输出
+     */
+    private static byte[] doFinal(String algorithm, int mode, Key key, byte[] input) throws GeneralSecurityException {
+        Map<String, CipherHolder> ciphers = CIPHERS.get();
+        CipherHolder holder = ciphers.get(algorithm);
+        if (holder == null) {
+            holder = new CipherHolder(Cipher.getInstance(algorithm));
+            ciphers.put(algorithm, holder);
+        }
+        return holder.doFinal(mode, key, input);
+    }
+
+    /**
+     * 解析密钥，相同的密钥字符串只解析一次
+     */
+    private static <K> K getCachedKey(Map<String, K> cache, String keyStr, Function<String, K> parser) {
+        if (keyStr == null) {
+            return parser.apply(null);
+        }
+        K key = cache.get(keyStr);
+        if (key == null) {
+            key = parser.apply(keyStr);
+            if (cache.size() >= MAX_CACHED_KEYS) {
+                cache.clear();
+            }
+            cache.put(keyStr, key);
+        }
+        return key;
+    }
+
+    /**
+     * 密码器及其最近一次初始化使用的密钥和模式
+     */
+    private static final class CipherHolder {
+        private final Cipher cipher;
+        private Key key;
+        private int mode;
+
+        private CipherHolder(Cipher cipher) {
+            this.cipher = cipher;
+        }
+
+        private byte[] doFinal(int mode, Key key, byte[] input) throws GeneralSecurityException {
+            if (this.key != key || this.mode != mode) {
+                // 先置空，初始化失败时下次重新初始化
+                this.key = null;
+                cipher.init(mode, key);
+                this.key = key;
+                this.mode = mode;
+            }
+            try {
+                // doFinal 完成后密码器恢复到初始化后的状态，可直接复用
+                return cipher.doFinal(input);
+            } catch (GeneralSecurityException | RuntimeException e) {
+                this.key = null;
+                throw e;
+            }
+        }
+    }
+
     /**
      * MD5 非对称加密
      */
@@ -77,6 +156,7 @@ public class EncryptionUtils {
      */
     public static class AES {
         private static final String ALGORITHM = "AES";
+        private static final Map<String, SecretKeySpec> SECRET_KEYS = new ConcurrentHashMap<>();
 
         /**
          * 生成秘钥
@@ -113,7 +193,7 @@ public class EncryptionUtils {
          * 生成密钥
          */
         private static SecretKeySpec getSecretKeySpec(String secretKeyStr) {
-            return new SecretKeySpec(Base64.getDecoder().decode(secretKeyStr), ALGORITHM);
+            return getCachedKey(SECRET_KEYS, secretKeyStr, keyStr -> new SecretKeySpec(Base64.getDecoder().decode(keyStr), ALGORITHM));
         }
 
         /**
@@ -122,11 +202,7 @@ public class EncryptionUtils {
         public static String encrypt(String content, String secretKey) {
             Key key = getSecretKeySpec(secretKey);
             try {
-                // 创建密码器
-                Cipher cipher = Cipher.getInstance(ALGORITHM);
-                // 初始化
-                cipher.init(Cipher.ENCRYPT_MODE, key);
-                return Base64.getEncoder().encodeToString(cipher.doFinal(content.getBytes(DEFAULT_CHARSET)));
+                return Base64.getEncoder().encodeToString(doFinal(ALGORITHM, Cipher.ENCRYPT_MODE, key, content.getBytes(DEFAULT_CHARSET)));
             } catch (Exception e) {
                 throw new EncryptionException("AES encrypt failed!", e);
             }
@@ -135,11 +211,7 @@ public class EncryptionUtils {
         public static String encryptWithUrlEncoder(String content, String secretKey) {
             Key key = getSecretKeySpec(secretKey);
             try {
-                // 创建密码器
-                Cipher cipher = Cipher.getInstance(ALGORITHM);
-                // 初始化
-                cipher.init(Cipher.ENCRYPT_MODE, key);
-                return Base64.getUrlEncoder().encodeToString(cipher.doFinal(content.getBytes(DEFAULT_CHARSET)));
+                return Base64.getUrlEncoder().encodeToString(doFinal(ALGORITHM, Cipher.ENCRYPT_MODE, key, content.getBytes(DEFAULT_CHARSET)));
             } catch (Exception e) {
                 throw new EncryptionException("AES encrypt failed!", e);
             }
@@ -151,9 +223,7 @@ public class EncryptionUtils {
         public static String decrypt(String content, String secretKey) {
             Key key = getSecretKeySpec(secretKey);
             try {
-                Cipher cipher = Cipher.getInstance(ALGORITHM);
-                cipher.init(Cipher.DECRYPT_MODE, key);
-                return new String(cipher.doFinal(Base64.getDecoder().decode(content)), StandardCharsets.UTF_8);
+                return new String(doFinal(ALGORITHM, Cipher.DECRYPT_MODE, key, Base64.getDecoder().decode(content)), StandardCharsets.UTF_8);
             } catch (Exception e) {
                 throw new EncryptionException("AES decrypt failed!", e);
             }
@@ -165,9 +235,7 @@ public class EncryptionUtils {
         public static String decryptWithUrlDecoder(String content, String secretKey) {
             Key key = getSecretKeySpec(secretKey);
             try {
-                Cipher cipher = Cipher.getInstance(ALGORITHM);
-                cipher.init(Cipher.DECRYPT_MODE, key);
-                return new String(cipher.doFinal(Base64.getUrlDecoder().decode(content.getBytes(DEFAULT_CHARSET))), StandardCharsets.UTF_8);
+                return new String(doFinal(ALGORITHM, Cipher.DECRYPT_MODE, key, Base64.getUrlDecoder().decode(content.getBytes(DEFAULT_CHARSET))), StandardCharsets.UTF_8);
             } catch (Exception e) {
                 throw new EncryptionException("AES decrypt failed!", e);
             }
@@ -224,6 +292,8 @@ public class EncryptionUtils {
     public static class RSA {
         private static final String ALGORITHM = "RSA";
         private static final String ALGORITHMS_SHA1 = "SHA1WithRSA";
+        private static final Map<String, RSAPublicKey> PUBLIC_KEYS = new ConcurrentHashMap<>();
+        private static final Map<String, RSAPrivateKey> PRIVATE_KEYS = new ConcurrentHashMap<>();
 
         /**
          * 生成秘钥对
@@ -276,11 +346,13 @@ public class EncryptionUtils {
          * @return 公钥
          */
         public static RSAPublicKey getPublicKey(String publicKey) {
-            try {
-                return (RSAPublicKey) KeyFactory.getInstance(ALGORITHM).generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(publicKey)));
-            } catch (Exception e) {
-                throw new EncryptionException("RSA get Public Key failed!", e);
-            }
+            return getCachedKey(PUBLIC_KEYS, publicKey, keyStr -> {
+                try {
+                    return (RSAPublicKey) KeyFactory.getInstance(ALGORITHM).generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(keyStr)));
+                } catch (Exception e) {
+                    throw new EncryptionException("RSA get Public Key failed!", e);
+                }
+            });
         }
 
         /**
@@ -293,11 +365,13 @@ public class EncryptionUtils {
          * @return 私钥
          */
         public static RSAPrivateKey getPrivateKey(String privateKey) {
-            try {
-                return (RSAPrivateKey) KeyFactory.getInstance(ALGORITHM).generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(privateKey)));
-            } catch (Exception e) {
-                throw new EncryptionException("RSA get Private Key failed!", e);
-            }
+            return getCachedKey(PRIVATE_KEYS, privateKey, keyStr -> {
+                try {
+                    return (RSAPrivateKey) KeyFactory.getInstance(ALGORITHM).generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(keyStr)));
+                } catch (Exception e) {
+                    throw new EncryptionException("RSA get Private Key failed!", e);
+                }
+            });
         }
 
         /**
@@ -366,9 +440,7 @@ public class EncryptionUtils {
          */
         public static String encrypt(String content, Key key) {
             try {
-                Cipher cipher = Cipher.getInstance(ALGORITHM);
-                cipher.init(Cipher.ENCRYPT_MODE, key);
-                return Base64.getEncoder().encodeToString(cipher.doFinal(content.getBytes(DEFAULT_CHARSET)));
+                return Base64.getEncoder().encodeToString(doFinal(ALGORITHM, Cipher.ENCRYPT_MODE, key, content.getBytes(DEFAULT_CHARSET)));
             } catch (Exception e) {
                 throw new EncryptionException("RSA encrypt failed!", e);
             }
@@ -389,9 +461,7 @@ public class EncryptionUtils {
          */
         public static String decrypt(String content, Key key) {
             try {
-                Cipher cipher = Cipher.getInstance(ALGORITHM);
-                cipher.init(Cipher.DECRYPT_MODE, key);
-                return new String(cipher.doFinal(Base64.getDecoder().decode(content)), StandardCharsets.UTF_8);
+                return new String(doFinal(ALGORITHM, Cipher.DECRYPT_MODE, key, Base64.getDecoder().decode(content)), StandardCharsets.UTF_8);
             } catch (Exception e) {
                 throw new EncryptionException("RSA decrypt failed!", e);
             }
@@ -1,7 +1,5 @@
 package org.hzero.core.util;
 
-import org.apache.commons.lang3.StringUtils;
-
 /**
  * 安全工具
  *
@@ -20,17 +18,9 @@ public class SecurityUtils {
             return str;
         }
 
-        if (str.startsWith("+")) {
-            str = StringUtils.replaceFirst(str, "+", "'+");
-        }
-        else if (str.startsWith("=")) {
-            str = StringUtils.replaceFirst(str, "=", "'=");
-        }
-        else if (str.startsWith("-")) {
-            str = StringUtils.replaceFirst(str, "-", "'-");
-        }
-        else if (str.startsWith("@")) {
-            str = StringUtils.replaceFirst(str, "@", "'@");
+        char first = str.charAt(0);
+        if (first == '+' || first == '=' || first == '-' || first == '@') {
+            return "'" + str;
         }
 
         return str;
@@ -4,6 +4,9 @@ import java.lang.management.ManagementFactory;
 import java.net.InetAddress;
 import java.net.NetworkInterface;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
@@ -15,6 +18,9 @@ import org.springframework.util.Assert;
  * 分布式高效有序ID生产黑科技(sequence) <br>
  * 优化开源项目：http://git.oschina.net/yu120/sequence
  * </p>
+ * <p>
+ * 上次生产 ID 的时间戳和序列号保存在一个 AtomicLong 中，通过 CAS 生成 ID，不使用锁
+ * </p>
  *
  * @author xianzhi.chen@hand-china.com
  * @since 2018-09-07
@@ -52,13 +58,9 @@ public class Sequence {
      */
     private long dataCenterId;
     /**
-     * 并发控制
-     */
-    private long innerSequence = 0L;
-    /**
-     * 上次生产 ID 时间戳
+     * 上次生产 ID 的 时间戳(相对起始标记点) + 序列号，时间戳左移序列号位数
      */
-    private long lastTimestamp = -1L;
+    private final AtomicLong latest = new AtomicLong(0L);
 
     public Sequence() {
         this.dataCenterId = getDataCenterId(MAX_DATACENTER_ID);
@@ -74,9 +76,9 @@ public class Sequence {
      * @param dataCenterId 序列号
      */
     public Sequence(long workerId, long dataCenterId) {
-        Assert.isTrue(workerId > MAX_WORKER_ID || workerId < 0,
+        Assert.isTrue(workerId <= MAX_WORKER_ID && workerId >= 0,
             String.format("worker Id can't be greater than %d or less than 0", MAX_WORKER_ID));
-        Assert.isTrue(dataCenterId > MAX_DATACENTER_ID || dataCenterId < 0,
+        Assert.isTrue(dataCenterId <= MAX_DATACENTER_ID && dataCenterId >= 0,
             String.format("dataCenter Id can't be greater than %d or less than 0", MAX_DATACENTER_ID));
         this.workerId = workerId;
         this.dataCenterId = dataCenterId;
@@ -133,45 +135,47 @@ public class Sequence {
      *
      * @return
      */
-    public synchronized long nextId() {
-        long timestamp = timeGen();
-        //闰秒
-        if (timestamp < lastTimestamp) {
-            long offset = lastTimestamp - timestamp;
-            if (offset <= 5) {
-                try {
-                    wait(offset << 1);
-                    timestamp = timeGen();
-                    if (timestamp < lastTimestamp) {
-                        throw new RuntimeException(String.format("Clock moved backwards.  Refusing to generate id for %d milliseconds", offset));
-                    }
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
+    public long nextId() {
+        while (true) {
+            long current = latest.get();
+            long lastTimestamp = (current >>> SEQUENCE_BITS) + TWEPOCH;
+            long timestamp = timeGen();
+            //闰秒
+            if (timestamp < lastTimestamp) {
+                long offset = lastTimestamp - timestamp;
+                if (offset > 5) {
+                    throw new RuntimeException(String.format("Clock moved backwards.  Refusing to generate id for %d milliseconds", offset));
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(offset << 1));
+                timestamp = timeGen();
+                if (timestamp < lastTimestamp) {
+                    throw new RuntimeException(String.format("Clock moved backwards.  Refusing to generate id for %d milliseconds", offset));
                 }
-            } else {
-                throw new RuntimeException(String.format("Clock moved backwards.  Refusing to generate id for %d milliseconds", offset));
             }
-        }
 
-        if (lastTimestamp == timestamp) {
-            // 相同毫秒内，序列号自增
-            innerSequence = (innerSequence + 1) & SEQUENCE_MASK;
-            if (innerSequence == 0) {
-                // 同一毫秒的序列数已经达到最大
-                timestamp = tilNextMillis(lastTimestamp);
+            long next;
+            if (lastTimestamp == timestamp) {
+                // 相同毫秒内，序列号自增
+                if ((current & SEQUENCE_MASK) == SEQUENCE_MASK) {
+                    // 同一毫秒的序列数已经达到最大
+                    tilNextMillis(lastTimestamp);
+                    continue;
+                }
+                next = current + 1;
+            } else {
+                // 不同毫秒内，序列号置为 1 - 3 随机数
+                next = ((timestamp - TWEPOCH) << SEQUENCE_BITS) | ThreadLocalRandom.current().nextLong(1, 3);
+            }
+            if (!latest.compareAndSet(current, next)) {
+                continue;
             }
-        } else {
-            // 不同毫秒内，序列号置为 1 - 3 随机数
-            innerSequence = ThreadLocalRandom.current().nextLong(1, 3);
-        }
-
-        lastTimestamp = timestamp;
 
-        // 时间戳部分 | 数据中心部分 | 机器标识部分 | 序列号部分
-        return ((timestamp - TWEPOCH) << TIMESTAMP_LEFT_SHIFT)
-            | (dataCenterId << DATACENTER_ID_SHIFT)
-            | (workerId << WORKER_ID_SHIFT)
-            | innerSequence;
+            // 时间戳部分 | 数据中心部分 | 机器标识部分 | 序列号部分
+            return ((next >>> SEQUENCE_BITS) << TIMESTAMP_LEFT_SHIFT)
+                | (dataCenterId << DATACENTER_ID_SHIFT)
+                | (workerId << WORKER_ID_SHIFT)
+                | (next & SEQUENCE_MASK);
+        }
     }
 
     protected long tilNextMillis(long lastTimestamp) {
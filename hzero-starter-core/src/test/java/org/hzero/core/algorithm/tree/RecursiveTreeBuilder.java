@@ -0,0 +1,72 @@
+package org.hzero.core.algorithm.tree;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * 递归实现的构建树，保留 {@link TreeBuilder} 改为迭代实现之前的逻辑，作为回归测试的对照
+ *
+ * @author agent 2026/10/18
+ */
+final class RecursiveTreeBuilder {
+
+    private RecursiveTreeBuilder() {
+    }
+
+    static <P, T extends Child<T>> List<T> buildTree(List<T> objList, Node<P, T> nodeOperation) {
+        Map<P, T> objMap = objList.stream().collect(Collectors.toMap(nodeOperation::getKey, Function.identity()));
+        Map<P, List<T>> objGroupMap = new HashMap<>(16);
+        objMap.forEach((key, value) -> {
+            P parent;
+            if (objMap.containsKey(nodeOperation.getParentKey(value))) {
+                parent = nodeOperation.getParentKey(value);
+            } else {
+                parent = null;
+            }
+            if (objGroupMap.containsKey(parent)) {
+                objGroupMap.get(parent).add(value);
+            } else {
+                List<T> list = new ArrayList<>();
+                list.add(value);
+                objGroupMap.put(parent, list);
+            }
+        });
+        return recursiveBuildTree(objGroupMap, null, new ArrayList<>(), nodeOperation);
+    }
+
+    static <P, T extends Child<T>> List<T> buildTree(List<T> objList, P rootKey, Node<P, T> nodeOperation) {
+        return recursiveBuildTree(objList.stream().collect(groupingByWithNullKeys(nodeOperation::getParentKey)),
+                rootKey, new ArrayList<>(), nodeOperation);
+    }
+
+    static <P, T extends Child<T>> List<T> buildTree(List<T> objList, P rootKey, Key<P, T> key, ParentKey<P, T> parentKey) {
+        return recursiveBuildTree(objList.stream().collect(groupingByWithNullKeys(parentKey::getParentKey)), rootKey, new ArrayList<>(), key);
+    }
+
+    private static <P, T extends Child<T>> List<T> recursiveBuildTree(Map<P, List<T>> map, P parentId, List<T> list, Key<P, T> key) {
+        if (map.containsKey(parentId)) {
+            List<T> parentList = map.get(parentId);
+            for (T node : parentList) {
+                if (map.containsKey(key.getKey(node))) {
+                    node.addChildren(recursiveBuildTree(map, key.getKey(node), new ArrayList<>(), key));
+                }
+                list.add(node);
+            }
+        }
+        return list;
+    }
+
+    private static <T, A> Collector<T, ?, Map<A, List<T>>> groupingByWithNullKeys(Function<? super T, ? extends A> classifier) {
+        return Collectors.toMap(
+                classifier,
+                Collections::singletonList,
+                (List<T> oldList, List<T> newEl) -> {
+                    List<T> newList = new ArrayList<>(oldList.size() + 1);
+                    newList.addAll(oldList);
+                    newList.addAll(newEl);
+                    return newList;
+                });
+    }
+}
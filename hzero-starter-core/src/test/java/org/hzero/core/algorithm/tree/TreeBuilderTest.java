@@ -0,0 +1,130 @@
+package org.hzero.core.algorithm.tree;
+
+import java.util.*;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * 构建树回归测试，迭代实现的结果与 {@link RecursiveTreeBuilder} 的递归实现一致
+ *
+ * @author agent 2026/10/18
+ */
+public class TreeBuilderTest {
+
+    private static final int SIZE = 2000;
+    private static final long[] SEEDS = {1L, 7L, 42L, 2020L};
+    private static final Node<Long, TreeNode> NODE = new Node<Long, TreeNode>() {
+        @Override
+        public Long getKey(TreeNode obj) {
+            return obj.id;
+        }
+
+        @Override
+        public Long getParentKey(TreeNode obj) {
+            return obj.parentId;
+        }
+    };
+
+    @Test
+    public void buildTreeWithRootKeyMatchesRecursive() {
+        for (long seed : SEEDS) {
+            Assert.assertEquals(render(RecursiveTreeBuilder.buildTree(forest(seed), null, NODE), false),
+                    render(TreeBuilder.buildTree(forest(seed), null, NODE), false));
+            Assert.assertEquals(render(RecursiveTreeBuilder.buildTree(forest(seed), 1L, NODE), false),
+                    render(TreeBuilder.buildTree(forest(seed), 1L, NODE), false));
+        }
+    }
+
+    @Test
+    public void buildTreeWithKeyFunctionsMatchesRecursive() {
+        for (long seed : SEEDS) {
+            Assert.assertEquals(render(RecursiveTreeBuilder.buildTree(forest(seed), null, NODE::getKey, NODE::getParentKey), false),
+                    render(TreeBuilder.buildTree(forest(seed), null, NODE::getKey, NODE::getParentKey), false));
+        }
+    }
+
+    /**
+     * 递归实现按照 HashMap 的顺序分组，兄弟节点的顺序不保证，按照 key 排序后比较
+     */
+    @Test
+    public void buildTreeWithOrphansMatchesRecursive() {
+        for (long seed : SEEDS) {
+            Assert.assertEquals(render(RecursiveTreeBuilder.buildTree(forest(seed), NODE), true),
+                    render(TreeBuilder.buildTree(forest(seed), NODE), true));
+        }
+    }
+
+    @Test
+    public void buildDeepTreeWithoutRecursion() {
+        int depth = 100_000;
+        List<TreeNode> nodes = new ArrayList<>(depth);
+        for (long i = 1; i <= depth; i++) {
+            nodes.add(new TreeNode(i, i == 1 ? null : i - 1));
+        }
+        List<TreeNode> tree = TreeBuilder.buildTree(nodes, null, NODE);
+        Assert.assertEquals(1, tree.size());
+        TreeNode node = tree.get(0);
+        int count = 1;
+        while (node.getChildren() != null) {
+            Assert.assertEquals(1, node.getChildren().size());
+            node = node.getChildren().get(0);
+            count++;
+        }
+        Assert.assertEquals(depth, count);
+    }
+
+    /**
+     * 随机生成森林，节点顺序打乱，约 5% 的节点父节点不存在
+     */
+    private static List<TreeNode> forest(long seed) {
+        Random random = new Random(seed);
+        List<TreeNode> nodes = new ArrayList<>(SIZE);
+        for (long i = 1; i <= SIZE; i++) {
+            Long parentId;
+            int type = random.nextInt(100);
+            if (i == 1 || type < 5) {
+                parentId = null;
+            } else if (type < 10) {
+                parentId = -i;
+            } else {
+                parentId = 1 + (long) random.nextInt((int) i - 1);
+            }
+            nodes.add(new TreeNode(i, parentId));
+        }
+        Collections.shuffle(nodes, random);
+        return nodes;
+    }
+
+    private static String render(List<TreeNode> nodes, boolean sort) {
+        StringBuilder builder = new StringBuilder();
+        render(nodes, sort, builder);
+        return builder.toString();
+    }
+
+    private static void render(List<TreeNode> nodes, boolean sort, StringBuilder builder) {
+        List<TreeNode> list = new ArrayList<>(nodes);
+        if (sort) {
+            list.sort(Comparator.comparing(node -> node.id));
+        }
+        builder.append('[');
+        for (TreeNode node : list) {
+            builder.append(node.id);
+            if (node.getChildren() != null) {
+                render(node.getChildren(), sort, builder);
+            }
+            builder.append(',');
+        }
+        builder.append(']');
+    }
+
+    private static class TreeNode extends Child<TreeNode> {
+        private final Long id;
+        private final Long parentId;
+
+        private TreeNode(Long id, Long parentId) {
+            this.id = id;
+            this.parentId = parentId;
+        }
+    }
+}
@@ -1,5 +1,11 @@
 package org.hzero.excel.autoconfigure;
 
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.hzero.core.util.CommonExecutor;
+import org.hzero.excel.config.ExcelConfig;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 
@@ -12,4 +18,17 @@ import org.springframework.context.annotation.Configuration;
 @ComponentScan(basePackages = "org.hzero.excel")
 public class ExcelAutoConfig {
 
-}
\ No newline at end of file
+    /**
+     * 多sheet页并行读取的线程池名称
+     */
+    public static final String SHEET_READER_EXECUTOR = "excelSheetReaderExecutor";
+
+    /**
+     * 多sheet页并行读取共用的线程池，线程数为 hzero.excel.sheet-parallelism
+     */
+    @Bean(name = SHEET_READER_EXECUTOR, destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor excelSheetReaderExecutor(ExcelConfig excelConfig) {
+        int parallelism = Math.max(excelConfig.getSheetParallelism(), 1);
+        return CommonExecutor.buildThreadFirstExecutor(parallelism, parallelism, 5, TimeUnit.MINUTES, 1 << 10, "ExcelSheetReader");
+    }
+}
@@ -27,6 +27,16 @@ public class ExcelConfig {
      */
     private Integer bufferSize = 1024;
 
+    /**
+     * 批量读取时每批的行数
+     */
+    private Integer batchSize = 1000;
+
+    /**
+     * 多sheet页读取时并行读取的线程数，小于等于 1 时按顺序读取
+     */
+    private Integer sheetParallelism = 1;
+
     public Integer getCacheSize() {
         return cacheSize;
     }
@@ -44,4 +54,22 @@ public class ExcelConfig {
         this.bufferSize = bufferSize;
         return this;
     }
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public ExcelConfig setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public Integer getSheetParallelism() {
+        return sheetParallelism;
+    }
+
+    public ExcelConfig setSheetParallelism(Integer sheetParallelism) {
+        this.sheetParallelism = sheetParallelism;
+        return this;
+    }
 }
@@ -0,0 +1,69 @@
+package org.hzero.excel.entity;
+
+import java.util.List;
+
+import org.hzero.excel.service.ExcelReadListener;
+
+/**
+ * 多sheet页读取时单个sheet页的读取配置
+ *
+ * @author agent 2026/10/18
+ */
+public class SheetOption {
+
+    /**
+     * sheet页 0开始
+     */
+    private Integer sheetNo;
+    /**
+     * 起始行 0开始
+     */
+    private Integer startNo = 0;
+    private List<Column> columns;
+    private ExcelReadListener listener;
+
+    public Integer getSheetNo() {
+        return sheetNo;
+    }
+
+    public SheetOption setSheetNo(Integer sheetNo) {
+        this.sheetNo = sheetNo;
+        return this;
+    }
+
+    public Integer getStartNo() {
+        return startNo;
+    }
+
+    public SheetOption setStartNo(Integer startNo) {
+        this.startNo = startNo;
+        return this;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    public SheetOption setColumns(List<Column> columns) {
+        this.columns = columns;
+        return this;
+    }
+
+    public ExcelReadListener getListener() {
+        return listener;
+    }
+
+    public SheetOption setListener(ExcelReadListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "SheetOption{" +
+                "sheetNo=" + sheetNo +
+                ", startNo=" + startNo +
+                ", columns=" + columns +
+                '}';
+    }
+}
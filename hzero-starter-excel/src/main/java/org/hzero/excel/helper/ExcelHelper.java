@@ -1,21 +1,37 @@
 package org.hzero.excel.helper;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 
 import com.alibaba.fastjson.JSONObject;
 import com.monitorjbl.xlsx.StreamingReader;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.hzero.excel.autoconfigure.ExcelAutoConfig;
 import org.hzero.excel.config.ExcelConfig;
 import org.hzero.excel.entity.Column;
+import org.hzero.excel.entity.SheetOption;
+import org.hzero.excel.service.ExcelBatchReadListener;
 import org.hzero.excel.service.ExcelReadListener;
+import org.hzero.excel.supporter.ExcelBeanReader;
 import org.hzero.excel.supporter.ExcelReader;
 import org.hzero.excel.supporter.ExcelWriter;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 import io.choerodon.core.convertor.ApplicationContextHelper;
+import io.choerodon.core.exception.CommonException;
+import io.choerodon.core.oauth.CustomUserDetails;
+import io.choerodon.core.oauth.DetailsHelper;
 
 /**
  * excel工具方法
@@ -67,12 +83,118 @@ public class ExcelHelper {
         readDate(workbook, listener, names, sheetNo, startNo);
     }
 
+    /**
+     * 读取excel文件的多个sheet页
+     * <p>
+     * hzero.excel.sheet-parallelism 大于 1 时，各个sheet页在共用的有界线程池中并行读取，每个线程单独打开文件，
+     * 内存占用为每个线程的行缓存和共享字符串表；同一sheet页的数据按行顺序回调，不同sheet页的 listener 会被并发调用
+     *
+     * @param file   文件
+     * @param sheets 各个sheet页的读取配置
+     */
+    public static void readSheets(File file, List<SheetOption> sheets) {
+        ExcelConfig excelConfig = ApplicationContextHelper.getContext().getBean(ExcelConfig.class);
+        int parallelism = Math.min(excelConfig.getSheetParallelism(), sheets.size());
+        if (parallelism <= 1) {
+            try (Workbook workbook = openWorkbook(file, excelConfig)) {
+                readSheets(workbook, sheets);
+            } catch (IOException e) {
+                throw new CommonException(e.getMessage(), e);
+            }
+            return;
+        }
+        CustomUserDetails userDetails = DetailsHelper.getUserDetails();
+        ExecutorService executorService = ApplicationContextHelper.getContext()
+                .getBean(ExcelAutoConfig.SHEET_READER_EXECUTOR, ExecutorService.class);
+        List<Future<?>> futures = new ArrayList<>(sheets.size());
+        try {
+            for (SheetOption sheet : sheets) {
+                futures.add(executorService.submit(() -> {
+                    if (userDetails != null) {
+                        DetailsHelper.setCustomUserDetails(userDetails);
+                    }
+                    try (Workbook workbook = openWorkbook(file, excelConfig)) {
+                        readDate(workbook, sheet.getListener(), sheet.getColumns(), sheet.getSheetNo(), sheet.getStartNo());
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new CommonException(cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CommonException("Read excel interrupted", e);
+        } finally {
+            // 一个sheet页失败时停止读取其它sheet页
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * 读取excel文件的多个sheet页，并行读取时输入流先写入临时文件
+     *
+     * @param inputStream 文件输入流
+     * @param sheets      各个sheet页的读取配置
+     * @see #readSheets(File, List)
+     */
+    public static void readSheets(InputStream inputStream, List<SheetOption> sheets) {
+        ExcelConfig excelConfig = ApplicationContextHelper.getContext().getBean(ExcelConfig.class);
+        if (excelConfig.getSheetParallelism() <= 1 || sheets.size() <= 1) {
+            try (Workbook workbook = StreamingReader.builder()
+                    .rowCacheSize(excelConfig.getCacheSize())
+                    .bufferSize(excelConfig.getBufferSize())
+                    .open(inputStream)) {
+                readSheets(workbook, sheets);
+            } catch (IOException e) {
+                throw new CommonException(e.getMessage(), e);
+            }
+            return;
+        }
+        File temp = null;
+        try {
+            temp = File.createTempFile("hzero-excel-", ".xlsx");
+            Files.copy(inputStream, temp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            readSheets(temp, sheets);
+        } catch (IOException e) {
+            throw new CommonException(e.getMessage(), e);
+        } finally {
+            if (temp != null) {
+                temp.delete();
+            }
+        }
+    }
+
+    private static void readSheets(Workbook workbook, List<SheetOption> sheets) {
+        for (SheetOption sheet : sheets) {
+            readDate(workbook, sheet.getListener(), sheet.getColumns(), sheet.getSheetNo(), sheet.getStartNo());
+        }
+    }
+
+    private static Workbook openWorkbook(File file, ExcelConfig excelConfig) {
+        return StreamingReader.builder()
+                .rowCacheSize(excelConfig.getCacheSize())
+                .bufferSize(excelConfig.getBufferSize())
+                .open(file);
+    }
+
     private static void readDate(Workbook workbook, ExcelReadListener listener, List<Column> names, Integer sheetNo, Integer startNo) {
         Sheet sheet = workbook.getSheetAt(sheetNo);
         ExcelReader excelReader = new ExcelReader();
         int index = -1;
         listener.onStart();
         for (Row row : sheet) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CommonException("Read excel interrupted");
+            }
             index++;
             if (index < startNo) {
                 continue;
@@ -85,6 +207,131 @@ public class ExcelHelper {
         listener.onFinish();
     }
 
+    /**
+     * 批量读取excel文件，每批数据调用一次 listener
+     *
+     * @param file     文件
+     * @param listener 数据处理类
+     * @param names    字段名称
+     * @param sheetNo  sheet页 0开始
+     * @param startNo  起始行 0开始
+     */
+    public static void readBatch(File file, ExcelBatchReadListener<JSONObject> listener, List<Column> names, Integer sheetNo, Integer startNo) {
+        ExcelConfig excelConfig = ApplicationContextHelper.getContext().getBean(ExcelConfig.class);
+        try (Workbook workbook = StreamingReader.builder()
+                .rowCacheSize(excelConfig.getCacheSize())
+                .bufferSize(excelConfig.getBufferSize())
+                .open(file)) {
+            readBatch(workbook, listener, jsonRowReader(names), sheetNo, startNo, excelConfig.getBatchSize());
+        } catch (IOException e) {
+            throw new CommonException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 批量读取excel文件，每批数据调用一次 listener
+     *
+     * @param inputStream 文件输入流
+     * @param listener    数据处理类
+     * @param names       字段名称
+     * @param sheetNo     sheet页 0开始
+     * @param startNo     起始行 0开始
+     */
+    public static void readBatch(InputStream inputStream, ExcelBatchReadListener<JSONObject> listener, List<Column> names, Integer sheetNo, Integer startNo) {
+        ExcelConfig excelConfig = ApplicationContextHelper.getContext().getBean(ExcelConfig.class);
+        try (Workbook workbook = StreamingReader.builder()
+                .rowCacheSize(excelConfig.getCacheSize())
+                .bufferSize(excelConfig.getBufferSize())
+                .open(inputStream)) {
+            readBatch(workbook, listener, jsonRowReader(names), sheetNo, startNo, excelConfig.getBatchSize());
+        } catch (IOException e) {
+            throw new CommonException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 批量读取excel文件为实体，列名称对应实体的字段名称，每批数据调用一次 listener
+     *
+     * @param file     文件
+     * @param type     实体类型
+     * @param listener 数据处理类
+     * @param names    字段名称
+     * @param sheetNo  sheet页 0开始
+     * @param startNo  起始行 0开始
+     */
+    public static <T> void readBatch(File file, Class<T> type, ExcelBatchReadListener<T> listener, List<Column> names, Integer sheetNo, Integer startNo) {
+        ExcelConfig excelConfig = ApplicationContextHelper.getContext().getBean(ExcelConfig.class);
+        ExcelBeanReader<T> beanReader = new ExcelBeanReader<>(type, names);
+        try (Workbook workbook = StreamingReader.builder()
+                .rowCacheSize(excelConfig.getCacheSize())
+                .bufferSize(excelConfig.getBufferSize())
+                .open(file)) {
+            readBatch(workbook, listener, beanReader::readDataRow, sheetNo, startNo, excelConfig.getBatchSize());
+        } catch (IOException e) {
+            throw new CommonException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 批量读取excel文件为实体，列名称对应实体的字段名称，每批数据调用一次 listener
+     *
+     * @param inputStream 文件输入流
+     * @param type        实体类型
+     * @param listener    数据处理类
+     * @param names       字段名称
+     * @param sheetNo     sheet页 0开始
+     * @param startNo     起始行 0开始
+     */
+    public static <T> void readBatch(InputStream inputStream, Class<T> type, ExcelBatchReadListener<T> listener, List<Column> names, Integer sheetNo, Integer startNo) {
+        ExcelConfig excelConfig = ApplicationContextHelper.getContext().getBean(ExcelConfig.class);
+        ExcelBeanReader<T> beanReader = new ExcelBeanReader<>(type, names);
+        try (Workbook workbook = StreamingReader.builder()
+                .rowCacheSize(excelConfig.getCacheSize())
+                .bufferSize(excelConfig.getBufferSize())
+                .open(inputStream)) {
+            readBatch(workbook, listener, beanReader::readDataRow, sheetNo, startNo, excelConfig.getBatchSize());
+        } catch (IOException e) {
+            throw new CommonException(e.getMessage(), e);
+        }
+    }
+
+    private static Function<Row, JSONObject> jsonRowReader(List<Column> names) {
+        ExcelReader excelReader = new ExcelReader();
+        return row -> {
+            JSONObject object = excelReader.readDataRow(row, names);
+            return object.isEmpty() ? null : object;
+        };
+    }
+
+    private static <T> void readBatch(Workbook workbook, ExcelBatchReadListener<T> listener, Function<Row, T> rowReader,
+                                      Integer sheetNo, Integer startNo, Integer defaultBatchSize) {
+        Sheet sheet = workbook.getSheetAt(sheetNo);
+        int batchSize = listener.batchSize() > 0 ? listener.batchSize() : defaultBatchSize;
+        List<T> batch = new ArrayList<>(batchSize);
+        int index = -1;
+        listener.onStart();
+        for (Row row : sheet) {
+            index++;
+            if (index < startNo) {
+                continue;
+            }
+            T data = rowReader.apply(row);
+            if (data == null) {
+                continue;
+            }
+            batch.add(data);
+            if (batch.size() >= batchSize) {
+                listener.invoke(batch);
+                // listener 可能持有上一批数据，不复用集合
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            listener.invoke(batch);
+        }
+        listener.onFinish();
+    }
+
     /**
      * 写excel
      */
@@ -0,0 +1,40 @@
+package org.hzero.excel.service;
+
+import java.util.List;
+
+/**
+ * 批量导入执行，每读取 batchSize 行调用一次，便于批量插入
+ *
+ * @param <T> 行数据类型，JSONObject 或实体类
+ * @author agent 2026/10/18
+ */
+public interface ExcelBatchReadListener<T> {
+
+    /**
+     * 批量导入执行方法
+     *
+     * @param rows 一批行数据，不为空
+     */
+    void invoke(List<T> rows);
+
+    /**
+     * 每批的行数，小于等于 0 时使用 hzero.excel.batch-size 配置
+     *
+     * @return 每批的行数
+     */
+    default int batchSize() {
+        return 0;
+    }
+
+    /**
+     * 开始
+     */
+    default void onStart() {
+    }
+
+    /**
+     * 结束
+     */
+    default void onFinish() {
+    }
+}
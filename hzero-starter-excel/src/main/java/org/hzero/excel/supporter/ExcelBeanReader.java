@@ -0,0 +1,171 @@
+package org.hzero.excel.supporter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.hzero.core.base.BaseConstants;
+import org.hzero.excel.entity.Column;
+
+import io.choerodon.core.exception.CommonException;
+
+/**
+ * excel读取为实体，列与字段的映射、字段的赋值方式和类型转换在创建时解析，每行只创建实体并赋值
+ * <p>
+ * 单元格的值与 {@link ExcelReader#readDataCell} 的校验规则一致，再转换为字段类型
+ *
+ * @param <T> 实体类型
+ * @author agent 2026/10/18
+ */
+public class ExcelBeanReader<T> {
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<T> type;
+    private final MethodHandle constructor;
+    private final ColumnBinding[] bindings;
+
+    public ExcelBeanReader(Class<T> type, List<Column> columns) {
+        this.type = type;
+        try {
+            Constructor<T> declaredConstructor = type.getDeclaredConstructor();
+            declaredConstructor.setAccessible(true);
+            this.constructor = MethodHandles.lookup().unreflectConstructor(declaredConstructor)
+                    .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new CommonException("Class " + type.getName() + " must have a no-argument constructor", e);
+        }
+        this.bindings = new ColumnBinding[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            bindings[i] = new ColumnBinding(columns.get(i), findField(type, columns.get(i).getName()));
+        }
+    }
+
+    /**
+     * 读取一行数据
+     *
+     * @param dataRow 行
+     * @return 实体，所有单元格都为空时返回 null
+     */
+    public T readDataRow(Row dataRow) {
+        Object bean = null;
+        for (ColumnBinding binding : bindings) {
+            String value = ExcelReader.readDataCell(dataRow.getCell(binding.column.getIndex()), binding.column);
+            if (value == null) {
+                continue;
+            }
+            if (bean == null) {
+                bean = newInstance();
+            }
+            binding.set(bean, value);
+        }
+        return type.cast(bean);
+    }
+
+    private Object newInstance() {
+        try {
+            return constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new CommonException("Instantiate " + type.getName() + " failed", e);
+        }
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            try {
+                Field field = current.getDeclaredField(name);
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    return field;
+                }
+            } catch (NoSuchFieldException e) {
+                // 继续查找父类
+            }
+        }
+        throw new CommonException("Field " + name + " not found in " + type.getName());
+    }
+
+    /**
+     * 列与字段的绑定
+     */
+    private static final class ColumnBinding {
+        private final Column column;
+        private final MethodHandle setter;
+        private final Function<String, Object> converter;
+
+        private ColumnBinding(Column column, Field field) {
+            this.column = column;
+            try {
+                field.setAccessible(true);
+                this.setter = MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new CommonException("Field " + field.getName() + " can not be set", e);
+            }
+            this.converter = getConverter(field.getType(), column);
+        }
+
+        private void set(Object bean, String value) {
+            Object fieldValue;
+            try {
+                fieldValue = converter.apply(value);
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw new CommonException(BaseConstants.ErrorCode.DATA_INVALID, e);
+            }
+            try {
+                setter.invokeExact(bean, fieldValue);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new CommonException(BaseConstants.ErrorCode.DATA_INVALID, e);
+            }
+        }
+
+        private static Function<String, Object> getConverter(Class<?> fieldType, Column column) {
+            if (fieldType == String.class || fieldType == Object.class) {
+                return value -> value;
+            } else if (fieldType == Long.class || fieldType == long.class) {
+                return value -> new BigDecimal(value).longValueExact();
+            } else if (fieldType == Integer.class || fieldType == int.class) {
+                return value -> new BigDecimal(value).intValueExact();
+            } else if (fieldType == Short.class || fieldType == short.class) {
+                return value -> new BigDecimal(value).shortValueExact();
+            } else if (fieldType == Double.class || fieldType == double.class) {
+                return Double::valueOf;
+            } else if (fieldType == Float.class || fieldType == float.class) {
+                return Float::valueOf;
+            } else if (fieldType == BigDecimal.class) {
+                return BigDecimal::new;
+            } else if (fieldType == Boolean.class || fieldType == boolean.class) {
+                return Boolean::valueOf;
+            } else if (fieldType == Date.class) {
+                return value -> parseDate(value, column);
+            } else if (fieldType == LocalDate.class) {
+                return value -> parseDate(value, column).toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+            } else if (fieldType == LocalDateTime.class) {
+                return value -> parseDate(value, column).toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+            }
+            throw new CommonException("Field type " + fieldType.getName() + " not support!");
+        }
+
+        private static Date parseDate(String value, Column column) {
+            try {
+                return ExcelReader.getDateFormat(column.getFormat()).parse(value);
+            } catch (ParseException e) {
+                throw new CommonException(BaseConstants.ErrorCode.DATA_INVALID, e);
+            }
+        }
+    }
+}
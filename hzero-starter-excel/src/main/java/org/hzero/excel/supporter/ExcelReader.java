@@ -3,7 +3,10 @@ package org.hzero.excel.supporter;
 import java.text.DecimalFormat;
 import java.text.ParseException;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.FastDateFormat;
@@ -24,8 +27,13 @@ import io.choerodon.core.exception.CommonException;
  */
 public class ExcelReader {
 
-    private static final DecimalFormat DEFAULT_DECIMAL_FORMAT = new DecimalFormat("#.####################");
+    private static final String DEFAULT_DECIMAL_PATTERN = "#.####################";
     private static final FastDateFormat DEFAULT_DATE_FORMAT = FastDateFormat.getInstance("yyyy-MM-dd HH:mm:ss");
+    /**
+     * DecimalFormat 非线程安全，每个线程按格式缓存
+     */
+    private static final ThreadLocal<Map<String, DecimalFormat>> DECIMAL_FORMATS = ThreadLocal.withInitial(HashMap::new);
+    private static final Map<String, FastDateFormat> DATE_FORMATS = new ConcurrentHashMap<>();
 
     public JSONObject readDataRow(Row dataRow, List<Column> columns) {
         JSONObject jsonObject = new JSONObject();
@@ -64,19 +72,15 @@ public class ExcelReader {
     public static String readValue(double value, Column column) {
         switch (column.getColumnType()) {
             case Column.STRING:
-                return DEFAULT_DECIMAL_FORMAT.format(value);
+                return getDecimalFormat(DEFAULT_DECIMAL_PATTERN).format(value);
             case Column.DATE:
                 Date date = DateUtil.getJavaDate(value);
-                if (StringUtils.isNotBlank(column.getFormat())) {
-                    return FastDateFormat.getInstance(column.getFormat()).format(date);
-                } else {
-                    return DEFAULT_DATE_FORMAT.format(date);
-                }
+                return getDateFormat(column.getFormat()).format(date);
             case Column.LONG:
                 return String.valueOf((long) value);
             case Column.DECIMAL:
                 if (StringUtils.isNotBlank(column.getFormat())) {
-                    return new DecimalFormat(column.getFormat()).format(value);
+                    return getDecimalFormat(column.getFormat()).format(value);
                 } else {
                     return String.valueOf(value);
                 }
@@ -95,21 +99,15 @@ public class ExcelReader {
             case Column.LONG:
                 return value;
             case Column.DATE:
-                FastDateFormat dateFormat;
-                if (StringUtils.isNotBlank(column.getFormat())) {
-                    dateFormat = FastDateFormat.getInstance(column.getFormat());
-                } else {
-                    dateFormat = DEFAULT_DATE_FORMAT;
-                }
                 try {
-                    dateFormat.parse(value);
+                    getDateFormat(column.getFormat()).parse(value);
                     return value;
                 } catch (ParseException e) {
                     throw new CommonException(BaseConstants.ErrorCode.DATA_INVALID);
                 }
             case Column.DECIMAL:
                 if (StringUtils.isNotBlank(column.getFormat())) {
-                    return new DecimalFormat(column.getFormat()).format(Double.parseDouble(value));
+                    return getDecimalFormat(column.getFormat()).format(Double.parseDouble(value));
                 } else {
                     return String.valueOf(Double.parseDouble(value));
                 }
@@ -126,7 +124,7 @@ public class ExcelReader {
                 return String.valueOf(value);
             case Column.DECIMAL:
                 if (StringUtils.isNotBlank(column.getFormat())) {
-                    return new DecimalFormat(column.getFormat()).format(value);
+                    return getDecimalFormat(column.getFormat()).format(value);
                 } else {
                     return String.valueOf(value);
                 }
@@ -136,4 +134,15 @@ public class ExcelReader {
                 return null;
         }
     }
+
+    private static DecimalFormat getDecimalFormat(String pattern) {
+        return DECIMAL_FORMATS.get().computeIfAbsent(pattern, DecimalFormat::new);
+    }
+
+    static FastDateFormat getDateFormat(String pattern) {
+        if (StringUtils.isBlank(pattern)) {
+            return DEFAULT_DATE_FORMAT;
+        }
+        return DATE_FORMATS.computeIfAbsent(pattern, FastDateFormat::getInstance);
+    }
 }
@@ -7,6 +7,7 @@ import org.hzero.core.metadata.MetadataEntry;
 import org.hzero.core.redis.RedisHelper;
 import org.hzero.export.config.ExportInitializeConfig;
 import org.hzero.export.endpoint.AsyncExportEndpoint;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -29,6 +30,8 @@ import java.util.concurrent.TimeUnit;
 @EnableAspectJAutoProxy(proxyTargetClass = true, exposeProxy = true)
 public class ExportAutoConfiguration {
 
+    public static final String PREFETCH_EXECUTOR = "exportPrefetchExecutor";
+
     @Bean
     public ExportColumnHelper exportColumnHelper(ExportProperties properties, RedisHelper redisHelper) {
         /* 如果设置默认异步请求，又没有开启异步配置，直接抛异常，提示用户重新配置。 */
@@ -63,18 +66,46 @@ public class ExportAutoConfiguration {
     @ConditionalOnProperty(value = ExportProperties.PREFIX + ".enable-async", havingValue = "true")
     public ExportDataHelper asyncExportDataHelper(ExportProperties properties,
                                                   ExportFutureManager futureManager,
-                                                  ExportColumnHelper exportColumnHelper) {
+                                                  ExportColumnHelper exportColumnHelper,
+                                                  @Qualifier(PREFETCH_EXECUTOR) ThreadPoolExecutor prefetchExecutor) {
         ExecutorService executorService = new ThreadPoolExecutor(properties.getCorePoolSize(), properties.getMaximumPoolSize(),
                 properties.getKeepAliveTime().toMillis(), TimeUnit.MILLISECONDS,
                 properties.getQueueSize() == null ? new LinkedBlockingQueue<>() : new LinkedBlockingQueue<>(properties.getQueueSize()),
                 new ThreadFactoryBuilder().setNameFormat(properties.getAsyncThreadName() + "-%d").build());
-        return new ExportDataHelper(exportColumnHelper, executorService, futureManager);
+        ExportDataHelper exportDataHelper = new ExportDataHelper(exportColumnHelper, executorService, futureManager);
+        exportDataHelper.setPrefetchExecutorService(prefetchExecutorService(properties, prefetchExecutor));
+        return exportDataHelper;
     }
 
     @Bean
     @ConditionalOnMissingBean
-    public ExportDataHelper exportDataHelper(ExportColumnHelper exportColumnHelper) {
-        return new ExportDataHelper(exportColumnHelper);
+    public ExportDataHelper exportDataHelper(ExportProperties properties, ExportColumnHelper exportColumnHelper,
+                                             @Qualifier(PREFETCH_EXECUTOR) ThreadPoolExecutor prefetchExecutor) {
+        ExportDataHelper exportDataHelper = new ExportDataHelper(exportColumnHelper);
+        exportDataHelper.setPrefetchExecutorService(prefetchExecutorService(properties, prefetchExecutor));
+        return exportDataHelper;
+    }
+
+    /**
+     * 分页数据预取线程池，核心线程空闲超时后回收，未开启预取时不会创建线程
+     */
+    @Bean(name = PREFETCH_EXECUTOR, destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor exportPrefetchExecutor(ExportProperties properties) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.getPrefetchPoolSize(), properties.getPrefetchPoolSize(),
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("export-prefetch-executor-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 未开启预取时返回 null
+     */
+    private ExecutorService prefetchExecutorService(ExportProperties properties, ExecutorService prefetchExecutor) {
+        if (properties.getPrefetchDepth() == null || properties.getPrefetchDepth() <= 0) {
+            return null;
+        }
+        return prefetchExecutor;
     }
 
     @Bean
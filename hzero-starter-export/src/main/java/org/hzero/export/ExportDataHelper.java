@@ -13,7 +13,9 @@ import org.hzero.core.export.ExportAsyncTemplate;
 import org.hzero.core.export.ExportTaskDTO;
 import org.hzero.core.variable.RequestVariableHolder;
 import org.hzero.export.annotation.ExcelExport;
+import org.hzero.export.constant.ExportFormat;
 import org.hzero.export.download.HttpExcelDownloader;
+import org.hzero.export.exporter.csv.CsvExporter;
 import org.hzero.export.exporter.v2.ExcelExporterV2;
 import org.hzero.export.util.ResponseWriter;
 import org.hzero.export.vo.ExportColumn;
@@ -25,6 +27,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
@@ -57,6 +61,7 @@ public class ExportDataHelper {
     private ExportColumnHelper exportColumnHelper;
     private ExecutorService executorService;
     private ExportFutureManager futureManager;
+    private ExecutorService prefetchExecutorService;
     @Autowired(required = false)
     private ExportAsyncTemplate exportAsyncTemplate;
     @Autowired
@@ -116,10 +121,14 @@ public class ExportDataHelper {
         exportParam.setSelection(selection);
 
         boolean paging = pageRequest != null;
+        // 游标分页忽略页码，导出按页码逐页查询时每页都会返回相同的数据
+        if (paging && pageRequest.isSeek()) {
+            throw new CommonException("export.page.seek-not-supported");
+        }
 
         int singleSheetMaxRow = exportParam.getSingleSheetMaxRow() == null ? properties.getSingleSheetMaxRow() : exportParam.getSingleSheetMaxRow();
         int singleExcelMaxSheetNum = exportParam.getSingleExcelMaxSheetNum() == null ? properties.getSingleExcelMaxSheetNum() : exportParam.getSingleExcelMaxSheetNum();
-        IExcelExporter excelExporter = new ExcelExporterV2(root, exportParam.getFillerType(), singleExcelMaxSheetNum, singleSheetMaxRow);
+        IExcelExporter excelExporter = createExcelExporter(root, exportParam, singleExcelMaxSheetNum, singleSheetMaxRow);
         ExcelDownloader downloader = new HttpExcelDownloader(exportParam.getFileName(),
                 ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest(), response, excelExporter);
 
@@ -140,7 +149,7 @@ public class ExportDataHelper {
                     data = (Page<?>) requestData(target, method, args);
                 } catch (Throwable e) {
                     excelExporter.setError(e.getMessage());
-                    downloader.download();
+                    download(downloader, excelExporter);
                     return;
                 }
                 // 如果配置了异步阈值，当超过异步阈值时，同步转异步
@@ -149,15 +158,12 @@ public class ExportDataHelper {
                 } else {
                     try {
                         fillSheet(data, excelExporter, pageRequest);
-                        while (pageRequest.getPage() < data.getTotalPages() - 1) {
-                            pageRequest.setPage(pageRequest.getPage() + 1);
-                            data = (Page<?>) requestData(target, method, args);
-                            fillSheet(data, excelExporter, pageRequest);
-                        }
+                        fillPages(target, method, args, pageRequest, excelExporter, data.getTotalPages() - 1,
+                                contextInitialization(userDetails), contextFinalization());
                     } catch (Throwable e) {
                         excelExporter.setError(e.getMessage());
                     }
-                    downloader.download();
+                    download(downloader, excelExporter);
                     return;
                 }
             }
@@ -171,7 +177,7 @@ public class ExportDataHelper {
                     data = requestData(target, method, args);
                 } catch (Throwable e) {
                     excelExporter.setError(e.getMessage());
-                    downloader.download();
+                    download(downloader, excelExporter);
                     return;
                 }
                 // 如果配置了异步阈值，当超过异步阈值时，同步转异步
@@ -183,7 +189,7 @@ public class ExportDataHelper {
                     } catch (Throwable e) {
                         excelExporter.setError(e.getMessage());
                     }
-                    downloader.download();
+                    download(downloader, excelExporter);
                     return;
                 }
             }
@@ -201,6 +207,15 @@ public class ExportDataHelper {
         }
     }
 
+    /**
+     * 设置分页数据预取线程池，配合 {@link ExportProperties#getPrefetchDepth()} 开启分页数据预取
+     *
+     * @param prefetchExecutorService 预取线程池
+     */
+    public void setPrefetchExecutorService(ExecutorService prefetchExecutorService) {
+        this.prefetchExecutorService = prefetchExecutorService;
+    }
+
     private void asyncExportAndResponse(String fileName,
                                         List<?> data,
                                         Object target,
@@ -213,21 +228,81 @@ public class ExportDataHelper {
         ExportTaskDTO dto = constructExportTaskDto(fileName, getLocalhost(), serviceName);
         String uuid = asyncExecute(new ExportTask(data, target, method, args,
                 pageRequest, excelExporter, exportAsyncTemplate, dto,
-                () -> {
-                    DetailsHelper.setCustomUserDetails(userDetails);
-                    if (userDetails != null) {
-                        if (!HystrixRequestContext.isCurrentThreadInitialized()) {
-                            HystrixRequestContext.initializeContext();
+                contextInitialization(userDetails), contextFinalization()));
+        ResponseWriter.writeAsyncRequestSuccess(response, uuid);
+    }
+
+    /**
+     * 在其它线程中查询数据前，传递当前用户信息
+     */
+    private Initialization contextInitialization(CustomUserDetails userDetails) {
+        return () -> {
+            if (userDetails != null) {
+                DetailsHelper.setCustomUserDetails(userDetails);
+                if (!HystrixRequestContext.isCurrentThreadInitialized()) {
+                    HystrixRequestContext.initializeContext();
+                }
+                RequestVariableHolder.TENANT_ID.set(userDetails.getOrganizationId());
+                RequestVariableHolder.USER_ID.set(userDetails.getUserId());
+            }
+        };
+    }
+
+    private Finalization contextFinalization() {
+        return () -> {
+            RequestVariableHolder.TENANT_ID.remove();
+            RequestVariableHolder.USER_ID.remove();
+        };
+    }
+
+    /**
+     * 查询并填充后续页的数据，配置了预取线程池时，后续页在线程池中提前查询，当前线程按页码顺序写入
+     *
+     * @param lastPage 最后一页的页码
+     */
+    private void fillPages(Object target, Method method, Object[] args, PageRequest pageRequest, IExcelExporter excelExporter,
+                           int lastPage, Initialization initialization, Finalization finalization) throws Throwable {
+        int prefetchDepth = properties.getPrefetchDepth() == null ? 0 : properties.getPrefetchDepth();
+        if (prefetchExecutorService == null || prefetchDepth <= 0 || pageRequest.getPage() >= lastPage) {
+            while (pageRequest.getPage() < lastPage) {
+                pageRequest.setPage(pageRequest.getPage() + 1);
+                Page<?> data = (Page<?>) requestData(target, method, args);
+                fillSheet(data, excelExporter, pageRequest);
+            }
+            return;
+        }
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        try (PagePrefetcher prefetcher = new PagePrefetcher(prefetchExecutorService, prefetchDepth, pageRequest.getPage() + 1, lastPage,
+                page -> {
+                    // 每页使用独立的分页参数，避免并发查询相互影响
+                    Object[] pageArgs = args.clone();
+                    for (int i = 0; i < pageArgs.length; i++) {
+                        if (pageArgs[i] == pageRequest) {
+                            pageArgs[i] = copyPageRequest(pageRequest, page);
                         }
-                        RequestVariableHolder.TENANT_ID.set(userDetails.getOrganizationId());
-                        RequestVariableHolder.USER_ID.set(userDetails.getUserId());
                     }
-                },
-                () -> {
-                    RequestVariableHolder.TENANT_ID.remove();
-                    RequestVariableHolder.USER_ID.remove();
-                }));
-        ResponseWriter.writeAsyncRequestSuccess(response, uuid);
+                    initialization.init();
+                    if (requestAttributes != null) {
+                        RequestContextHolder.setRequestAttributes(requestAttributes);
+                    }
+                    try {
+                        return (Page<?>) requestData(target, method, pageArgs);
+                    } finally {
+                        RequestContextHolder.resetRequestAttributes();
+                        finalization.finish();
+                        SecurityContextHolder.clearContext();
+                    }
+                })) {
+            while (prefetcher.hasNext()) {
+                Page<?> data = prefetcher.next();
+                pageRequest.setPage(pageRequest.getPage() + 1);
+                fillSheet(data, excelExporter, pageRequest);
+            }
+        }
+    }
+
+    private PageRequest copyPageRequest(PageRequest pageRequest, int page) {
+        return new PageRequest(page, pageRequest.getSize(), pageRequest.getSort());
     }
 
     private String getLocalhost() {
@@ -319,20 +394,18 @@ public class ExportDataHelper {
                 fillSheet(prefetchData, excelExporter, pageRequest);
                 if (pageRequest != null) {
                     Page<?> data = (Page<?>) prefetchData;
-                    while (pageRequest.getPage() < data.getTotalPages()) {
-                        pageRequest.setPage(pageRequest.getPage() + 1);
-                        data = (Page<?>) requestData(target, method, args);
-                        fillSheet(data, excelExporter, pageRequest);
-                    }
+                    fillPages(target, method, args, pageRequest, excelExporter, data.getTotalPages(),
+                            initialization, finalization);
                 }
-                byte[] file = excelExporter.exportBytes();
-                String fileType = excelExporter.getOutputFileSuffix().equals(IExcelExporter.ZIP_SUFFIX) ? ExportAsyncTemplate.FILE_TYPE_ZIP : ExportAsyncTemplate.FILE_TYPE_EXCEL;
+                String fileType = getAsyncFileType(excelExporter.getOutputFileSuffix());
                 Map<String, Object> additionInfo = new HashMap<>(2);
-                additionInfo.put("fileType", fileType);
-                additionInfo.put("file", file);
-                //文件上传优化方案
-                //InputStream fileInputStream = excelExporter.readInputStream();
-                //additionInfo.put("fileInputStream", fileInputStream);
+                additionInfo.put(ExportAsyncTemplate.FILE_TYPE_KEY, fileType);
+                if (exportAsyncTemplate.supportFileHandle()) {
+                    // 传递临时文件，文件在 excelExporter 关闭时删除
+                    additionInfo.put(ExportAsyncTemplate.FILE_HANDLE_KEY, excelExporter.exportFile());
+                } else {
+                    additionInfo.put(ExportAsyncTemplate.FILE_KEY, excelExporter.exportBytes());
+                }
                 exportAsyncTemplate.doWhenFinish(dto, additionInfo);
             } catch (Throwable e) {
                 LOGGER.error("export task execute error", e);
@@ -397,10 +470,47 @@ public class ExportDataHelper {
 
         int singleSheetMaxRow = exportParam.getSingleSheetMaxRow() == null ? properties.getSingleSheetMaxRow() : exportParam.getSingleSheetMaxRow();
         int singleExcelMaxSheetNum = exportParam.getSingleExcelMaxSheetNum() == null ? properties.getSingleExcelMaxSheetNum() : exportParam.getSingleExcelMaxSheetNum();
-        IExcelExporter excelExporter = new ExcelExporterV2(root, exportParam.getFillerType(), singleExcelMaxSheetNum, singleSheetMaxRow);
+        IExcelExporter excelExporter = createExcelExporter(root, exportParam, singleExcelMaxSheetNum, singleSheetMaxRow);
         ExcelDownloader downloader = new HttpExcelDownloader(null,
                 ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest(), response, excelExporter);
-        downloader.download();
+        download(downloader, excelExporter);
+    }
+
+    /**
+     * 同步下载，下载完成后关闭导出器删除临时文件
+     */
+    private void download(ExcelDownloader downloader, IExcelExporter excelExporter) {
+        try {
+            downloader.download();
+        } finally {
+            try {
+                excelExporter.close();
+            } catch (Exception e) {
+                LOGGER.error("The temp file clean failed.", e);
+            }
+        }
+    }
+
+    /**
+     * 根据导出格式创建导出器，CSV/TSV 按单sheet页最大行数拆分文件
+     */
+    private IExcelExporter createExcelExporter(ExportColumn root, ExportParam exportParam, int singleExcelMaxSheetNum, int singleSheetMaxRow) {
+        ExportFormat format = exportParam.getFormat();
+        if (format != null && format.isDelimited()) {
+            return new CsvExporter(root, format, singleSheetMaxRow);
+        }
+        return new ExcelExporterV2(root, exportParam.getFillerType(), singleExcelMaxSheetNum, singleSheetMaxRow);
+    }
+
+    private String getAsyncFileType(String suffix) {
+        if (IExcelExporter.ZIP_SUFFIX.equals(suffix)) {
+            return ExportAsyncTemplate.FILE_TYPE_ZIP;
+        } else if (ExportFormat.CSV.getSuffix().equals(suffix)) {
+            return ExportAsyncTemplate.FILE_TYPE_CSV;
+        } else if (ExportFormat.TSV.getSuffix().equals(suffix)) {
+            return ExportAsyncTemplate.FILE_TYPE_TSV;
+        }
+        return ExportAsyncTemplate.FILE_TYPE_EXCEL;
     }
 
     private List<?> requestData(Object target, Method method, Object[] args) throws InvocationTargetException, IllegalAccessException {
@@ -52,6 +52,18 @@ public class ExportProperties {
 
     private Integer singleSheetMaxRow = DEFAULT_MAX_ROW / 5;
 
+    /**
+     * 分页导出时预取的页数，大于 0 时在线程池中提前查询后续页的数据，与写入 excel 并行执行，默认不预取
+     * <p>
+     * 预取的页在预取线程中查询，不在导出方法的事务（包括异步导出的 REQUIRES_NEW 事务）中执行，各页之间不保证读取一致性
+     */
+    private Integer prefetchDepth = 0;
+
+    /**
+     * 分页数据预取线程池大小
+     */
+    private Integer prefetchPoolSize = DEFAULT_CORE_POOL_SIZE;
+
     public String getDefaultRequestMode() {
         return defaultRequestMode;
     }
@@ -131,4 +143,20 @@ public class ExportProperties {
     public void setSingleSheetMaxRow(Integer singleSheetMaxRow) {
         this.singleSheetMaxRow = singleSheetMaxRow;
     }
+
+    public Integer getPrefetchDepth() {
+        return prefetchDepth;
+    }
+
+    public void setPrefetchDepth(Integer prefetchDepth) {
+        this.prefetchDepth = prefetchDepth;
+    }
+
+    public Integer getPrefetchPoolSize() {
+        return prefetchPoolSize;
+    }
+
+    public void setPrefetchPoolSize(Integer prefetchPoolSize) {
+        this.prefetchPoolSize = prefetchPoolSize;
+    }
 }
@@ -1,5 +1,6 @@
 package org.hzero.export;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -27,6 +28,13 @@ public interface IExcelExporter extends AutoCloseable {
 
     byte[] exportBytes() throws IOException;
 
+    /**
+     * 导出到临时文件，不将文件读入内存，临时文件在 {@link #close()} 时删除
+     *
+     * @return 临时文件
+     */
+    File exportFile() throws IOException;
+
     void export(OutputStream outputStream) throws IOException;
 
     String getTitle();
@@ -0,0 +1,92 @@
+package org.hzero.export;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import io.choerodon.core.domain.Page;
+
+/**
+ * 分页数据预取，在线程池中提前查询后续页的数据，按页码顺序返回，同时最多预取 depth 页，查询与写入 excel 并行执行
+ *
+ * @author agent 2026/10/18
+ */
+class PagePrefetcher implements AutoCloseable {
+
+    private final ExecutorService executorService;
+    private final int depth;
+    private final int lastPage;
+    private final PageFetcher fetcher;
+    private final Deque<Future<Page<?>>> futures;
+    private int nextPage;
+
+    /**
+     * @param executorService 查询线程池
+     * @param depth           最多预取的页数
+     * @param firstPage       第一个需要查询的页码
+     * @param lastPage        最后一个需要查询的页码
+     * @param fetcher         查询指定页码的数据
+     */
+    PagePrefetcher(ExecutorService executorService, int depth, int firstPage, int lastPage, PageFetcher fetcher) {
+        this.executorService = executorService;
+        this.depth = Math.max(depth, 1);
+        this.lastPage = lastPage;
+        this.fetcher = fetcher;
+        this.futures = new ArrayDeque<>(this.depth);
+        this.nextPage = firstPage;
+    }
+
+    boolean hasNext() {
+        return !futures.isEmpty() || nextPage <= lastPage;
+    }
+
+    /**
+     * 获取下一页数据，并继续预取后续页
+     *
+     * @return 下一页数据
+     */
+    Page<?> next() throws Throwable {
+        prefetch();
+        Future<Page<?>> future = futures.pollFirst();
+        if (future == null) {
+            throw new IllegalStateException("No more pages to fetch.");
+        }
+        Page<?> page;
+        try {
+            page = future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+        prefetch();
+        return page;
+    }
+
+    private void prefetch() {
+        while (futures.size() < depth && nextPage <= lastPage) {
+            int page = nextPage++;
+            futures.addLast(executorService.submit(() -> fetcher.fetch(page)));
+        }
+    }
+
+    @Override
+    public void close() {
+        Future<Page<?>> future;
+        while ((future = futures.pollFirst()) != null) {
+            future.cancel(true);
+        }
+    }
+
+    @FunctionalInterface
+    interface PageFetcher {
+
+        /**
+         * 查询指定页码的数据
+         *
+         * @param page 页码
+         * @return 分页数据
+         */
+        Page<?> fetch(int page) throws Exception;
+    }
+}
@@ -0,0 +1,52 @@
+package org.hzero.export.constant;
+
+/**
+ * 导出文件格式
+ *
+ * @author agent 2026/10/18
+ */
+public enum ExportFormat {
+    /**
+     * Excel 文件
+     */
+    XLSX(".xlsx", (char) 0),
+    /**
+     * 逗号分隔的文本文件
+     */
+    CSV(".csv", ','),
+    /**
+     * 制表符分隔的文本文件
+     */
+    TSV(".tsv", '\t')
+
+    ;
+
+    private final String suffix;
+    private final char separator;
+
+    ExportFormat(String suffix, char separator) {
+        this.suffix = suffix;
+        this.separator = separator;
+    }
+
+    /**
+     * @return 文件后缀
+     */
+    public String getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * @return 文本文件的列分隔符
+     */
+    public char getSeparator() {
+        return separator;
+    }
+
+    /**
+     * @return 是否是分隔符文本格式
+     */
+    public boolean isDelimited() {
+        return this != XLSX;
+    }
+}
@@ -458,6 +458,14 @@ public class ExcelExporter implements IExcelExporter {
         return readFileBytes();
     }
 
+    @Override
+    public File exportFile() throws IOException {
+        if (temp == null) {
+            temp = buildTempFile();
+        }
+        return temp;
+    }
+
     @Override
     public void export(OutputStream outputStream) throws IOException {
         writeBytes(outputStream);
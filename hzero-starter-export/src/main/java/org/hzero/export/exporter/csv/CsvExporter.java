@@ -0,0 +1,415 @@
+package org.hzero.export.exporter.csv;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.hzero.core.jackson.JacksonConstant;
+import org.hzero.core.message.MessageAccessor;
+import org.hzero.core.util.SecurityUtils;
+import org.hzero.export.IExcelExporter;
+import org.hzero.export.constant.ExportFormat;
+import org.hzero.export.render.ValueRenderer;
+import org.hzero.export.util.PropertyAccessor;
+import org.hzero.export.vo.ExportColumn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import io.choerodon.core.oauth.CustomUserDetails;
+import io.choerodon.core.oauth.DetailsHelper;
+
+/**
+ * 分隔符文本(CSV/TSV)导出，数据直接写入带缓冲的临时文件，不生成 Excel 工作簿
+ * <p>
+ * 只导出根节点下勾选的列，子集数据无法在一张平面表中表示，不会导出；每个文件超过单sheet页最大行数时拆分为多个文件并压缩
+ *
+ * @author agent 2026/10/18
+ */
+public class CsvExporter implements IExcelExporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CsvExporter.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char QUOTE = '"';
+    private static final String LINE_SEPARATOR = "\r\n";
+    /**
+     * UTF-8 BOM，Excel 打开时才能正确识别中文
+     */
+    private static final char BOM = '\uFEFF';
+
+    private final ExportColumn root;
+    private final ExportFormat format;
+    private final int singleFileMaxRow;
+    private final List<ExportColumn> columns;
+    private final SimpleDateFormat[] dateFormats;
+    private final DateTimeFormatter[] dateTimeFormatters;
+    private final Map<Class<? extends ValueRenderer>, ValueRenderer> renderers = new HashMap<>();
+
+    private final List<File> files = new ArrayList<>();
+    private Writer writer;
+    private int rowCount;
+
+    private File temp;
+
+    private InputStream inputStream;
+
+    private String errorMessage;
+
+    /**
+     * @param root             导出列
+     * @param format           文本格式
+     * @param singleFileMaxRow 单个文件最大行数
+     */
+    public CsvExporter(ExportColumn root, ExportFormat format, int singleFileMaxRow) {
+        Assert.isTrue(format != null && format.isDelimited(), "export format must be delimited text.");
+        this.root = root;
+        this.format = format;
+        this.singleFileMaxRow = singleFileMaxRow > 0 ? singleFileMaxRow : Integer.MAX_VALUE;
+        this.columns = getCheckedColumns(root);
+        this.dateFormats = new SimpleDateFormat[columns.size()];
+        this.dateTimeFormatters = new DateTimeFormatter[columns.size()];
+    }
+
+    /**
+     * 导出模板，仅设置标题
+     */
+    @Override
+    public void fillTitle() {
+        if (!files.isEmpty()) {
+            return;
+        }
+        try {
+            newFile();
+        } catch (IOException e) {
+            LOGGER.error("fill title occurred error.", e);
+            errorMessage = e.getMessage();
+        }
+    }
+
+    /**
+     * 填充表数据
+     *
+     * @param exportData 要填充的数据
+     */
+    @Override
+    public void fillSheet(List<?> exportData) {
+        if (CollectionUtils.isEmpty(exportData) || exportData.get(0) == null) {
+            return;
+        }
+        try {
+            for (Object rowData : exportData) {
+                if (rowData == null) {
+                    continue;
+                }
+                if (writer == null || rowCount >= singleFileMaxRow) {
+                    newFile();
+                }
+                writeRow(rowData);
+                rowCount++;
+            }
+        } catch (Exception e) {
+            LOGGER.error("fill data occurred error.", e);
+            errorMessage = e.getMessage();
+        }
+    }
+
+    @Override
+    public void setError(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    @Override
+    public String getError() {
+        return MessageAccessor.getMessage(errorMessage).desc();
+    }
+
+    @Override
+    public void export(OutputStream outputStream) throws IOException {
+        try {
+            if (StringUtils.isNotEmpty(errorMessage)) {
+                outputStream.write(errorMessage.getBytes());
+                return;
+            }
+            finish();
+            if (files.size() == 1) {
+                Files.copy(files.get(0).toPath(), outputStream);
+            } else {
+                OutputStream bufferedOutputStream = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+                writeZipBytes(bufferedOutputStream);
+                bufferedOutputStream.flush();
+            }
+        } catch (IOException e) {
+            LOGGER.error("IO exception when write response", e);
+        } finally {
+            if (outputStream != null) {
+                outputStream.close();
+            }
+        }
+    }
+
+    @Override
+    public InputStream export() throws IOException {
+        if (inputStream == null) {
+            inputStream = new FileInputStream(exportFile());
+        }
+        return inputStream;
+    }
+
+    @Override
+    public byte[] exportBytes() throws IOException {
+        return Files.readAllBytes(exportFile().toPath());
+    }
+
+    @Override
+    public File exportFile() throws IOException {
+        finish();
+        if (files.size() == 1) {
+            return files.get(0);
+        }
+        if (temp == null) {
+            File tmp = File.createTempFile(UUID.randomUUID().toString(), ZIP_SUFFIX);
+            try (OutputStream fos = new BufferedOutputStream(new FileOutputStream(tmp), BUFFER_SIZE)) {
+                writeZipBytes(fos);
+                fos.flush();
+            }
+            temp = tmp;
+        }
+        return temp;
+    }
+
+    @Override
+    public void close() throws Exception {
+        closeWriter();
+        if (inputStream != null) {
+            inputStream.close();
+        }
+        for (File file : files) {
+            Assert.isTrue(file.delete(), "delete tmp file error!");
+        }
+        files.clear();
+        if (temp != null) {
+            Assert.isTrue(temp.delete(), "delete tmp file error!");
+            temp = null;
+        }
+    }
+
+    @Override
+    public String getTitle() {
+        return root.getTitle();
+    }
+
+    @Override
+    public String getOutputFileSuffix() {
+        if (StringUtils.isNotEmpty(errorMessage)) {
+            return TXT_SUFFIX;
+        }
+        return files.size() > 1 ? ZIP_SUFFIX : format.getSuffix();
+    }
+
+    /**
+     * 结束写入，没有数据时输出只包含标题的文件
+     */
+    private void finish() throws IOException {
+        if (files.isEmpty()) {
+            newFile();
+        }
+        closeWriter();
+    }
+
+    private void newFile() throws IOException {
+        closeWriter();
+        File file = File.createTempFile(UUID.randomUUID().toString(), format.getSuffix());
+        files.add(file);
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE);
+        rowCount = 0;
+        writer.write(BOM);
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(format.getSeparator());
+            }
+            writeValue(columns.get(i).getTitle());
+        }
+        writer.write(LINE_SEPARATOR);
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            try {
+                writer.close();
+            } finally {
+                writer = null;
+            }
+        }
+    }
+
+    private void writeRow(Object rowData) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(format.getSeparator());
+            }
+            writeValue(getCellText(i, rowData));
+        }
+        writer.write(LINE_SEPARATOR);
+    }
+
+    /**
+     * 写入单元格，包含分隔符、引号、换行时用引号包围，引号转义为两个引号
+     */
+    private void writeValue(String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        char separator = format.getSeparator();
+        boolean quote = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == separator || c == QUOTE || c == '\r' || c == '\n') {
+                quote = true;
+                break;
+            }
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write(QUOTE);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == QUOTE) {
+                writer.write(QUOTE);
+            }
+            writer.write(c);
+        }
+        writer.write(QUOTE);
+    }
+
+    private String getCellText(int index, Object rowData) {
+        ExportColumn column = columns.get(index);
+        Object value = null;
+        try {
+            value = PropertyAccessor.readField(rowData, column.getName());
+        } catch (Exception ev) {
+            LOGGER.error("get value error.", ev);
+        }
+        value = doRender(value, rowData, column);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof String) {
+            // 防止 csv 注入
+            return SecurityUtils.preventCsvInjection((String) value);
+        } else if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        } else if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(((Number) value).doubleValue()).stripTrailingZeros().toPlainString();
+        } else if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        } else if (value instanceof Date) {
+            return getDateFormat(index).format((Date) value);
+        } else if (value instanceof LocalDate || value instanceof LocalDateTime) {
+            return formatTemporal(index, (TemporalAccessor) value);
+        }
+        return SecurityUtils.preventCsvInjection(String.valueOf(value));
+    }
+
+    /**
+     * 日期格式与 Excel 导出一致，需要进行时区转换，每列只创建一次
+     */
+    private SimpleDateFormat getDateFormat(int index) {
+        SimpleDateFormat dateFormat = dateFormats[index];
+        if (dateFormat == null) {
+            ExportColumn column = columns.get(index);
+            dateFormat = new SimpleDateFormat(getPattern(column, JacksonConstant.DEFAULT_DATE_FORMAT));
+            if (!column.isIgnoreTimeZone()) {
+                CustomUserDetails details = DetailsHelper.getUserDetails();
+                if (details != null && details.getTimeZone() != null) {
+                    dateFormat.setTimeZone(TimeZone.getTimeZone(details.getTimeZone()));
+                }
+            }
+            dateFormats[index] = dateFormat;
+        }
+        return dateFormat;
+    }
+
+    private String formatTemporal(int index, TemporalAccessor value) {
+        ExportColumn column = columns.get(index);
+        String pattern = getPattern(column, null);
+        if (pattern == null) {
+            return value instanceof LocalDate ? value.toString()
+                    : ((LocalDateTime) value).format(DateTimeFormatter.ofPattern(JacksonConstant.DEFAULT_DATE_FORMAT));
+        }
+        DateTimeFormatter formatter = dateTimeFormatters[index];
+        if (formatter == null) {
+            formatter = DateTimeFormatter.ofPattern(pattern);
+            dateTimeFormatters[index] = formatter;
+        }
+        return formatter.format(value);
+    }
+
+    private String getPattern(ExportColumn column, String defaultPattern) {
+        if (column.getExcelColumn() == null || StringUtils.isBlank(column.getExcelColumn().pattern())) {
+            return defaultPattern;
+        }
+        return column.getExcelColumn().pattern();
+    }
+
+    private Object doRender(Object value, Object rowData, ExportColumn column) {
+        if (column.getExcelColumn() == null) {
+            return value;
+        }
+        for (Class<? extends ValueRenderer> rendererType : column.getExcelColumn().renderers()) {
+            ValueRenderer renderer = renderers.computeIfAbsent(rendererType, type -> {
+                try {
+                    return type.getConstructor().newInstance();
+                } catch (Exception e) {
+                    LOGGER.error("can not create renderer!", e);
+                    return null;
+                }
+            });
+            if (renderer != null) {
+                value = renderer.render(value, rowData);
+            }
+        }
+        return value;
+    }
+
+    private void writeZipBytes(OutputStream outputStream) throws IOException {
+        ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream);
+        for (int i = 0; i < files.size(); i++) {
+            zipOutputStream.putNextEntry(new ZipEntry(getTitle() + "-" + (i + 1) + format.getSuffix()));
+            Files.copy(files.get(i).toPath(), zipOutputStream);
+            zipOutputStream.closeEntry();
+        }
+        zipOutputStream.finish();
+    }
+
+    private static List<ExportColumn> getCheckedColumns(ExportColumn root) {
+        if (root == null || CollectionUtils.isEmpty(root.getChildren())) {
+            return Collections.emptyList();
+        }
+        List<ExportColumn> checkedColumns = new ArrayList<>(root.getChildren().size());
+        for (ExportColumn column : root.getChildren()) {
+            if (!column.isChecked()) {
+                continue;
+            }
+            if (column.hasChildren()) {
+                LOGGER.warn("child column [{}] can not be exported in delimited text, ignored.", column.getName());
+                continue;
+            }
+            checkedColumns.add(column);
+        }
+        return checkedColumns;
+    }
+}
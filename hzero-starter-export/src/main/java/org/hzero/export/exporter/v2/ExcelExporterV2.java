@@ -1,6 +1,7 @@
 package org.hzero.export.exporter.v2;
 
 import java.io.*;
+import java.nio.file.Files;
 import java.util.List;
 import java.util.UUID;
 import java.util.zip.ZipEntry;
@@ -25,6 +26,7 @@ public class ExcelExporterV2 implements IExcelExporter {
     private static final String TXT_SUFFIX = ".txt";
     private static final String ZIP_SUFFIX = ".zip";
     private static final String EXCEL_SUFFIX = ".xlsx";
+    private static final int BUFFER_SIZE = 64 * 1024;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ExcelExporterV2.class);
 
@@ -102,29 +104,16 @@ public class ExcelExporterV2 implements IExcelExporter {
         return readFileBytes();
     }
 
-    private byte[] readFileBytes() throws IOException {
+    @Override
+    public File exportFile() throws IOException {
         if (temp == null) {
             temp = buildTempFile();
         }
-        return readDataFromTempFile(temp);
+        return temp;
     }
 
-    private byte[] readDataFromTempFile(File tmp) throws IOException {
-        FileInputStream fis = null;
-        byte[] buffer = null;
-        try {
-            fis = new FileInputStream(tmp);
-            int max = fis.available();
-            buffer = new byte[max];
-            fis.read(buffer, 0, max);
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            if (fis != null) {
-                fis.close();
-            }
-        }
-        return buffer;
+    private byte[] readFileBytes() throws IOException {
+        return Files.readAllBytes(exportFile().toPath());
     }
 
     @Override
@@ -162,10 +151,13 @@ public class ExcelExporterV2 implements IExcelExporter {
                 return;
             }
             List<SXSSFWorkbook> workbooks = excelFiller.getWorkbooks();
+            // 工作簿直接写入输出流，缓冲压缩流的小块写入
+            OutputStream bufferedOutputStream = new BufferedOutputStream(outputStream, BUFFER_SIZE);
             if (workbooks.size() == 1) {
-                workbooks.get(0).write(outputStream);
+                workbooks.get(0).write(bufferedOutputStream);
+                bufferedOutputStream.flush();
             } else {
-                writeZipBytes(outputStream);
+                writeZipBytes(bufferedOutputStream);
             }
         } catch (IOException e) {
             LOGGER.error("IO exception when write response", e);
@@ -178,55 +170,35 @@ public class ExcelExporterV2 implements IExcelExporter {
     }
 
     private void writeZipBytes(OutputStream outputStream) throws IOException {
-        ZipOutputStream zipOutputStream = null;
-        try {
-            zipOutputStream = new ZipOutputStream(outputStream);
-            ZipEntry zipEntry = null;
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
             List<SXSSFWorkbook> workbooks = excelFiller.getWorkbooks();
             for (int i = 0; i < workbooks.size(); i++) {
                 SXSSFWorkbook workbook = workbooks.get(i);
-                zipEntry = new ZipEntry(this.excelFiller.getRootExportColumn().getTitle() + "-" + (i + 1) + EXCEL_SUFFIX);
+                ZipEntry zipEntry = new ZipEntry(this.excelFiller.getRootExportColumn().getTitle() + "-" + (i + 1) + EXCEL_SUFFIX);
                 zipOutputStream.putNextEntry(zipEntry);
                 workbook.write(zipOutputStream);
-            }
-            zipOutputStream.flush();
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            if (zipOutputStream != null) {
                 zipOutputStream.closeEntry();
-                zipOutputStream.close();
             }
+            zipOutputStream.flush();
         }
-
     }
 
     private File buildTempFile() throws IOException {
-        File tmp = null;
-        FileOutputStream fos = null;
-        try {
-            List<SXSSFWorkbook> workbooks = this.excelFiller.getWorkbooks();
+        List<SXSSFWorkbook> workbooks = this.excelFiller.getWorkbooks();
+        File tmp = File.createTempFile(UUID.randomUUID().toString(), workbooks.size() == 1 ? EXCEL_SUFFIX : ZIP_SUFFIX);
+        try (OutputStream fos = new BufferedOutputStream(new FileOutputStream(tmp), BUFFER_SIZE)) {
             if (workbooks.size() == 1) {
-                tmp = new File(UUID.randomUUID() + EXCEL_SUFFIX);
-                boolean create = tmp.createNewFile();
-                Assert.isTrue(create, "create tmp file error!");
-                fos = new FileOutputStream(tmp);
                 workbooks.get(0).write(fos);
-                fos.flush();
             } else {
-                tmp = new File(UUID.randomUUID() + ZIP_SUFFIX);
-                boolean create = tmp.createNewFile();
-                Assert.isTrue(create, "create tmp file error!");
-                fos = new FileOutputStream(tmp);
                 writeZipBytes(fos);
-                fos.flush();
             }
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            if (fos != null) {
-                fos.close();
+            fos.flush();
+        } catch (IOException | RuntimeException e) {
+            // 写入失败时删除不完整的临时文件，避免被缓存后返回
+            if (!tmp.delete()) {
+                LOGGER.warn("delete tmp file {} error", tmp.getAbsolutePath());
             }
+            throw e;
         }
         return tmp;
     }
@@ -245,10 +217,7 @@ public class ExcelExporterV2 implements IExcelExporter {
      * @throws IOException
      */
     public InputStream readInputStream() throws IOException {
-        if (temp == null) {
-            temp = buildTempFile();
-        }
-        return readInputStreamFromTempFile(temp);
+        return readInputStreamFromTempFile(exportFile());
     }
 
 }
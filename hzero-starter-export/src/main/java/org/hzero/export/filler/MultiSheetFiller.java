@@ -2,13 +2,13 @@ package org.hzero.export.filler;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.poi.xssf.streaming.SXSSFCell;
 import org.apache.poi.xssf.streaming.SXSSFRow;
 import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.hzero.core.util.Pair;
 import org.hzero.export.exporter.ExcelExporter;
+import org.hzero.export.util.PropertyAccessor;
 import org.hzero.export.util.ShardUtils;
 import org.hzero.export.vo.ExportColumn;
 import org.springframework.util.Assert;
@@ -161,7 +161,7 @@ public class MultiSheetFiller extends ExcelFiller {
                 }
                 Object cellValue = null;
                 try {
-                    cellValue = FieldUtils.readField(parentData, parentColumn.getName(), true);
+                    cellValue = PropertyAccessor.readField(parentData, parentColumn.getName());
                 } catch (Exception ev) {
                     logger.error("get value error.", ev);
                 }
@@ -174,7 +174,7 @@ public class MultiSheetFiller extends ExcelFiller {
             if (column.isChecked() && !column.hasChildren()) {
                 Object cellValue = null;
                 try {
-                    cellValue = FieldUtils.readField(rowData, column.getName(), true);
+                    cellValue = PropertyAccessor.readField(rowData, column.getName());
                 } catch (Exception ev) {
                     logger.error("get value error.", ev);
                 }
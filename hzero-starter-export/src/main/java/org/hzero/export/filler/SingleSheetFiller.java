@@ -2,7 +2,6 @@ package org.hzero.export.filler;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.FillPatternType;
 import org.apache.poi.ss.usermodel.Font;
@@ -14,6 +13,7 @@ import org.apache.poi.xssf.streaming.SXSSFRow;
 import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.hzero.export.exporter.ExcelExporter;
+import org.hzero.export.util.PropertyAccessor;
 import org.hzero.export.vo.ExportColumn;
 import org.springframework.util.Assert;
 
@@ -181,7 +181,7 @@ public class SingleSheetFiller extends ExcelFiller {
             if (column.isChecked() && !column.hasChildren()) {
                 Object cellValue = null;
                 try {
-                    cellValue = FieldUtils.readField(rowData, column.getName(), true);
+                    cellValue = PropertyAccessor.readField(rowData, column.getName());
                 } catch (Exception ev) {
                     logger.error("get value error.", ev);
                 }
@@ -1,6 +1,6 @@
 package org.hzero.export.filler;
 
-import org.apache.commons.beanutils.BeanUtils;
+import org.apache.commons.beanutils.BeanUtilsBean;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.ss.usermodel.BorderStyle;
@@ -14,6 +14,7 @@ import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.hzero.export.annotation.ExcelSheet;
 import org.hzero.export.exporter.ExcelExporter;
+import org.hzero.export.util.PropertyAccessor;
 import org.hzero.export.vo.ExportColumn;
 import org.springframework.util.Assert;
 
@@ -157,7 +158,7 @@ public class SingleSheetStructureFiller extends ExcelFiller {
             if (column.isChecked() && !column.hasChildren()) {
                 String cellValue = null;
                 try {
-                    cellValue = BeanUtils.getProperty(rowData, column.getName());
+                    cellValue = BeanUtilsBean.getInstance().getConvertUtils().convert(PropertyAccessor.readProperty(rowData, column.getName()));
                 } catch (Exception ev) {
                     logger.error("get value error.", ev);
                 }
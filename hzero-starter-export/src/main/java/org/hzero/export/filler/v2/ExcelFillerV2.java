@@ -24,7 +24,6 @@ import org.apache.poi.xssf.usermodel.XSSFRichTextString;
 import org.hzero.boot.platform.lov.adapter.LovAdapter;
 import org.hzero.boot.platform.lov.dto.LovValueDTO;
 import org.hzero.core.base.BaseConstants;
-import org.hzero.core.util.Pair;
 import org.hzero.core.util.SecurityUtils;
 import org.hzero.export.IExcelFiller;
 import org.hzero.export.annotation.*;
@@ -53,10 +52,13 @@ public abstract class ExcelFillerV2 implements IExcelFiller {
     protected static final int ROW_ACCESS_WINDOW_SIZE = 100;
 
     private final Map<Class<? extends ValueRenderer>, ValueRenderer> renderers = new ConcurrentHashMap<>();
-    private final Map<Pair<ExcelColumn, SXSSFWorkbook>, CellStyle> styleMap = new ConcurrentHashMap<>();
-    private final Map<Pair<ExcelColumn, SXSSFWorkbook>, Font> fontMap = new ConcurrentHashMap<>();
-    private final Map<Pair<ExcelColumn, SXSSFWorkbook>, Comment> commentMap = new ConcurrentHashMap<>();
-    private volatile DataFormat dataFormat;
+    private final Map<Class<?>, Object> annotationInstances = new HashMap<>();
+    /**
+     * 每个工作簿中每一列的填充方式，填充在单线程中执行
+     */
+    private final Map<SXSSFWorkbook, Map<ExcelColumn, ColumnPlan>> columnPlans = new IdentityHashMap<>();
+    private SXSSFWorkbook planWorkbook;
+    private Map<ExcelColumn, ColumnPlan> workbookPlans;
 
     private ZoneId zoneId = ZoneId.systemDefault();
 
@@ -276,6 +278,8 @@ public abstract class ExcelFillerV2 implements IExcelFiller {
 
     /**
      * 填充单元格
+     * <p>
+     * 每个工作簿中的每一列只解析一次渲染器、样式和批注，值类型不变时直接复用上一次选择的写入方式
      *
      * @param cell        SXSSFCell
      * @param value       数据
@@ -283,69 +287,36 @@ public abstract class ExcelFillerV2 implements IExcelFiller {
      * @param excelColumn 行数据配置属性
      */
     protected void fillCellValue(SXSSFWorkbook workbook, SXSSFCell cell, Object value, Object rowData, ExcelColumn excelColumn, boolean isTitle) {
-
-        List<Class<? extends ValueRenderer>> renderers = isTitle ? null : (excelColumn == null ? null : Arrays.asList(excelColumn.renderers()));
-        Class<? extends org.hzero.export.annotation.Comment> comment = excelColumn == null ? null : excelColumn.comment();
-
-        value = this.doRender(value, rowData, renderers);
+        ColumnPlan plan = getColumnPlan(workbook, excelColumn);
+        if (!isTitle) {
+            value = plan.render(value, rowData);
+        }
         if (value == null) {
             cell.setCellType(CellType.BLANK);
             return;
         }
-        Class<?> type = value.getClass();
-        if (value instanceof Number) {
-            cell.setCellType(CellType.NUMERIC);
-            cell.setCellValue(((Number) value).doubleValue());
-        } else if (value instanceof Boolean) {
-            cell.setCellType(CellType.BOOLEAN);
-            cell.setCellValue((Boolean) value);
-        } else if (value instanceof Date) {
-            cell.setCellType(CellType.NUMERIC);
-            cell.setCellValue((Date) value);
-        } else if (value instanceof LocalDate) {
-            cell.setCellType(CellType.NUMERIC);
-            cell.setCellValue(Date.from(((LocalDate) value).atStartOfDay(zoneId).toInstant()));
-        } else if (value instanceof LocalDateTime) {
-            cell.setCellType(CellType.NUMERIC);
-            cell.setCellValue(Date.from(((LocalDateTime) value).atZone(zoneId).toInstant()));
-        } else if (value instanceof String) {
-            cell.setCellType(CellType.STRING);
-            // 防止 csv 注入
-            value = SecurityUtils.preventCsvInjection((String) value);
-            cell.setCellValue(String.valueOf(value));
-        } else {
-            this.logger.warn("can not process type [{}] in excel export", type);
-            cell.setCellType(CellType.STRING);
-            value = SecurityUtils.preventCsvInjection(String.valueOf(value));
-            cell.setCellValue(String.valueOf(value));
-        }
+        plan.getCellWriter(value.getClass()).write(cell, value, zoneId);
 
-        CellStyle s = getCellStyle(workbook, excelColumn, isTitle);
         //标题无需添加注释
-        if (!isTitle && comment != null) {
-            setComment(workbook, cell, comment, excelColumn);
+        if (isTitle) {
+            cell.setCellStyle(plan.getTitleStyle());
+        } else {
+            plan.setComment(cell);
+            cell.setCellStyle(plan.getStyle());
         }
-        cell.setCellStyle(s);
-
     }
 
-    private CellStyle getCellStyle(SXSSFWorkbook workbook, ExcelColumn excelColumn, boolean isTitle) {
-        //标题无需缓存
-        if (isTitle) {
-            return createCellStyle(workbook, excelColumn, true);
-        }
-        return styleMap.computeIfAbsent(Pair.of(excelColumn, workbook), column -> {
-            CellStyle columnCellStyle = createCellStyle(workbook, excelColumn, false);
-            String pattern = excelColumn == null ? null : excelColumn.pattern();
-            if (StringUtils.isNotBlank(pattern)) {
-                //lazy init
-                if (dataFormat == null) {
-                    dataFormat = workbook.createDataFormat();
-                }
-                columnCellStyle.setDataFormat(dataFormat.getFormat(pattern));
-            }
-            return columnCellStyle;
-        });
+    private ColumnPlan getColumnPlan(SXSSFWorkbook workbook, ExcelColumn excelColumn) {
+        if (workbook != planWorkbook) {
+            workbookPlans = columnPlans.computeIfAbsent(workbook, key -> new IdentityHashMap<>());
+            planWorkbook = workbook;
+        }
+        ColumnPlan plan = workbookPlans.get(excelColumn);
+        if (plan == null) {
+            plan = new ColumnPlan(workbook, excelColumn);
+            workbookPlans.put(excelColumn, plan);
+        }
+        return plan;
     }
 
     private CellStyle createCellStyle(SXSSFWorkbook workbook, ExcelColumn excelColumn, boolean isTitle) {
@@ -357,7 +328,7 @@ public abstract class ExcelFillerV2 implements IExcelFiller {
         Class<? extends org.hzero.export.annotation.Color> backgroundColor =
                 excelColumn == null ? null : (isTitle ? excelColumn.titleBackgroundColor() : excelColumn.backgroundColor());
         if (font != null) {
-            setFont(workbook, columnCellStyle, font, excelColumn);
+            setFont(workbook, columnCellStyle, font);
         }
         if (foregroundColor != null) {
             setForegroundColor(columnCellStyle, foregroundColor);
@@ -368,24 +339,16 @@ public abstract class ExcelFillerV2 implements IExcelFiller {
         return columnCellStyle;
     }
 
-    private void setFont(SXSSFWorkbook workbook, CellStyle style, Class<? extends org.hzero.export.annotation.Font> fontClass, ExcelColumn excelColumn) {
-        org.hzero.export.annotation.Font font = getFontInstance(fontClass);
+    private void setFont(SXSSFWorkbook workbook, CellStyle style, Class<? extends org.hzero.export.annotation.Font> fontClass) {
+        org.hzero.export.annotation.Font font = getInstance(fontClass, org.hzero.export.annotation.Font.class);
         if (font instanceof EmptyFont) {
             return;
         }
-        style.setFont(font.getFont(fontMap.computeIfAbsent(Pair.of(excelColumn, workbook), column -> workbook.createFont())));
-    }
-
-    private org.hzero.export.annotation.Font getFontInstance(Class<? extends org.hzero.export.annotation.Font> fontClass) {
-        try {
-            return fontClass.newInstance();
-        } catch (IllegalAccessException | InstantiationException e) {
-            throw new CommonException("org.hzero.export.annotation.Font class newInstance() failed", e);
-        }
+        style.setFont(font.getFont(workbook.createFont()));
     }
 
     private void setForegroundColor(CellStyle style, Class<? extends org.hzero.export.annotation.Color> foregroundColorClass) {
-        org.hzero.export.annotation.Color foregroundColor = getForegroundColorInstance(foregroundColorClass);
+        org.hzero.export.annotation.Color foregroundColor = getInstance(foregroundColorClass, ForegroundColor.class);
         if (foregroundColor instanceof EmptyColor) {
             return;
         }
@@ -395,16 +358,8 @@ public abstract class ExcelFillerV2 implements IExcelFiller {
         style.setFillForegroundColor(colors.getIndex());
     }
 
-    private org.hzero.export.annotation.Color getForegroundColorInstance(Class<? extends org.hzero.export.annotation.Color> foregroundColorClass) {
-        try {
-            return foregroundColorClass.newInstance();
-        } catch (IllegalAccessException | InstantiationException e) {
-            throw new CommonException("org.hzero.export.annotation.ForegroundColor class newInstance() failed", e);
-        }
-    }
-
     private void setBackgroundColor(CellStyle style, Class<? extends org.hzero.export.annotation.Color> backgroundColorClass) {
-        org.hzero.export.annotation.Color foregroundColor = getBackgroundColorInstance(backgroundColorClass);
+        org.hzero.export.annotation.Color foregroundColor = getInstance(backgroundColorClass, BackgroundColor.class);
         if (foregroundColor instanceof EmptyColor) {
             return;
         }
@@ -414,38 +369,20 @@ public abstract class ExcelFillerV2 implements IExcelFiller {
         style.setFillBackgroundColor(colors.getIndex());
     }
 
-    private org.hzero.export.annotation.Color getBackgroundColorInstance(Class<? extends org.hzero.export.annotation.Color> backgroundColorClass) {
-        try {
-            return backgroundColorClass.newInstance();
-        } catch (IllegalAccessException | InstantiationException e) {
-            throw new CommonException("org.hzero.export.annotation.ForegroundColor class newInstance() failed", e);
-        }
-    }
-
-    private void setComment(SXSSFWorkbook workbook, SXSSFCell cell, Class<? extends org.hzero.export.annotation.Comment> commentClass, ExcelColumn excelColumn) {
-        org.hzero.export.annotation.Comment comment = getCommentInstance(commentClass);
-        if (comment instanceof EmptyComment) {
-            return;
-        }
-        CommentProperty commentProperty = comment.getComment();
-        if (cell.getCellComment() == null) {
-            SXSSFDrawing p = cell.getSheet().createDrawingPatriarch();
-            Comment commentValue = commentMap.computeIfAbsent(Pair.of(excelColumn, workbook), column -> {
-                Comment c = p.createCellComment(new XSSFClientAnchor(0, 0, 0, 0, cell.getColumnIndex(), cell.getRowIndex(), cell.getColumnIndex() + 2, cell.getRowIndex() + 2));
-                c.setString(new XSSFRichTextString(commentProperty.getComment()));
-                c.setAuthor(commentProperty.getAuthor());
-                return c;
-            });
-            cell.setCellComment(commentValue);
-        }
-    }
-
-    private org.hzero.export.annotation.Comment getCommentInstance(Class<? extends org.hzero.export.annotation.Comment> commentClass) {
-        try {
-            return commentClass.newInstance();
-        } catch (IllegalAccessException | InstantiationException e) {
-            throw new CommonException("org.hzero.export.annotation.Comment class newInstance() failed", e);
+    /**
+     * 获取字体、颜色、批注等配置类的实例，每个类只实例化一次
+     */
+    private <T> T getInstance(Class<? extends T> type, Class<?> kind) {
+        Object instance = annotationInstances.get(type);
+        if (instance == null) {
+            try {
+                instance = type.newInstance();
+            } catch (IllegalAccessException | InstantiationException e) {
+                throw new CommonException(kind.getName() + " class newInstance() failed", e);
+            }
+            annotationInstances.put(type, instance);
         }
+        return type.cast(instance);
     }
 
     /**
@@ -506,17 +443,7 @@ public abstract class ExcelFillerV2 implements IExcelFiller {
     protected Object doRender(Object value, Object rowData, List<Class<? extends ValueRenderer>> rendererTypes) {
         if (CollectionUtils.isNotEmpty(rendererTypes)) {
             for (Class<? extends ValueRenderer> rendererType : rendererTypes) {
-                ValueRenderer renderer = this.renderers.computeIfAbsent(rendererType, key ->
-                        Optional.ofNullable(key).map(type -> {
-                            try {
-                                return type.getConstructor().newInstance();
-                            } catch (Exception e) {
-                                logger.error("can not create renderer!", e);
-                                return null;
-                            }
-                        }).orElse(null)
-                );
-
+                ValueRenderer renderer = getRenderer(rendererType);
                 if (renderer != null) {
                     value = renderer.render(value, rowData);
                 }
@@ -525,6 +452,19 @@ public abstract class ExcelFillerV2 implements IExcelFiller {
         return value;
     }
 
+    private ValueRenderer getRenderer(Class<? extends ValueRenderer> rendererType) {
+        return this.renderers.computeIfAbsent(rendererType, key ->
+                Optional.ofNullable(key).map(type -> {
+                    try {
+                        return type.getConstructor().newInstance();
+                    } catch (Exception e) {
+                        logger.error("can not create renderer!", e);
+                        return null;
+                    }
+                }).orElse(null)
+        );
+    }
+
     @Override
     public List<SXSSFWorkbook> getWorkbooks() {
         return workbooks;
@@ -595,4 +535,162 @@ public abstract class ExcelFillerV2 implements IExcelFiller {
         lovValueList.stream().map(LovValueDTO::getMeaning).distinct().collect(Collectors.toList()).toArray(lovValues);
         return lovValues;
     }
+
+    /**
+     * 工作簿中一列的填充方式：渲染器、样式、批注在第一次填充该列时解析，之后每个单元格直接复用
+     */
+    private final class ColumnPlan {
+        private final SXSSFWorkbook workbook;
+        private final ExcelColumn excelColumn;
+        private final ValueRenderer[] valueRenderers;
+        private final org.hzero.export.annotation.Comment comment;
+        private CellStyle style;
+        private CellStyle titleStyle;
+        private Comment cellComment;
+        private Class<?> valueType;
+        private CellWriter cellWriter;
+
+        private ColumnPlan(SXSSFWorkbook workbook, ExcelColumn excelColumn) {
+            this.workbook = workbook;
+            this.excelColumn = excelColumn;
+            List<ValueRenderer> columnRenderers = new ArrayList<>();
+            org.hzero.export.annotation.Comment columnComment = null;
+            if (excelColumn != null) {
+                for (Class<? extends ValueRenderer> rendererType : excelColumn.renderers()) {
+                    ValueRenderer renderer = getRenderer(rendererType);
+                    if (renderer != null) {
+                        columnRenderers.add(renderer);
+                    }
+                }
+                columnComment = getInstance(excelColumn.comment(), org.hzero.export.annotation.Comment.class);
+            }
+            this.valueRenderers = columnRenderers.toArray(new ValueRenderer[0]);
+            this.comment = columnComment instanceof EmptyComment ? null : columnComment;
+        }
+
+        private Object render(Object value, Object rowData) {
+            for (ValueRenderer renderer : valueRenderers) {
+                value = renderer.render(value, rowData);
+            }
+            return value;
+        }
+
+        private CellWriter getCellWriter(Class<?> type) {
+            if (type != valueType) {
+                cellWriter = CellWriter.of(type);
+                valueType = type;
+                if (cellWriter == CellWriter.OTHER) {
+                    logger.warn("can not process type [{}] in excel export", type);
+                }
+            }
+            return cellWriter;
+        }
+
+        private CellStyle getStyle() {
+            if (style == null) {
+                style = createCellStyle(workbook, excelColumn, false);
+                String pattern = excelColumn == null ? null : excelColumn.pattern();
+                if (StringUtils.isNotBlank(pattern)) {
+                    style.setDataFormat(workbook.createDataFormat().getFormat(pattern));
+                }
+            }
+            return style;
+        }
+
+        private CellStyle getTitleStyle() {
+            if (titleStyle == null) {
+                titleStyle = createCellStyle(workbook, excelColumn, true);
+            }
+            return titleStyle;
+        }
+
+        private void setComment(SXSSFCell cell) {
+            if (comment == null || cell.getCellComment() != null) {
+                return;
+            }
+            if (cellComment == null) {
+                CommentProperty commentProperty = comment.getComment();
+                SXSSFDrawing p = cell.getSheet().createDrawingPatriarch();
+                cellComment = p.createCellComment(new XSSFClientAnchor(0, 0, 0, 0, cell.getColumnIndex(), cell.getRowIndex(), cell.getColumnIndex() + 2, cell.getRowIndex() + 2));
+                cellComment.setString(new XSSFRichTextString(commentProperty.getComment()));
+                cellComment.setAuthor(commentProperty.getAuthor());
+            }
+            cell.setCellComment(cellComment);
+        }
+    }
+
+    /**
+     * 按值类型写入单元格
+     */
+    private enum CellWriter {
+        NUMBER {
+            @Override
+            void write(SXSSFCell cell, Object value, ZoneId zoneId) {
+                cell.setCellType(CellType.NUMERIC);
+                cell.setCellValue(((Number) value).doubleValue());
+            }
+        },
+        BOOLEAN {
+            @Override
+            void write(SXSSFCell cell, Object value, ZoneId zoneId) {
+                cell.setCellType(CellType.BOOLEAN);
+                cell.setCellValue((Boolean) value);
+            }
+        },
+        DATE {
+            @Override
+            void write(SXSSFCell cell, Object value, ZoneId zoneId) {
+                cell.setCellType(CellType.NUMERIC);
+                cell.setCellValue((Date) value);
+            }
+        },
+        LOCAL_DATE {
+            @Override
+            void write(SXSSFCell cell, Object value, ZoneId zoneId) {
+                cell.setCellType(CellType.NUMERIC);
+                cell.setCellValue(Date.from(((LocalDate) value).atStartOfDay(zoneId).toInstant()));
+            }
+        },
+        LOCAL_DATE_TIME {
+            @Override
+            void write(SXSSFCell cell, Object value, ZoneId zoneId) {
+                cell.setCellType(CellType.NUMERIC);
+                cell.setCellValue(Date.from(((LocalDateTime) value).atZone(zoneId).toInstant()));
+            }
+        },
+        STRING {
+            @Override
+            void write(SXSSFCell cell, Object value, ZoneId zoneId) {
+                cell.setCellType(CellType.STRING);
+                // 防止 csv 注入
+                cell.setCellValue(SecurityUtils.preventCsvInjection((String) value));
+            }
+        },
+        OTHER {
+            @Override
+            void write(SXSSFCell cell, Object value, ZoneId zoneId) {
+                cell.setCellType(CellType.STRING);
+                cell.setCellValue(SecurityUtils.preventCsvInjection(String.valueOf(value)));
+            }
+        };
+
+        abstract void write(SXSSFCell cell, Object value, ZoneId zoneId);
+
+        static CellWriter of(Class<?> type) {
+            if (Number.class.isAssignableFrom(type)) {
+                return NUMBER;
+            } else if (Boolean.class == type) {
+                return BOOLEAN;
+            } else if (Date.class.isAssignableFrom(type)) {
+                return DATE;
+            } else if (LocalDate.class == type) {
+                return LOCAL_DATE;
+            } else if (LocalDateTime.class == type) {
+                return LOCAL_DATE_TIME;
+            } else if (String.class == type) {
+                return STRING;
+            }
+            return OTHER;
+        }
+    }
 }
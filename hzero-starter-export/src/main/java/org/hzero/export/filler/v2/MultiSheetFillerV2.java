@@ -9,7 +9,6 @@ import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.poi.ss.usermodel.DataValidation;
 import org.apache.poi.ss.usermodel.DataValidationConstraint;
 import org.apache.poi.ss.usermodel.DataValidationHelper;
@@ -23,6 +22,7 @@ import org.hzero.boot.platform.lov.adapter.LovAdapter;
 import org.hzero.boot.platform.lov.dto.LovValueDTO;
 import org.hzero.core.base.BaseConstants;
 import org.hzero.export.exporter.ExcelExporter;
+import org.hzero.export.util.PropertyAccessor;
 import org.hzero.export.vo.ExportColumn;
 import org.springframework.util.Assert;
 
@@ -154,7 +154,7 @@ public class MultiSheetFillerV2 extends ExcelFillerV2 {
                 }
                 Object cellValue = null;
                 try {
-                    cellValue = FieldUtils.readField(parentData, parentColumn.getName(), true);
+                    cellValue = PropertyAccessor.readField(parentData, parentColumn.getName());
                 } catch (Exception ev) {
                     logger.error("get value error.", ev);
                 }
@@ -167,7 +167,7 @@ public class MultiSheetFillerV2 extends ExcelFillerV2 {
             if (column.isChecked() && !column.hasChildren()) {
                 Object cellValue = null;
                 try {
-                    cellValue = FieldUtils.readField(rowData, column.getName(), true);
+                    cellValue = PropertyAccessor.readField(rowData, column.getName());
                 } catch (Exception ev) {
                     logger.error("get value error.", ev);
                 }
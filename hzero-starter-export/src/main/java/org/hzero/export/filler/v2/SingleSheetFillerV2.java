@@ -8,7 +8,6 @@ import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.streaming.SXSSFCell;
 import org.apache.poi.xssf.streaming.SXSSFRow;
@@ -16,6 +15,7 @@ import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.hzero.core.jackson.JacksonConstant;
 import org.hzero.export.entity.Node;
+import org.hzero.export.util.PropertyAccessor;
 import org.hzero.export.vo.ExportColumn;
 import org.springframework.util.Assert;
 
@@ -190,7 +190,7 @@ public class SingleSheetFillerV2 extends ExcelFillerV2 {
             if (column.isChecked() && !column.hasChildren()) {
                 Object cellValue = null;
                 try {
-                    cellValue = FieldUtils.readField(rowData, column.getName(), true);
+                    cellValue = PropertyAccessor.readField(rowData, column.getName());
                     // 日期类型需要进行时区转换
                     if (cellValue instanceof Date) {
                         SimpleDateFormat dateFormatGmt = new SimpleDateFormat(StringUtils.isBlank(column.getExcelColumn().pattern()) ? JacksonConstant.DEFAULT_DATE_FORMAT : column.getExcelColumn().pattern());
@@ -0,0 +1,152 @@
+package org.hzero.export.util;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 导出数据读取工具，每个类的字段、属性只解析一次，生成 MethodHandle 后缓存，避免每个单元格都通过反射查找字段
+ *
+ * @author agent 2026/10/18
+ */
+public final class PropertyAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final PropertyAccessor NOT_FOUND = new PropertyAccessor(null);
+
+    private static final ClassValue<Map<String, PropertyAccessor>> FIELD_ACCESSORS = new ClassValue<Map<String, PropertyAccessor>>() {
+        @Override
+        protected Map<String, PropertyAccessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>(16);
+        }
+    };
+
+    private static final ClassValue<Map<String, PropertyAccessor>> PROPERTY_ACCESSORS = new ClassValue<Map<String, PropertyAccessor>>() {
+        @Override
+        protected Map<String, PropertyAccessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>(16);
+        }
+    };
+
+    private final MethodHandle getter;
+
+    private PropertyAccessor(MethodHandle getter) {
+        this.getter = getter;
+    }
+
+    /**
+     * 读取字段的值，包括父类中的字段，与 {@code FieldUtils.readField(target, fieldName, true)} 一致
+     *
+     * @param target    对象
+     * @param fieldName 字段名称
+     * @return 字段值
+     * @throws IllegalArgumentException 字段不存在
+     */
+    public static Object readField(Object target, String fieldName) {
+        if (target == null) {
+            throw new IllegalArgumentException("target object must not be null");
+        }
+        Class<?> type = target.getClass();
+        PropertyAccessor accessor = getAccessor(FIELD_ACCESSORS.get(type), type, fieldName, PropertyAccessor::buildFieldAccessor);
+        if (accessor == NOT_FOUND) {
+            throw new IllegalArgumentException("Cannot locate field " + fieldName + " on " + type);
+        }
+        return accessor.get(target);
+    }
+
+    /**
+     * 通过 getter 读取属性的值
+     *
+     * @param target       对象
+     * @param propertyName 属性名称
+     * @return 属性值
+     * @throws IllegalArgumentException 属性不存在或不可读
+     */
+    public static Object readProperty(Object target, String propertyName) {
+        if (target == null) {
+            throw new IllegalArgumentException("target object must not be null");
+        }
+        Class<?> type = target.getClass();
+        PropertyAccessor accessor = getAccessor(PROPERTY_ACCESSORS.get(type), type, propertyName, PropertyAccessor::buildPropertyAccessor);
+        if (accessor == NOT_FOUND) {
+            throw new IllegalArgumentException("Unknown property '" + propertyName + "' on " + type);
+        }
+        return accessor.get(target);
+    }
+
+    private static PropertyAccessor getAccessor(Map<String, PropertyAccessor> accessors, Class<?> type, String name,
+                                                AccessorBuilder builder) {
+        PropertyAccessor accessor = accessors.get(name);
+        if (accessor == null) {
+            accessor = accessors.computeIfAbsent(name, key -> builder.build(type, key));
+        }
+        return accessor;
+    }
+
+    private Object get(Object target) {
+        try {
+            return getter.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static PropertyAccessor buildFieldAccessor(Class<?> type, String fieldName) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            Field field;
+            try {
+                field = current.getDeclaredField(fieldName);
+            } catch (NoSuchFieldException e) {
+                continue;
+            }
+            try {
+                field.setAccessible(true);
+                MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    getter = MethodHandles.dropArguments(getter, 0, Object.class);
+                }
+                return new PropertyAccessor(getter.asType(GETTER_TYPE));
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new IllegalArgumentException("Cannot access field " + fieldName + " on " + type, e);
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private static PropertyAccessor buildPropertyAccessor(Class<?> type, String propertyName) {
+        PropertyDescriptor[] descriptors;
+        try {
+            descriptors = Introspector.getBeanInfo(type).getPropertyDescriptors();
+        } catch (IntrospectionException e) {
+            throw new IllegalArgumentException("Cannot introspect " + type, e);
+        }
+        for (PropertyDescriptor descriptor : descriptors) {
+            Method readMethod = descriptor.getReadMethod();
+            if (!descriptor.getName().equals(propertyName) || readMethod == null) {
+                continue;
+            }
+            try {
+                readMethod.setAccessible(true);
+                return new PropertyAccessor(MethodHandles.lookup().unreflect(readMethod).asType(GETTER_TYPE));
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new IllegalArgumentException("Cannot access property " + propertyName + " on " + type, e);
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    @FunctionalInterface
+    private interface AccessorBuilder {
+        PropertyAccessor build(Class<?> type, String name);
+    }
+}
@@ -3,6 +3,7 @@ package org.hzero.export.vo;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.hzero.export.constant.ExportFormat;
 import org.hzero.export.constant.ExportType;
 import org.hzero.export.filler.SingleSheetFiller;
 
@@ -17,6 +18,8 @@ public class ExportParam {
 
     private ExportType exportType;
 
+    private ExportFormat format = ExportFormat.XLSX;
+
     private Set<Long> ids;
 
     private Set<String> selection = new HashSet<>(8);
@@ -51,6 +54,17 @@ public class ExportParam {
         this.exportType = exportType;
     }
 
+    /**
+     * @return 导出文件格式，CSV/TSV 只导出根节点下的列，不支持子集数据
+     */
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(ExportFormat format) {
+        this.format = format;
+    }
+
     /**
      * @return 导出的列ID，只有当父级ID勾选的时候才会导出子集
      */
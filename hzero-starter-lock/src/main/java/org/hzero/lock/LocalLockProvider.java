@@ -0,0 +1,179 @@
+package org.hzero.lock;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * 本地锁支持类，开启后同一个 JVM 内获取同一把锁的线程先竞争本地锁，只有获取到本地锁的线程才去竞争分布式锁，
+ * 热点KEY并发时减少对 Redis 的加锁请求，跨节点的加锁语义不变
+ * <p>
+ * 本地锁按锁名称创建，没有线程持有或等待时自动移除
+ *
+ * @author agent 2026/10/18
+ */
+public class LocalLockProvider {
+
+    private final Map<String, LocalLock> reentrantLocks = new ConcurrentHashMap<>();
+    private final Map<String, LocalLock> fairLocks = new ConcurrentHashMap<>();
+    private final Map<String, LocalLock> readWriteLocks = new ConcurrentHashMap<>();
+
+    /**
+     * 获取可重入锁
+     *
+     * @param lockInfo        锁信息
+     * @param distributedLock 分布式锁
+     * @return 是否加锁成功
+     */
+    public boolean tryLock(LockInfo lockInfo, DistributedLock distributedLock) throws InterruptedException {
+        return tryLock(reentrantLocks, lockInfo, false, localLock -> localLock.lock, distributedLock);
+    }
+
+    /**
+     * 获取公平锁，本地锁同样按照请求顺序获取
+     *
+     * @param lockInfo        锁信息
+     * @param distributedLock 分布式锁
+     * @return 是否加锁成功
+     */
+    public boolean tryFairLock(LockInfo lockInfo, DistributedLock distributedLock) throws InterruptedException {
+        return tryLock(fairLocks, lockInfo, true, localLock -> localLock.lock, distributedLock);
+    }
+
+    /**
+     * 获取读锁
+     *
+     * @param lockInfo        锁信息
+     * @param distributedLock 分布式锁
+     * @return 是否加锁成功
+     */
+    public boolean tryReadLock(LockInfo lockInfo, DistributedLock distributedLock) throws InterruptedException {
+        return tryLock(readWriteLocks, lockInfo, false, localLock -> localLock.readWriteLock.readLock(), distributedLock);
+    }
+
+    /**
+     * 获取写锁
+     *
+     * @param lockInfo        锁信息
+     * @param distributedLock 分布式锁
+     * @return 是否加锁成功
+     */
+    public boolean tryWriteLock(LockInfo lockInfo, DistributedLock distributedLock) throws InterruptedException {
+        return tryLock(readWriteLocks, lockInfo, false, localLock -> localLock.readWriteLock.writeLock(), distributedLock);
+    }
+
+    public void releaseLock(LockInfo lockInfo) {
+        release(reentrantLocks, lockInfo.getName(), localLock -> localLock.lock);
+    }
+
+    public void releaseFairLock(LockInfo lockInfo) {
+        release(fairLocks, lockInfo.getName(), localLock -> localLock.lock);
+    }
+
+    public void releaseReadLock(LockInfo lockInfo) {
+        release(readWriteLocks, lockInfo.getName(), localLock -> localLock.readWriteLock.readLock());
+    }
+
+    public void releaseWriteLock(LockInfo lockInfo) {
+        release(readWriteLocks, lockInfo.getName(), localLock -> localLock.readWriteLock.writeLock());
+    }
+
+    /**
+     * @return 持有或等待中的本地锁数量
+     */
+    int size() {
+        return reentrantLocks.size() + fairLocks.size() + readWriteLocks.size();
+    }
+
+    private boolean tryLock(Map<String, LocalLock> locks, LockInfo lockInfo, boolean fair, Function<LocalLock, Lock> selector,
+                            DistributedLock distributedLock) throws InterruptedException {
+        String name = lockInfo.getName();
+        TimeUnit timeUnit = lockInfo.getTimeUnit();
+        long waitTime = lockInfo.getWaitTime();
+        long leaseTime = lockInfo.getLeaseTime() < 0 ? lockInfo.getLeaseTime() : timeUnit.toMillis(lockInfo.getLeaseTime());
+        long start = System.nanoTime();
+
+        LocalLock localLock = locks.compute(name, (key, value) -> {
+            LocalLock result = value == null ? new LocalLock(fair) : value;
+            result.references++;
+            return result;
+        });
+        Lock lock = selector.apply(localLock);
+        boolean localLocked = false;
+        boolean acquired = false;
+        try {
+            if (waitTime < 0) {
+                lock.lockInterruptibly();
+            } else if (!lock.tryLock(waitTime, timeUnit)) {
+                return false;
+            }
+            localLocked = true;
+            // 分布式锁使用剩余的等待时间
+            long remaining = waitTime < 0 ? waitTime
+                    : Math.max(0, timeUnit.toMillis(waitTime) - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            acquired = distributedLock.tryLock(remaining, leaseTime, TimeUnit.MILLISECONDS);
+            return acquired;
+        } finally {
+            if (!acquired) {
+                if (localLocked) {
+                    lock.unlock();
+                }
+                dereference(locks, name);
+            }
+        }
+    }
+
+    private void release(Map<String, LocalLock> locks, String name, Function<LocalLock, Lock> selector) {
+        LocalLock localLock = locks.get(name);
+        if (localLock == null) {
+            return;
+        }
+        try {
+            selector.apply(localLock).unlock();
+        } catch (IllegalMonitorStateException e) {
+            // 当前线程未持有本地锁
+            return;
+        }
+        dereference(locks, name);
+    }
+
+    private void dereference(Map<String, LocalLock> locks, String name) {
+        locks.computeIfPresent(name, (key, value) -> --value.references <= 0 ? null : value);
+    }
+
+    /**
+     * 分布式锁加锁
+     */
+    @FunctionalInterface
+    public interface DistributedLock {
+
+        /**
+         * 尝试加锁
+         *
+         * @param waitTime  最多等待时间
+         * @param leaseTime 自动解锁时间
+         * @param unit      时间单位
+         * @return 是否加锁成功
+         */
+        boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException;
+    }
+
+    private static final class LocalLock {
+        private final ReentrantLock lock;
+        private final ReadWriteLock readWriteLock;
+        /**
+         * 持有或等待该锁的次数，为 0 时移除
+         */
+        private int references;
+
+        private LocalLock(boolean fair) {
+            this.lock = new ReentrantLock(fair);
+            this.readWriteLock = new ReentrantReadWriteLock(fair);
+        }
+    }
+}
@@ -4,23 +4,30 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.hzero.lock.annotation.Lock;
 import org.hzero.lock.annotation.LockKey;
+import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.context.expression.MethodBasedEvaluationContext;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
-import org.springframework.util.StringUtils;
 
 /**
  * 锁信息支持类
+ * <p>
+ * 每个方法的KEY表达式解析后缓存，锁名称前缀同样缓存，每次调用只计算KEY的值；表达式以 MIXED 模式编译，
+ * 编译后的表达式执行失败时由 SpEL 自动退回解释执行
  *
  * @author xianzhi.chen@hand-china.com 2019年1月14日下午7:08:06
  */
@@ -28,7 +35,10 @@ public class LockInfoProvider {
 
     private ParameterNameDiscoverer nameDiscoverer = new DefaultParameterNameDiscoverer();
 
-    private ExpressionParser parser = new SpelExpressionParser();
+    private ExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, LockInfoProvider.class.getClassLoader()));
+
+    private final Map<AnnotatedElementKey, LockMethodMetadata> metadataCache = new ConcurrentHashMap<>(64);
 
     /**
      * 获取锁信息
@@ -38,23 +48,73 @@ public class LockInfoProvider {
      * @return
      */
     public LockInfo getLockInfo(JoinPoint joinPoint, Lock lock) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        LockMethodMetadata metadata = getMetadata(joinPoint, lock);
         // 获取KEY
-        List<String> keyList = this.getKeyList(joinPoint, lock);
-        String lockName = getLockName(lock.name(), signature, keyList);
+        List<String> keyList = this.getKeyList(metadata, joinPoint.getArgs());
+        String lockName = getLockName(lock.name(), metadata, keyList);
         long waitTime = getLockWaitTime(lock);
         long leaseTime = getLockLeaseTime(lock);
         TimeUnit timeUnit = getLockTimeUnit(lock);
         return new LockInfo(lockName, keyList, waitTime, leaseTime, timeUnit);
     }
 
-    // 获取锁KEY名称
-    private List<String> getKeyList(JoinPoint joinPoint, Lock lock) {
+    // 获取方法缓存的元数据
+    private LockMethodMetadata getMetadata(JoinPoint joinPoint, Lock lock) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Object target = joinPoint.getTarget();
+        AnnotatedElementKey cacheKey = new AnnotatedElementKey(signature.getMethod(), target == null ? null : target.getClass());
+        LockMethodMetadata metadata = metadataCache.get(cacheKey);
+        if (metadata == null) {
+            metadata = metadataCache.computeIfAbsent(cacheKey, key -> buildMetadata(joinPoint, signature, lock));
+        }
+        return metadata;
+    }
+
+    private LockMethodMetadata buildMetadata(JoinPoint joinPoint, MethodSignature signature, Lock lock) {
         Method method = getMethod(joinPoint);
-        List<String> definitionKeys = getSpelDefinitionKey(lock.keys(), method, joinPoint.getArgs());
-        List<String> keyList = new ArrayList<>(definitionKeys);
-        List<String> parameterKeys = getParameterKey(method.getParameters(), joinPoint.getArgs());
-        keyList.addAll(parameterKeys);
+        List<Expression> definitionKeys = new ArrayList<>(lock.keys().length);
+        for (String definitionKey : lock.keys()) {
+            if (definitionKey != null && !definitionKey.isEmpty()) {
+                definitionKeys.add(parser.parseExpression(definitionKey));
+            }
+        }
+        List<ParameterKey> parameterKeys = new ArrayList<>();
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            LockKey keyAnnotation = parameters[i].getAnnotation(LockKey.class);
+            if (keyAnnotation != null) {
+                parameterKeys.add(new ParameterKey(i, keyAnnotation.value().isEmpty() ? null : parser.parseExpression(keyAnnotation.value())));
+            }
+        }
+        String lockNamePrefix = signature.getDeclaringTypeName() + "." + signature.getMethod().getName() + ".";
+        return new LockMethodMetadata(method, definitionKeys, parameterKeys, lockNamePrefix);
+    }
+
+    // 获取锁KEY名称
+    private List<String> getKeyList(LockMethodMetadata metadata, Object[] args) {
+        List<String> keyList = new ArrayList<>(metadata.definitionKeys.size() + metadata.parameterKeys.size());
+        // 获取方法定义KEY
+        if (!metadata.definitionKeys.isEmpty()) {
+            EvaluationContext context = new MethodBasedEvaluationContext(null, metadata.method, args, nameDiscoverer);
+            for (Expression definitionKey : metadata.definitionKeys) {
+                Object value = definitionKey.getValue(context);
+                if (value != null) {
+                    keyList.add(value.toString());
+                }
+            }
+        }
+        // 获取参数KEY
+        for (ParameterKey parameterKey : metadata.parameterKeys) {
+            Object arg = args[parameterKey.index];
+            if (parameterKey.expression == null) {
+                keyList.add(arg.toString());
+            } else {
+                Object value = parameterKey.expression.getValue(arg);
+                if (value != null) {
+                    keyList.add(value.toString());
+                }
+            }
+        }
         return keyList;
     }
 
@@ -73,47 +133,18 @@ public class LockInfoProvider {
         return method;
     }
 
-    // 获取方法定义KEY
-    private List<String> getSpelDefinitionKey(String[] definitionKeys, Method method, Object[] parameterValues) {
-        List<String> definitionKeyList = new ArrayList<>();
-        for (String definitionKey : definitionKeys) {
-            if (definitionKey != null && !definitionKey.isEmpty()) {
-                EvaluationContext context =
-                        new MethodBasedEvaluationContext(null, method, parameterValues, nameDiscoverer);
-                Object value = parser.parseExpression(definitionKey).getValue(context);
-                if (value != null) {
-                    definitionKeyList.add(value.toString());
-                }
-            }
-        }
-        return definitionKeyList;
-    }
-
-    // 获取参数KEY
-    private List<String> getParameterKey(Parameter[] parameters, Object[] parameterValues) {
-        List<String> parameterKey = new ArrayList<>();
-        for (int i = 0; i < parameters.length; i++) {
-            if (parameters[i].getAnnotation(LockKey.class) != null) {
-                LockKey keyAnnotation = parameters[i].getAnnotation(LockKey.class);
-                if (keyAnnotation.value().isEmpty()) {
-                    parameterKey.add(parameterValues[i].toString());
-                } else {
-                    StandardEvaluationContext context = new StandardEvaluationContext(parameterValues[i]);
-                    Object value = parser.parseExpression(keyAnnotation.value()).getValue(context);
-                    if (value != null) {
-                        parameterKey.add(value.toString());
-                    }
-                }
-            }
-        }
-        return parameterKey;
-    }
-
     // 获取锁名称
-    private String getLockName(String annotationName, MethodSignature signature, List<String> keyList) {
+    private String getLockName(String annotationName, LockMethodMetadata metadata, List<String> keyList) {
         if (annotationName.isEmpty()) {
-            return String.format("%s.%s.%s", signature.getDeclaringTypeName(), signature.getMethod().getName(),
-                    StringUtils.collectionToDelimitedString(keyList, "", "-", ""));
+            int length = metadata.lockNamePrefix.length();
+            for (String key : keyList) {
+                length += key.length() + 1;
+            }
+            StringBuilder lockName = new StringBuilder(length).append(metadata.lockNamePrefix);
+            for (String key : keyList) {
+                lockName.append('-').append(key);
+            }
+            return lockName.toString();
         } else {
             return annotationName;
             // return String.format("%s.%s", annotationName, businessKeyName);
@@ -134,4 +165,35 @@ public class LockInfoProvider {
     private TimeUnit getLockTimeUnit(Lock lock) {
         return lock.timeUnit();
     }
+
+    /**
+     * 方法的锁元数据
+     */
+    private static final class LockMethodMetadata {
+        private final Method method;
+        private final List<Expression> definitionKeys;
+        private final List<ParameterKey> parameterKeys;
+        private final String lockNamePrefix;
+
+        private LockMethodMetadata(Method method, List<Expression> definitionKeys, List<ParameterKey> parameterKeys,
+                                   String lockNamePrefix) {
+            this.method = method;
+            this.definitionKeys = definitionKeys;
+            this.parameterKeys = parameterKeys;
+            this.lockNamePrefix = lockNamePrefix;
+        }
+    }
+
+    /**
+     * 参数KEY，expression 为空时直接使用参数值
+     */
+    private static final class ParameterKey {
+        private final int index;
+        private final Expression expression;
+
+        private ParameterKey(int index, Expression expression) {
+            this.index = index;
+            this.expression = expression;
+        }
+    }
 }
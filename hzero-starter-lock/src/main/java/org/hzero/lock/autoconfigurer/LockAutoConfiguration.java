@@ -7,6 +7,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hzero.lock.LocalLockProvider;
 import org.hzero.lock.LockAspectHandler;
 import org.hzero.lock.LockInfoProvider;
 import org.hzero.lock.config.LockConfigProperties;
@@ -26,6 +27,7 @@ import org.redisson.connection.balancer.WeightedRoundRobinBalancer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -90,6 +92,12 @@ public class LockAutoConfiguration {
         return new LockInfoProvider();
     }
 
+    @Bean
+    @ConditionalOnProperty(prefix = LockConfigProperties.PREFIX, name = "local-lock", havingValue = "true")
+    public LocalLockProvider localLockProvider() {
+        return new LocalLockProvider();
+    }
+
     @Bean
     public LockServiceFactory lockFactory() {
         return new LockServiceFactory();
@@ -86,6 +86,10 @@ public class LockConfigProperties {
      * 否在Redis端使用Lua脚本缓存
      */
     private boolean useScriptCache = false;
+    /**
+     * 是否启用本地锁，同一节点内先竞争本地锁，获取到本地锁的线程再竞争分布式锁
+     */
+    private boolean localLock = false;
 
     public String getClientName() {
         return clientName;
@@ -231,6 +235,14 @@ public class LockConfigProperties {
         this.useScriptCache = useScriptCache;
     }
 
+    public boolean getLocalLock() {
+        return localLock;
+    }
+
+    public void setLocalLock(boolean localLock) {
+        this.localLock = localLock;
+    }
+
     /**
      * 主从模式
      *
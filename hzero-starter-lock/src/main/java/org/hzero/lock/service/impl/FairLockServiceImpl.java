@@ -1,5 +1,6 @@
 package org.hzero.lock.service.impl;
 
+import org.hzero.lock.LocalLockProvider;
 import org.hzero.lock.LockInfo;
 import org.hzero.lock.service.LockService;
 import org.redisson.api.RLock;
@@ -17,6 +18,8 @@ public class FairLockServiceImpl implements LockService {
     @Qualifier("lockRedissonClient")
     @Autowired
     private RedissonClient redissonClient;
+    @Autowired(required = false)
+    private LocalLockProvider localLockProvider;
 
     private final ThreadLocal<LockInfo> lockInfoThreadLocal = new ThreadLocal<>();
 
@@ -40,6 +43,9 @@ public class FairLockServiceImpl implements LockService {
         LockInfo lockInfo = lockInfoThreadLocal.get();
         RLock rLock = redissonClient.getFairLock(lockInfo.getName());
         try {
+            if (localLockProvider != null) {
+                return localLockProvider.tryFairLock(lockInfo, rLock::tryLock);
+            }
             return rLock.tryLock(lockInfo.getWaitTime(), lockInfo.getLeaseTime(), lockInfo.getTimeUnit());
         } catch (Exception e) {
             return false;
@@ -50,9 +56,20 @@ public class FairLockServiceImpl implements LockService {
     public void releaseLock() {
         LockInfo lockInfo = lockInfoThreadLocal.get();
         RLock rLock = redissonClient.getFairLock(lockInfo.getName());
-        if (rLock.isHeldByCurrentThread()) {
-            rLock.unlockAsync();
+        try {
+            if (rLock.isHeldByCurrentThread()) {
+                if (localLockProvider == null) {
+                    rLock.unlockAsync();
+                } else {
+                    // 先释放分布式锁再释放本地锁，否则本地等待的线程获取到本地锁后仍会竞争分布式锁失败
+                    rLock.unlock();
+                }
+            }
+        } finally {
+            if (localLockProvider != null) {
+                localLockProvider.releaseFairLock(lockInfo);
+            }
+            lockInfoThreadLocal.remove();
         }
-        lockInfoThreadLocal.remove();
     }
 }
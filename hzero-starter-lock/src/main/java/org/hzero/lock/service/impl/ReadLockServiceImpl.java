@@ -1,5 +1,6 @@
 package org.hzero.lock.service.impl;
 
+import org.hzero.lock.LocalLockProvider;
 import org.hzero.lock.LockInfo;
 import org.hzero.lock.service.LockService;
 import org.redisson.api.RReadWriteLock;
@@ -17,6 +18,8 @@ public class ReadLockServiceImpl implements LockService {
     @Qualifier("lockRedissonClient")
     @Autowired
     private RedissonClient redissonClient;
+    @Autowired(required = false)
+    private LocalLockProvider localLockProvider;
 
     private final ThreadLocal<LockInfo> lockInfoThreadLocal = new ThreadLocal<>();
 
@@ -40,6 +43,9 @@ public class ReadLockServiceImpl implements LockService {
         LockInfo lockInfo = lockInfoThreadLocal.get();
         try {
             RReadWriteLock rLock = redissonClient.getReadWriteLock(lockInfo.getName());
+            if (localLockProvider != null) {
+                return localLockProvider.tryReadLock(lockInfo, rLock.readLock()::tryLock);
+            }
             return rLock.readLock().tryLock(lockInfo.getWaitTime(), lockInfo.getLeaseTime(), lockInfo.getTimeUnit());
         } catch (Exception e) {
             return false;
@@ -50,9 +56,20 @@ public class ReadLockServiceImpl implements LockService {
     public void releaseLock() {
         LockInfo lockInfo = lockInfoThreadLocal.get();
         RReadWriteLock rLock = redissonClient.getReadWriteLock(lockInfo.getName());
-        if (rLock.readLock().isHeldByCurrentThread()) {
-            rLock.readLock().unlockAsync();
+        try {
+            if (rLock.readLock().isHeldByCurrentThread()) {
+                if (localLockProvider == null) {
+                    rLock.readLock().unlockAsync();
+                } else {
+                    // 先释放分布式锁再释放本地锁，否则本地等待的线程获取到本地锁后仍会竞争分布式锁失败
+                    rLock.readLock().unlock();
+                }
+            }
+        } finally {
+            if (localLockProvider != null) {
+                localLockProvider.releaseReadLock(lockInfo);
+            }
+            lockInfoThreadLocal.remove();
         }
-        lockInfoThreadLocal.remove();
     }
 }
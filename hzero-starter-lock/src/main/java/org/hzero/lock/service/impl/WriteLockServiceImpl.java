@@ -1,5 +1,6 @@
 package org.hzero.lock.service.impl;
 
+import org.hzero.lock.LocalLockProvider;
 import org.hzero.lock.LockInfo;
 import org.hzero.lock.service.LockService;
 import org.redisson.api.RReadWriteLock;
@@ -17,6 +18,8 @@ public class WriteLockServiceImpl implements LockService {
     @Qualifier("lockRedissonClient")
     @Autowired
     private RedissonClient redissonClient;
+    @Autowired(required = false)
+    private LocalLockProvider localLockProvider;
 
     private final ThreadLocal<LockInfo> lockInfoThreadLocal = new ThreadLocal<>();
 
@@ -40,6 +43,9 @@ public class WriteLockServiceImpl implements LockService {
         LockInfo lockInfo = lockInfoThreadLocal.get();
         try {
             RReadWriteLock rLock = redissonClient.getReadWriteLock(lockInfo.getName());
+            if (localLockProvider != null) {
+                return localLockProvider.tryWriteLock(lockInfo, rLock.writeLock()::tryLock);
+            }
             return rLock.writeLock().tryLock(lockInfo.getWaitTime(), lockInfo.getLeaseTime(), lockInfo.getTimeUnit());
         } catch (Exception e) {
             return false;
@@ -50,9 +56,20 @@ public class WriteLockServiceImpl implements LockService {
     public void releaseLock() {
         LockInfo lockInfo = lockInfoThreadLocal.get();
         RReadWriteLock rLock = redissonClient.getReadWriteLock(lockInfo.getName());
-        if (rLock.writeLock().isHeldByCurrentThread()) {
-            rLock.writeLock().unlockAsync();
+        try {
+            if (rLock.writeLock().isHeldByCurrentThread()) {
+                if (localLockProvider == null) {
+                    rLock.writeLock().unlockAsync();
+                } else {
+                    // 先释放分布式锁再释放本地锁，否则本地等待的线程获取到本地锁后仍会竞争分布式锁失败
+                    rLock.writeLock().unlock();
+                }
+            }
+        } finally {
+            if (localLockProvider != null) {
+                localLockProvider.releaseWriteLock(lockInfo);
+            }
+            lockInfoThreadLocal.remove();
         }
-        lockInfoThreadLocal.remove();
     }
 }
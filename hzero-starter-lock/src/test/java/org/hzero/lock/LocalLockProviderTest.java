@@ -0,0 +1,130 @@
+package org.hzero.lock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * 本地锁测试，并发加锁互斥且释放后不残留本地锁，加锁失败后的释放不影响其他持有者
+ *
+ * @author agent 2026/10/18
+ */
+public class LocalLockProviderTest {
+
+    private static final String NAME = "lock:test";
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 200;
+
+    @Test
+    public void concurrentLockIsMutuallyExclusive() throws Exception {
+        LocalLockProvider provider = new LocalLockProvider();
+        AtomicBoolean distributed = new AtomicBoolean();
+        AtomicInteger holders = new AtomicInteger();
+        AtomicInteger acquired = new AtomicInteger();
+        runConcurrently(() -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                LockInfo lockInfo = new LockInfo(NAME, -1, -1, TimeUnit.MILLISECONDS);
+                // 本地锁已经互斥，分布式锁不会出现竞争
+                Assert.assertTrue(provider.tryLock(lockInfo, (waitTime, leaseTime, unit) -> distributed.compareAndSet(false, true)));
+                try {
+                    Assert.assertEquals(1, holders.incrementAndGet());
+                    acquired.incrementAndGet();
+                    holders.decrementAndGet();
+                } finally {
+                    distributed.set(false);
+                    provider.releaseLock(lockInfo);
+                }
+            }
+            return null;
+        });
+        Assert.assertEquals(THREADS * ITERATIONS, acquired.get());
+        Assert.assertEquals(0, provider.size());
+    }
+
+    @Test
+    public void concurrentReadLockIsShared() throws Exception {
+        LocalLockProvider provider = new LocalLockProvider();
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        runConcurrently(() -> {
+            LockInfo lockInfo = new LockInfo(NAME, 5, -1, TimeUnit.SECONDS);
+            Assert.assertTrue(provider.tryReadLock(lockInfo, (waitTime, leaseTime, unit) -> true));
+            try {
+                // 所有线程同时持有读锁才能通过
+                barrier.await(5, TimeUnit.SECONDS);
+            } finally {
+                provider.releaseReadLock(lockInfo);
+            }
+            return null;
+        });
+        Assert.assertEquals(0, provider.size());
+    }
+
+    @Test
+    public void failedDistributedLockReleasesLocalLock() throws Exception {
+        LocalLockProvider provider = new LocalLockProvider();
+        LockInfo lockInfo = new LockInfo(NAME, 0, -1, TimeUnit.MILLISECONDS);
+        Assert.assertFalse(provider.tryLock(lockInfo, (waitTime, leaseTime, unit) -> false));
+        Assert.assertEquals(0, provider.size());
+        // 加锁失败后仍然调用释放，不能抛出异常
+        provider.releaseLock(lockInfo);
+        Assert.assertEquals(0, provider.size());
+
+        // 其他线程可以立即获取本地锁
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Assert.assertTrue(executor.submit(() -> provider.tryLock(lockInfo, (waitTime, leaseTime, unit) -> true)).get());
+            executor.submit(() -> provider.releaseLock(lockInfo)).get();
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(0, provider.size());
+    }
+
+    @Test
+    public void releaseAfterFailedLockKeepsOtherHolder() throws Exception {
+        LocalLockProvider provider = new LocalLockProvider();
+        LockInfo holderLockInfo = new LockInfo(NAME, -1, -1, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(provider.tryLock(holderLockInfo, (waitTime, leaseTime, unit) -> true));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            boolean locked = executor.submit(() -> {
+                LockInfo lockInfo = new LockInfo(NAME, 10, -1, TimeUnit.MILLISECONDS);
+                try {
+                    return provider.tryLock(lockInfo, (waitTime, leaseTime, unit) -> true);
+                } finally {
+                    provider.releaseLock(lockInfo);
+                }
+            }).get();
+            Assert.assertFalse(locked);
+            // 等待超时的线程释放时不影响当前持有者
+            Assert.assertEquals(1, provider.size());
+            Assert.assertFalse(executor.submit(() -> provider.tryLock(new LockInfo(NAME, 10, -1, TimeUnit.MILLISECONDS),
+                    (waitTime, leaseTime, unit) -> true)).get());
+        } finally {
+            executor.shutdownNow();
+        }
+        provider.releaseLock(holderLockInfo);
+        Assert.assertEquals(0, provider.size());
+    }
+
+    private void runConcurrently(Callable<Void> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> futures = new ArrayList<>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<Void> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.ibatis.mapping.VendorDatabaseIdProvider;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.type.JdbcType;
 import org.hzero.core.redis.RedisHelper;
+import org.hzero.core.util.CommonExecutor;
 import org.hzero.core.util.Reflections;
 import org.hzero.mybatis.config.DataSecurityProperty;
 import org.hzero.mybatis.helper.DataSecurityHelper;
@@ -51,6 +52,7 @@ import java.lang.reflect.Field;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 
 @Configuration
@@ -67,6 +69,9 @@ public class MybatisMapperAutoConfiguration implements EnvironmentAware {
     private DataSecurityProperty.IsolationLevel dataSecurityIsolationLevel;
     private String dataSecurityKey;
     private boolean dataSecurityAsDefaultKey;
+    // CrossSchema
+    private boolean crossSchemaParallel;
+    private int crossSchemaParallelSize;
 
     @Bean
     @ConditionalOnMissingBean(MapperHelper.class)
@@ -169,7 +174,9 @@ public class MybatisMapperAutoConfiguration implements EnvironmentAware {
             sqlSessionFactory.getConfiguration().addInterceptor(new SecurityTokenInterceptor());
             DataSecurityInterceptor.setDataSecurityKeyService(dataSecurityKeyService);
             sqlSessionFactory.getConfiguration().addInterceptor(new DataSecurityInterceptor(dataSecurityDefaultOpen, dataSecurityIsolationLevel));
-            sqlSessionFactory.getConfiguration().addInterceptor(new CrossSchemaInterceptor());
+            sqlSessionFactory.getConfiguration().addInterceptor(new CrossSchemaInterceptor(crossSchemaParallel
+                    ? CommonExecutor.buildThreadFirstExecutor(crossSchemaParallelSize, crossSchemaParallelSize, 5, TimeUnit.MINUTES, 1 << 16, "CrossSchemaExecutor")
+                    : null));
 
             //配置JdbcTypeForNull, oracle数据库必须配置，解决插入null的时候报错问题
             sqlSessionFactory.getConfiguration().setJdbcTypeForNull(JdbcType.NULL);
@@ -249,6 +256,8 @@ public class MybatisMapperAutoConfiguration implements EnvironmentAware {
         dataSecurityIsolationLevel = DataSecurityProperty.IsolationLevel.parser(environment.getProperty("hzero.mybatis-mapper.data-security.isolation-level"));
         dataSecurityKey = environment.getProperty("hzero.mybatis-mapper.data-security.security-key");
         dataSecurityAsDefaultKey = Boolean.parseBoolean(environment.getProperty("hzero.mybatis-mapper.data-security.as-default-key"));
+        crossSchemaParallel = Boolean.parseBoolean(environment.getProperty("hzero.mybatis-mapper.cross-schema.parallel"));
+        crossSchemaParallelSize = environment.getProperty("hzero.mybatis-mapper.cross-schema.parallel-size", Integer.class, CommonExecutor.getCpuProcessors() * 2);
     }
 
     @Bean
@@ -1,5 +1,7 @@
 package io.choerodon.mybatis.helper.snowflake;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import io.choerodon.core.exception.CommonException;
 import org.hzero.core.util.SystemClock;
 import org.springframework.util.Assert;
@@ -13,6 +15,8 @@ import org.springframework.util.Assert;
  * 后 12 位序列位：毫秒内的计算。12 位的计数顺序号支持每个节点，每毫秒生成 4096 个序号
  * 总 64 位：Long
  * 整体上按照时间自增排序，并且整个分布式系统内不会产生ID碰撞
+ * <p>
+ * 上一次生成的时间戳和序列保存在一个 AtomicLong 中，通过 CAS 分配序列，不使用锁；同一节点生成的ID严格递增
  *
  * @author qingsheng.chen@hand-china.com
  */
@@ -77,13 +81,13 @@ public class SnowflakeHelper {
      */
     private final long WORKER_ID;
     /**
-     * 上一次的时间戳
-     */
-    private long latestTimestamp = 0L;
-    /**
-     * 序列
+     * 上一次分配的 时间戳(相对开始时间) + 序列，时间戳左移序列位数
      */
-    private long sequence = 0L;
+    private final AtomicLong latest = new AtomicLong(0L);
+
+    private long bitSequence = BIT_SEQUENCE;
+
+    private long maxSequence = MAX_SEQUENCE;
 
     private long leftWorker = LEFT_WORKER;
 
@@ -115,41 +119,81 @@ public class SnowflakeHelper {
         bitSequence = bitSequence != null ? bitSequence : BIT_SEQUENCE;
         Assert.isTrue((bitTimestamp + bitDataCenterId + bitWorkerId + bitSequence) == BIT_SNOWFLAKE,
                 String.format("[Snowflake] The total length of the snowflake ID must be 63 bit (timestamp %d, data center %d, worker %d, sequence %d).", bitTimestamp, bitDataCenterId, bitWorkerId, bitSequence));
+        this.bitSequence = bitSequence;
+        maxSequence = ~(-1L << bitSequence);
         leftWorker = bitSequence;
         leftDataCenter = leftWorker + bitWorkerId;
         leftTimestamp = leftDataCenter + bitDataCenterId;
     }
 
-    public synchronized long next() {
-        long now = now();
-        if (now < latestTimestamp) {
-            throw new CommonException("Snowflake ID clock abnormal.");
+    public long next() {
+        return toId(reserve(1));
+    }
+
+    /**
+     * 批量获取ID，数量不超过每毫秒的序列数时为一段连续的ID，超过时分为多段，每段连续
+     *
+     * @param count 数量
+     * @return 递增的ID
+     */
+    public long[] next(int count) {
+        Assert.isTrue(count > 0, "[Snowflake] The count of ID must be greater than 0.");
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            int size = (int) Math.min(count - filled, maxSequence + 1);
+            long start = reserve(size);
+            for (int i = 0; i < size; i++) {
+                ids[filled++] = toId(start + i);
+            }
         }
-        if (now == latestTimestamp) {
-            sequence = (sequence + 1) & MAX_SEQUENCE;
-            if (sequence == 0L) {
-                now = nextTime();
+        return ids;
+    }
+
+    /**
+     * 在同一毫秒内分配 size 个连续的序列，当前毫秒剩余序列不足时等待下一毫秒
+     *
+     * @param size 序列数量，不超过每毫秒的序列数
+     * @return 第一个序列对应的 时间戳 + 序列
+     */
+    private long reserve(int size) {
+        while (true) {
+            long current = latest.get();
+            long latestTimestamp = current >>> bitSequence;
+            long now = now() - START_TIMESTAMP;
+            if (now < latestTimestamp) {
+                throw new CommonException("Snowflake ID clock abnormal.");
+            }
+            long start;
+            if (now > latestTimestamp) {
+                start = now << bitSequence;
+            } else if ((current & maxSequence) + size <= maxSequence) {
+                start = current + 1;
+            } else {
+                nextTime(latestTimestamp);
+                continue;
+            }
+            if (latest.compareAndSet(current, start + size - 1)) {
+                return start;
             }
-        } else {
-            sequence = 0L;
         }
-        latestTimestamp = now;
+    }
+
+    private long toId(long timestampAndSequence) {
         // 时间戳位
-        return (now - START_TIMESTAMP) << leftTimestamp
+        return (timestampAndSequence >>> bitSequence) << leftTimestamp
                 // 数据中心位
                 | DATA_CENTER_ID << leftDataCenter
                 // 工作机器位
                 | WORKER_ID << leftWorker
                 // 序列位
-                | sequence;
+                | timestampAndSequence & maxSequence;
     }
 
-    private long nextTime() {
-        long now = now();
-        while (now <= latestTimestamp) {
-            now = now();
+    private void nextTime(long latestTimestamp) {
+        while (now() - START_TIMESTAMP <= latestTimestamp) {
+            Thread.yield();
         }
-        return now;
     }
 
     private long now() {
@@ -13,9 +13,14 @@ import io.choerodon.mybatis.helper.MapperTemplate;
 import io.choerodon.mybatis.pagehelper.util.SQLParserUtils;
 import io.choerodon.mybatis.util.StringUtil;
 import org.apache.commons.lang3.BooleanUtils;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.BatchExecutor;
 import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.plugin.*;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
 import org.hzero.mybatis.domian.Language;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,37 +39,68 @@ import java.util.*;
  * @author superleader8@gmail.com
  */
 @InterceptorOrder(500)
-@Intercepts({@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "flushStatements", args = {}),
+        @Signature(type = Executor.class, method = "commit", args = {boolean.class}),
+        @Signature(type = Executor.class, method = "rollback", args = {boolean.class}),
+        @Signature(type = Executor.class, method = "close", args = {boolean.class})
+})
 public class MultiLanguageInterceptor implements Interceptor {
     private Logger logger = LoggerFactory.getLogger(MultiLanguageInterceptor.class);
     private static final String COLUMN_LANG = "lang";
     public static final ThreadLocal<Boolean> multiLanguageEnable = new ThreadLocal<>();
+    /**
+     * BATCH 执行器中尚未执行的多语言操作，在执行器执行批量语句之后按顺序执行
+     */
+    private static final ThreadLocal<Map<Executor, List<MultiLanguageOperation>>> pendingOperations = ThreadLocal.withInitial(IdentityHashMap::new);
 
     @Override
     public Object intercept(Invocation invocation) throws Throwable {
         Object target = invocation.getTarget();
-        if (BooleanUtils.isNotFalse(multiLanguageEnable.get()) && target instanceof Executor) {
-            Executor executor = (Executor) target;
+        if (!(target instanceof Executor)) {
+            return invocation.proceed();
+        }
+        Executor executor = (Executor) target;
+        switch (invocation.getMethod().getName()) {
+            case "update":
+                return interceptUpdate(invocation, executor);
+            case "flushStatements":
+                Object result = invocation.proceed();
+                executePending(executor);
+                return result;
+            case "query":
+            case "commit":
+                // 保证查询和提交之前，之前的多语言操作已经执行
+                flushPending(executor);
+                return invocation.proceed();
+            default:
+                // rollback/close 时丢弃未执行的操作，和执行器丢弃批量语句保持一致
+                pendingOperations.get().remove(executor);
+                return invocation.proceed();
+        }
+    }
+
+    private Object interceptUpdate(Invocation invocation, Executor executor) throws Throwable {
+        if (BooleanUtils.isNotFalse(multiLanguageEnable.get())) {
             MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
             Object parameter = invocation.getArgs()[1];
             EntityTable table = EntityHelper.getTableByMapper(MapperTemplate.getMapperClassName(statement.getId()));
             if (table != null && table.isMultiLanguage()) {
                 Object obj = invocation.proceed();
-                Connection connection = executor.getTransaction().getConnection();
-                switch (statement.getSqlCommandType()) {
-                    case INSERT:
-                        insertMultiLanguage(table, parameter, connection);
-                        break;
-                    case UPDATE:
-                        updateMultiLanguage(table, parameter, connection, SQLParserUtils.getColumns(statement, parameter));
-                        break;
-                    case DELETE:
-                        proceedDeleteMultiLanguage(table, parameter, connection);
-                        break;
-                    default:
-                        break;
-                }
+                MultiLanguageOperation operation = newOperation(table, statement, parameter);
                 multiLanguageEnable.remove();
+                if (operation == null) {
+                    return obj;
+                }
+                if (isBatchUpdate(obj)) {
+                    // BATCH 执行器中主表数据尚未写入(主键可能尚未生成)，延迟到执行器执行批量语句之后
+                    pendingOperations.get().computeIfAbsent(executor, key -> new ArrayList<>()).add(operation);
+                } else {
+                    executeBatch(executor.getTransaction().getConnection(), operation.build());
+                }
                 return obj;
             }
         }
@@ -72,7 +108,48 @@ public class MultiLanguageInterceptor implements Interceptor {
         return invocation.proceed();
     }
 
-    private void proceedDeleteMultiLanguage(EntityTable table, Object object, Connection connection) throws SQLException {
+    private MultiLanguageOperation newOperation(EntityTable table, MappedStatement statement, Object parameter) {
+        List<Language> languages = getLanguages();
+        switch (statement.getSqlCommandType()) {
+            case INSERT:
+                return () -> insertMultiLanguage(table, parameter, languages);
+            case UPDATE:
+                Set<String> updateColumnSet = SQLParserUtils.getColumns(statement, parameter);
+                String currentLanguage = LanguageHelper.language();
+                return () -> updateMultiLanguage(table, parameter, updateColumnSet, languages, currentLanguage);
+            case DELETE:
+                return () -> proceedDeleteMultiLanguage(table, parameter);
+            default:
+                return null;
+        }
+    }
+
+    private boolean isBatchUpdate(Object result) {
+        return result instanceof Integer && (Integer) result == BatchExecutor.BATCH_UPDATE_RETURN_VALUE;
+    }
+
+    private void flushPending(Executor executor) throws SQLException {
+        List<MultiLanguageOperation> operations = pendingOperations.get().get(executor);
+        if (!CollectionUtils.isEmpty(operations)) {
+            // 先执行主表的批量语句，再执行多语言操作
+            executor.flushStatements();
+            executePending(executor);
+        }
+    }
+
+    private void executePending(Executor executor) throws SQLException {
+        List<MultiLanguageOperation> operations = pendingOperations.get().remove(executor);
+        if (CollectionUtils.isEmpty(operations)) {
+            return;
+        }
+        List<MultiLanguageSql> sqlList = new ArrayList<>();
+        for (MultiLanguageOperation operation : operations) {
+            sqlList.addAll(operation.build());
+        }
+        executeBatch(executor.getTransaction().getConnection(), sqlList);
+    }
+
+    private List<MultiLanguageSql> proceedDeleteMultiLanguage(EntityTable table, Object object) throws IllegalAccessException {
         List<Object> objs = new ArrayList<>();
         List<String> keys = new ArrayList<>();
         for (EntityColumn column : table.getEntityClassPkColumns()) {
@@ -85,37 +162,42 @@ public class MultiLanguageInterceptor implements Interceptor {
             }
         }
         if (!keys.isEmpty()) {
-            executeSql(connection, "DELETE FROM "
+            return Collections.singletonList(new MultiLanguageSql("DELETE FROM "
                     + table.getMultiLanguageTableName()
-                    + " WHERE " + StringUtil.join(keys, " AND "), objs);
+                    + " WHERE " + StringUtil.join(keys, " AND "), objs));
         }
+        return Collections.emptyList();
     }
 
-    private void insertMultiLanguage(EntityTable table, Object object, Connection connection) throws SQLException {
-        Map<String, Object> columnMap = new HashMap<>(table.getMultiLanguageColumns().size() + table.getEntityClassPkColumns().size() + 1);
+    private List<MultiLanguageSql> insertMultiLanguage(EntityTable table, Object object, List<Language> languages) throws IllegalAccessException {
+        Map<String, Object> columnMap = new LinkedHashMap<>(table.getMultiLanguageColumns().size() + table.getEntityClassPkColumns().size() + 1);
         Map<String, Map<String, String>> fieldLangValueMap = getTls(object);
 
         String placeholders = buildPlaceholders(table.getMultiLanguageColumns().size() + table.getEntityClassPkColumns().size() + 1);
-        String sql = "INSERT INTO " + table.getMultiLanguageTableName() + "(";
 
         for (EntityColumn column : table.getEntityClassPkColumns()) {
             columnMap.put(column.getColumn(), column.getField().get(object));
         }
-        for (Language language : getLanguages()) {
-            StringBuilder sb = new StringBuilder(sql);
-            columnMap.remove(COLUMN_LANG);
+        columnMap.put(COLUMN_LANG, null);
+        for (EntityColumn column : table.getMultiLanguageColumns()) {
+            columnMap.put(column.getColumn(), null);
+        }
+        // 所有语言的插入语句相同，只有参数不同
+        String sql = "INSERT INTO " + table.getMultiLanguageTableName() + "("
+                + StringUtil.join(columnMap.keySet(), ",")
+                + ") VALUES (" + placeholders + ")";
+        List<MultiLanguageSql> sqlList = new ArrayList<>(languages.size());
+        for (Language language : languages) {
             columnMap.put(COLUMN_LANG, language.getCode());
             for (EntityColumn column : table.getMultiLanguageColumns()) {
-                columnMap.remove(column.getColumn());
                 columnMap.put(column.getColumn(), getValue(fieldLangValueMap, column.getField().getName(), language.getCode(), () -> column.getField().get(object)));
             }
-            sb.append(StringUtil.join(columnMap.keySet(), ","));
-            sb.append(") VALUES (").append(placeholders).append(")");
-            executeSql(connection, sb.toString(), columnMap.values());
+            sqlList.add(new MultiLanguageSql(sql, new ArrayList<>(columnMap.values())));
         }
+        return sqlList;
     }
 
-    private void insertMultiLanguage(EntityTable table, String lang, Object parameter, Connection connection, Map<String, Map<String, String>> fieldLangValueMap) throws SQLException {
+    private MultiLanguageSql insertMultiLanguage(EntityTable table, String lang, Object parameter, Map<String, Map<String, String>> fieldLangValueMap) throws IllegalAccessException {
         StringBuilder builder = new StringBuilder();
         List<Object> values = new ArrayList<>();
         List<Object> keys = new ArrayList<>();
@@ -139,11 +221,11 @@ public class MultiLanguageInterceptor implements Interceptor {
         builder.append(") VALUES (");
         builder.append(StringUtil.join(placeholders, ","));
         builder.append(")");
-        logger.debug("Insert missing multi language record: {} ,parameters: {}", builder, values);
-        executeSql(connection, builder.toString(), values);
+        return new MultiLanguageSql(builder.toString(), values);
     }
 
-    private void updateMultiLanguage(EntityTable table, Object object, Connection connection, Set<String> updateColumnSet) throws SQLException {
+    private List<MultiLanguageSql> updateMultiLanguage(EntityTable table, Object object, Set<String> updateColumnSet,
+                                                       List<Language> languages, String currentLanguage) throws IllegalAccessException {
         Map<String, Object> whereColumnMap = new LinkedHashMap<>(table.getEntityClassPkColumns().size() + 1);
         Map<String, Object> setColumnMap = new LinkedHashMap<>(table.getMultiLanguageColumns().size() + table.getEntityClassPkColumns().size() + 1);
         Map<String, Map<String, String>> fieldLangValueMap = getTls(object);
@@ -153,18 +235,19 @@ public class MultiLanguageInterceptor implements Interceptor {
         for (EntityColumn column : table.getEntityClassPkColumns()) {
             Object value = column.getField().get(object);
             if (value == null) {
-                return;
+                return Collections.emptyList();
             }
             whereColumnMap.put(column.getColumn() + " = ?", value);
         }
-        for (Language language : getLanguages()) {
+        List<MultiLanguageSql> sqlList = new ArrayList<>(languages.size());
+        for (Language language : languages) {
             setColumnMap.clear();
             whereColumnMap.remove(COLUMN_LANG + " = ?");
             whereColumnMap.put(COLUMN_LANG + " = ?", language.getCode());
             for (EntityColumn column : table.getMultiLanguageColumns()) {
                 if (updateColumnSet.contains(column.getColumn())
                         && ((updateLanguageSet.containsKey(column.getProperty()) && updateLanguageSet.get(column.getProperty()).contains(language.getCode()))
-                        || Objects.equals(LanguageHelper.language(), language.getCode()))) {
+                        || Objects.equals(currentLanguage, language.getCode()))) {
                     setColumnMap.put(column.getColumn() + " = ? ", getValue(fieldLangValueMap, column.getField().getName(), language.getCode(), () -> column.getField().get(object)));
                 }
             }
@@ -176,13 +259,11 @@ public class MultiLanguageInterceptor implements Interceptor {
                     " WHERE " +
                     StringUtil.join(whereColumnMap.keySet(), " AND ");
             setColumnMap.putAll(whereColumnMap);
-            int updateCount = executeSql(connection, placeholderSql, setColumnMap.values());
-            if (updateCount < 1) {
-                logger.warn("Update multi language failed. update count: {}", updateCount);
-                // 讲道理，下面这个不会执行
-                insertMultiLanguage(table, language.getCode(), object, connection, fieldLangValueMap);
-            }
+            // 讲道理，更新失败时的插入不会执行
+            sqlList.add(new MultiLanguageSql(placeholderSql, new ArrayList<>(setColumnMap.values()),
+                    insertMultiLanguage(table, language.getCode(), object, fieldLangValueMap)));
         }
+        return sqlList;
     }
 
     private Map<String, Set<String>> getUpdateLanguage(Map<String, Map<String, String>> fieldLangValueMap) {
@@ -207,18 +288,61 @@ public class MultiLanguageInterceptor implements Interceptor {
         // no need properties
     }
 
-    private int executeSql(Connection connection, String sql, Collection<Object> params) throws SQLException {
+    /**
+     * 按顺序执行，相邻的相同语句合并为一次 JDBC batch，更新失败的记录在执行下一组语句前插入
+     */
+    private void executeBatch(Connection connection, List<MultiLanguageSql> sqlList) throws SQLException {
+        int start = 0;
+        while (start < sqlList.size()) {
+            int end = start + 1;
+            while (end < sqlList.size() && Objects.equals(sqlList.get(start).getSql(), sqlList.get(end).getSql())) {
+                ++end;
+            }
+            List<MultiLanguageSql> group = sqlList.subList(start, end);
+            int[] updateCounts = executeSql(connection, group);
+            List<MultiLanguageSql> missingList = new ArrayList<>();
+            for (int i = 0; i < group.size(); ++i) {
+                // 部分驱动批量执行时不返回更新行数(SUCCESS_NO_INFO)，视为成功
+                if (updateCounts[i] == 0 && group.get(i).getMissing() != null) {
+                    logger.warn("Update multi language failed. update count: {}", updateCounts[i]);
+                    missingList.add(group.get(i).getMissing());
+                }
+            }
+            // 后续语句可能删除同一条记录，缺失的记录需要先插入
+            if (!missingList.isEmpty()) {
+                logger.debug("Insert missing multi language record: {}", missingList.size());
+                executeBatch(connection, missingList);
+            }
+            start = end;
+        }
+    }
+
+    private int[] executeSql(Connection connection, List<MultiLanguageSql> group) throws SQLException {
+        String sql = group.get(0).getSql();
         logger.debug("==>  Preparing: {}", sql);
-        logger.debug("==> Parameters: {}", params);
         try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            int i = 1;
-            for (Object obj : params) {
-                ps.setObject(i++, obj);
+            if (group.size() == 1) {
+                setParameters(ps, group.get(0).getParams());
+                ps.execute();
+                int updateCount = ps.getUpdateCount();
+                logger.debug("<==      Total: {}", updateCount);
+                return new int[]{updateCount};
+            }
+            for (MultiLanguageSql multiLanguageSql : group) {
+                setParameters(ps, multiLanguageSql.getParams());
+                ps.addBatch();
             }
-            ps.execute();
-            int updateCount = ps.getUpdateCount();
-            logger.debug("<==      Total: {}", updateCount);
-            return updateCount;
+            int[] updateCounts = ps.executeBatch();
+            logger.debug("<==      Batch: {}", updateCounts.length);
+            return updateCounts;
+        }
+    }
+
+    private void setParameters(PreparedStatement ps, List<Object> params) throws SQLException {
+        logger.debug("==> Parameters: {}", params);
+        int i = 1;
+        for (Object obj : params) {
+            ps.setObject(i++, obj);
         }
     }
 
@@ -226,7 +350,7 @@ public class MultiLanguageInterceptor implements Interceptor {
         return LanguageHelper.languages();
     }
 
-    private Object getValue(Map<String, Map<String, String>> fieldLangValueMap, String field, String lang, DefaultValue defaultValue) {
+    private Object getValue(Map<String, Map<String, String>> fieldLangValueMap, String field, String lang, DefaultValue defaultValue) throws IllegalAccessException {
         if (fieldLangValueMap != null && fieldLangValueMap.containsKey(field)) {
             Map<String, String> fieldValue = fieldLangValueMap.get(field);
             // 此处判断 StringUtils.hasLength(fieldValue.get(lang)) 是因为Oracle如果字段非空写入""会报错
@@ -243,7 +367,47 @@ public class MultiLanguageInterceptor implements Interceptor {
          *
          * @return 默认值
          */
-        Object getDefaultValue();
+        Object getDefaultValue() throws IllegalAccessException;
+    }
+
+    private interface MultiLanguageOperation {
+        /**
+         * 生成多语言语句
+         *
+         * @return 多语言语句
+         */
+        List<MultiLanguageSql> build() throws IllegalAccessException;
+    }
+
+    private static class MultiLanguageSql {
+        private final String sql;
+        private final List<Object> params;
+        /**
+         * 更新行数为 0 时执行的插入语句
+         */
+        private final MultiLanguageSql missing;
+
+        private MultiLanguageSql(String sql, List<Object> params) {
+            this(sql, params, null);
+        }
+
+        private MultiLanguageSql(String sql, List<Object> params, MultiLanguageSql missing) {
+            this.sql = sql;
+            this.params = params;
+            this.missing = missing;
+        }
+
+        private String getSql() {
+            return sql;
+        }
+
+        private List<Object> getParams() {
+            return params;
+        }
+
+        private MultiLanguageSql getMissing() {
+            return missing;
+        }
     }
 
     private String buildPlaceholders(int placeholderCnt) {
@@ -27,6 +27,8 @@ package io.choerodon.mybatis.pagehelper;
 import java.util.List;
 import java.util.Properties;
 
+import io.choerodon.mybatis.pagehelper.exception.PageException;
+import io.choerodon.mybatis.pagehelper.parser.SeekSqlParser;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
@@ -116,6 +118,17 @@ public interface Dialect {
     String getPageSql(MappedStatement ms, BoundSql boundSql, Object parameterObject,
                       RowBounds rowBounds, CacheKey pageKey);
 
+    /**
+     * 生成游标分页（seek）的条件和排序 sql，分页部分仍由 getPageSql 生成
+     *
+     * @param sql         原查询 sql
+     * @param seekColumns 排序字段及上一页最后一行的值
+     * @return 改写后的 sql 及游标值参数的位置，游标值以 ? 占位
+     */
+    default SeekSqlParser.SeekSql getSeekSql(String sql, List<SeekSqlParser.SeekColumn> seekColumns) {
+        throw new PageException("seek pagination is not supported by dialect " + getClass().getName());
+    }
+
     /**
      * 分页查询后，处理分页结果，拦截器中直接 return 该方法的返回值
      *
@@ -42,6 +42,9 @@ public class PageHelper extends PageMethod {
      * @return Page Page
      */
     public static <E> Page<E> doPageAndSort(PageRequest pageRequest, Select select) {
+        if (pageRequest.isSeek()) {
+            return doSeek(pageRequest, false, select);
+        }
         if (pageRequest.getPage() >= 0 && pageRequest.getSize() > 0) {
             startPageAndSort(pageRequest);
             return (Page<E>) select.doSelect();
@@ -51,6 +54,30 @@ public class PageHelper extends PageMethod {
         }
     }
 
+    /**
+     * 游标分页，按照上一页最后一行的排序字段值查询下一页，不使用偏移量
+     * 只支持单个 SELECT 语句，排序字段不能为空，且最后一个排序字段需要能唯一确定一行
+     *
+     * @param <E>         E
+     * @param pageRequest pageRequest，seek 为空时查询第一页
+     * @param count       是否进行count查询
+     * @param select      select
+     * @return Page Page
+     */
+    public static <E> Page<E> doSeek(PageRequest pageRequest, boolean count, Select select) {
+        if (pageRequest.getSize() > 0) {
+            if (pageRequest.isSeek()) {
+                startSeek(pageRequest, count);
+            } else {
+                startPageAndSort(new PageRequest(0, pageRequest.getSize(), pageRequest.getSort()), count);
+            }
+            return (Page<E>) select.doSelect();
+        } else {
+            startSort(pageRequest.getSort());
+            return selectAllAsOnePage(select);
+        }
+    }
+
     /**
      * 只排序，对于一些复杂嵌套查询，pagehelper不支持分页的情况，只做排序操作，然后手动分页
      *
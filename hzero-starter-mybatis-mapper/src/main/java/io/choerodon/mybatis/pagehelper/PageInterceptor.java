@@ -26,15 +26,18 @@ package io.choerodon.mybatis.pagehelper;
 
 import io.choerodon.mybatis.pagehelper.cache.Cache;
 import io.choerodon.mybatis.pagehelper.cache.CacheFactory;
+import io.choerodon.mybatis.pagehelper.domain.SeekPageInfo;
 import io.choerodon.mybatis.pagehelper.domain.Sort;
 import io.choerodon.mybatis.pagehelper.exception.PageException;
 import io.choerodon.mybatis.pagehelper.parser.IOrderByParser;
 import io.choerodon.mybatis.pagehelper.parser.OrderByParser;
+import io.choerodon.mybatis.pagehelper.parser.SeekSqlParser;
 import io.choerodon.mybatis.pagehelper.util.MappedStatementUtils;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.plugin.*;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -42,6 +45,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -65,10 +70,18 @@ import java.util.Properties;
 )
 public class PageInterceptor implements Interceptor {
     private static final String CUSTOM_COUNT_SQL_POSTFIX = "_COUNT";
+    /**
+     * 游标分页参数名称前缀
+     */
+    private static final String SEEK_PARAMETER_PREFIX = "_seek_";
     /**
      * 缓存count查询的ms
      **/
     private Cache<CacheKey, MappedStatement> msCountMap = null;
+    /**
+     * 缓存自动生成的count查询sql，count sql 只和原查询 sql 有关
+     **/
+    private Cache<String, String> countSqlMap = null;
     private Dialect dialect = null;
     private IOrderByParser orderByParser;
     private Field additionalParametersField;
@@ -115,7 +128,9 @@ public class PageInterceptor implements Interceptor {
             boolean executeSort = (sort != null);
             //反射获取动态参数
             Map<String, Object> additionalParameters = (Map<String, Object>) additionalParametersField.get(boundSql);
-            if (executePage && !executeSort) {
+            if (executePage && !executeSort && PageHelper.getLocalPage() instanceof SeekPageInfo) {
+                throw new PageException("seek pagination requires sort orders");
+            } else if (executePage && !executeSort) {
                 //只分页，count统计sql
                 if (doCount(ms, parameter, rowBounds, resultHandler, executor, boundSql, additionalParameters)) {
                     return dialect.afterPage(new ArrayList(), parameter, rowBounds);
@@ -131,7 +146,7 @@ public class PageInterceptor implements Interceptor {
                 //只排序
                 parameter = dialect.processParameterObject(ms, parameter, boundSql, cacheKey);
                 //拼接排序order by操作
-                sqlWithOrderBy = doSort(ms, parameter, boundSql, sqlWithOrderBy, sort, executeSort);
+                sqlWithOrderBy = doSort(ms, parameter, boundSql, sqlWithOrderBy, sort, executeSort, cacheKey, additionalParameters);
                 //设置动态参数
                 setDynamicParam(sqlWithOrderBy, additionalParameters);
                 //执行排序查询
@@ -142,7 +157,7 @@ public class PageInterceptor implements Interceptor {
                     return dialect.afterPage(new ArrayList(), parameter, rowBounds);
                 }
                 //拼接排序order by操作
-                sqlWithOrderBy = doSort(ms, parameter, boundSql, sqlWithOrderBy, sort, executeSort);
+                sqlWithOrderBy = doSort(ms, parameter, boundSql, sqlWithOrderBy, sort, executeSort, cacheKey, additionalParameters);
                 //判断是否需要进行分页查询
                 DoPage doPage =
                         new DoPage(ms, parameter, rowBounds, resultHandler, executor,
@@ -169,6 +184,7 @@ public class PageInterceptor implements Interceptor {
     public void setProperties(Properties properties) {
         dialect.setProperties(properties);
         msCountMap = CacheFactory.createCache(properties.getProperty("msCountCache"), "ms", properties);
+        countSqlMap = CacheFactory.createCache(properties.getProperty("countSqlCache"), "countSql", properties);
         try {
             additionalParametersField = BoundSql.class.getDeclaredField("additionalParameters");
             additionalParametersField.setAccessible(true);
@@ -224,8 +240,9 @@ public class PageInterceptor implements Interceptor {
                 } else {
                     pageSql = dialect.getPageSql(ms, boundSql, parameter, rowBounds, pageKey);
                 }
-                BoundSql pageBoundSql =
-                        new BoundSql(ms.getConfiguration(), pageSql, boundSql.getParameterMappings(), parameter);
+                //游标分页时 sqlWithOrderBy 中包含游标值的参数映射
+                BoundSql pageBoundSql = new BoundSql(ms.getConfiguration(), pageSql,
+                        (sqlWithOrderBy != null ? sqlWithOrderBy : boundSql).getParameterMappings(), parameter);
                 setDynamicParam(pageBoundSql, additionalParameters);
                 //执行分页查询
                 resultList = executor.query(ms, parameter, RowBounds.DEFAULT, resultHandler, pageKey, pageBoundSql);
@@ -250,8 +267,13 @@ public class PageInterceptor implements Interceptor {
     }
 
     private BoundSql doSort(MappedStatement ms, Object parameter, BoundSql boundSql,
-                            BoundSql sqlWithOrderBy, Sort sort, boolean executeSort) {
-        if (executeSort) {
+                            BoundSql sqlWithOrderBy, Sort sort, boolean executeSort,
+                            CacheKey cacheKey, Map<String, Object> additionalParameters) {
+        if (executeSort && PageHelper.getLocalPage() instanceof SeekPageInfo) {
+            //游标分页，拼接上一页最后一行的条件和order by，分页部分由方言从第一行开始截取
+            sqlWithOrderBy = doSeek(ms, parameter, boundSql, sort, (SeekPageInfo) PageHelper.getLocalPage(),
+                    cacheKey, additionalParameters);
+        } else if (executeSort) {
             //拼接order by并不会影响count查询，这里不对count查询的sql拼接order by
             //转换sort对象为sql字符串
             String orderBySql = orderByParser.sortToString(sort, ms);
@@ -265,6 +287,70 @@ public class PageInterceptor implements Interceptor {
         return sqlWithOrderBy;
     }
 
+    private BoundSql doSeek(MappedStatement ms, Object parameter, BoundSql boundSql, Sort sort, SeekPageInfo info,
+                            CacheKey cacheKey, Map<String, Object> additionalParameters) {
+        List<String> seekValues = info.getSeekValues();
+        List<SeekSqlParser.SeekColumn> seekColumns = new ArrayList<>(seekValues.size());
+        for (Sort.Order order : sort) {
+            if (seekColumns.size() == seekValues.size()) {
+                throw new PageException("the number of seek values must be equal to the number of sort orders");
+            }
+            Object value = convertSeekValue(seekValues.get(seekColumns.size()), orderByParser.getSortJavaType(order, ms));
+            seekColumns.add(new SeekSqlParser.SeekColumn(orderByParser.getSortColumn(order, ms), order.getDirection(), value));
+        }
+        if (seekColumns.size() != seekValues.size()) {
+            throw new PageException("the number of seek values must be equal to the number of sort orders");
+        }
+        SeekSqlParser.SeekSql seekSql = dialect.getSeekSql(boundSql.getSql(), seekColumns);
+        //游标值作为参数绑定，按照在sql中的位置插入参数映射，并作为动态参数传入
+        List<ParameterMapping> parameterMappings = new ArrayList<>(boundSql.getParameterMappings());
+        for (SeekSqlParser.SeekParameter seekParameter : seekSql.getParameters()) {
+            String property = SEEK_PARAMETER_PREFIX + seekParameter.getColumnIndex();
+            Object value = seekColumns.get(seekParameter.getColumnIndex()).getValue();
+            parameterMappings.add(seekParameter.getIndex(),
+                    new ParameterMapping.Builder(ms.getConfiguration(), property, value.getClass()).build());
+            additionalParameters.put(property, value);
+        }
+        //相同sql不同游标值的查询不能命中同一个一级缓存
+        for (SeekSqlParser.SeekColumn seekColumn : seekColumns) {
+            cacheKey.update(seekColumn.getValue());
+        }
+        return new BoundSql(ms.getConfiguration(), seekSql.getSql(), parameterMappings, parameter);
+    }
+
+    /**
+     * 游标值转换为排序字段的类型，数值类型按数值绑定，避免数据库按字符串或浮点数比较导致精度丢失；类型未知时按字符串绑定
+     *
+     * @param value    上一页最后一行的值
+     * @param javaType 排序字段的java类型
+     * @return 绑定的参数值
+     */
+    private Object convertSeekValue(String value, Class<?> javaType) {
+        if (javaType == null) {
+            return value;
+        }
+        try {
+            if (javaType == Long.class || javaType == long.class) {
+                return Long.valueOf(value);
+            } else if (javaType == Integer.class || javaType == int.class) {
+                return Integer.valueOf(value);
+            } else if (javaType == Short.class || javaType == short.class) {
+                return Short.valueOf(value);
+            } else if (javaType == BigDecimal.class) {
+                return new BigDecimal(value);
+            } else if (javaType == BigInteger.class) {
+                return new BigInteger(value);
+            } else if (javaType == Double.class || javaType == double.class) {
+                return Double.valueOf(value);
+            } else if (javaType == Float.class || javaType == float.class) {
+                return Float.valueOf(value);
+            }
+        } catch (NumberFormatException e) {
+            throw new PageException("invalid seek value: " + value, e);
+        }
+        return value;
+    }
+
     private boolean doCount(MappedStatement ms, Object parameter, RowBounds rowBounds,
                             ResultHandler resultHandler, Executor executor, BoundSql boundSql,
                             Map<String, Object> additionalParameters) throws java.sql.SQLException {
@@ -290,8 +376,12 @@ public class PageInterceptor implements Interceptor {
                     countMs = MappedStatementUtils.newCountMappedStatement(ms);
                     msCountMap.put(countKey, countMs);
                 }
-                //调用方言获取 count sql
-                String countSql = dialect.getCountSql(ms, boundSql, parameter, rowBounds, countKey);
+                //调用方言获取 count sql，相同的原查询 sql 不再重复解析
+                String countSql = countSqlMap.get(boundSql.getSql());
+                if (countSql == null) {
+                    countSql = dialect.getCountSql(ms, boundSql, parameter, rowBounds, countKey);
+                    countSqlMap.put(boundSql.getSql(), countSql);
+                }
                 BoundSql countBoundSql =
                         new BoundSql(ms.getConfiguration(), countSql, boundSql.getParameterMappings(), parameter);
                 //当使用动态 SQL 时，可能会产生临时的参数，这些参数需要手动设置到新的 BoundSql 中
@@ -35,6 +35,7 @@ import io.choerodon.core.domain.PageInfo;
 import io.choerodon.mybatis.pagehelper.PageHelper;
 import io.choerodon.mybatis.pagehelper.PageRowBounds;
 import io.choerodon.mybatis.pagehelper.parser.ICountSqlParser;
+import io.choerodon.mybatis.pagehelper.parser.SeekSqlParser;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
@@ -51,6 +52,8 @@ import org.apache.ibatis.session.RowBounds;
  */
 public abstract class AbstractHelperDialect extends AbstractDialect {
 
+    protected SeekSqlParser seekSqlParser = new SeekSqlParser();
+
     public AbstractHelperDialect(ICountSqlParser parser) {
         super(parser);
     }
@@ -118,6 +121,11 @@ public abstract class AbstractHelperDialect extends AbstractDialect {
      */
     public abstract String getPageSql(String sql, PageInfo info, CacheKey pageKey);
 
+    @Override
+    public SeekSqlParser.SeekSql getSeekSql(String sql, List<SeekSqlParser.SeekColumn> seekColumns) {
+        return seekSqlParser.getSeekSql(sql, seekColumns);
+    }
+
     @Override
     public Object afterPage(List pageList, Object parameterObject, RowBounds rowBounds) {
         PageInfo info = getLocalPage();
@@ -66,21 +66,20 @@ public class SqlServerDialect extends AbstractHelperDialect {
     @Override
     public String getCountSql(MappedStatement ms, BoundSql boundSql, Object parameterObject, RowBounds rowBounds, CacheKey countKey) {
         String sql = boundSql.getSql();
+        String cacheSql = cacheCountSql.get(sql);
+        if (cacheSql != null) {
+            return cacheSql;
+        }
+        cacheSql = sql;
         try {
-            if (sql != null && sql.toUpperCase().contains("ORDER BY")) {
-                Statement statement = CCJSqlParserUtil.parse(sql);
+            if (cacheSql != null && cacheSql.toUpperCase().contains("ORDER BY")) {
+                Statement statement = CCJSqlParserUtil.parse(cacheSql);
                 Statement orderByExcludeStatement = ORDER_BY_EXCLUDE.handleStatement(statement, null, null, null, null);
-                sql = orderByExcludeStatement.toString();
+                cacheSql = orderByExcludeStatement.toString();
             }
         } catch (JSQLParserException e) {
             logger.error("Error when parsing Sql, so Order By cannot be deleted automatically : " + sql, e);
         }
-        String cacheSql = cacheCountSql.get(sql);
-        if (cacheSql != null) {
-            return cacheSql;
-        } else {
-            cacheSql = sql;
-        }
         cacheSql = cacheSql.replaceAll("((?i)with\\s*\\(nolock\\))", withnolock);
         cacheSql = parser.getSmartCountSql(cacheSql);
         cacheSql = cacheSql.replaceAll(withnolock, " with(nolock)");
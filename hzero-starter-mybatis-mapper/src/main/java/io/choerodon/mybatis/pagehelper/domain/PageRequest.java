@@ -1,6 +1,7 @@
 package io.choerodon.mybatis.pagehelper.domain;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import io.choerodon.mybatis.util.StringUtil;
@@ -17,6 +18,10 @@ public class PageRequest {
     private int page;
     private int size;
     private Sort sort;
+    /**
+     * 游标分页（seek）时上一页最后一行的排序字段值，与排序字段一一对应
+     */
+    private List<String> seek;
 
     public PageRequest() {
     }
@@ -66,6 +71,21 @@ public class PageRequest {
         this.sort = sort;
     }
 
+    public List<String> getSeek() {
+        return seek;
+    }
+
+    public void setSeek(List<String> seek) {
+        this.seek = seek;
+    }
+
+    /**
+     * @return 是否使用游标分页
+     */
+    public boolean isSeek() {
+        return seek != null && !seek.isEmpty();
+    }
+
     /**
      * 关联表字段映射关系，key:前端传入字段，value:对应的数据库别名+字段
      * e.g user表和role表联查，都有name字段，前端传入name字段排序传入为userName和roleName,sql中user别名为u,role别名为r
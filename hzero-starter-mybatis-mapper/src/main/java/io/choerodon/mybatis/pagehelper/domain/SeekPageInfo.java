@@ -0,0 +1,36 @@
+package io.choerodon.mybatis.pagehelper.domain;
+
+import io.choerodon.core.domain.PageInfo;
+
+import java.util.List;
+
+/**
+ * 游标分页（seek）信息，按照上一页最后一行的排序字段值定位，不再使用偏移量，深度翻页与查询第一页的代价相同
+ *
+ * @author agent 2026/10/18
+ * 2020/10/13
+ **/
+public class SeekPageInfo extends PageInfo {
+
+    private final List<String> seekValues;
+
+    /**
+     * 游标分页信息构造函数
+     *
+     * @param page       page，仅用于返回的分页信息
+     * @param size       size
+     * @param count      是否进行count查询
+     * @param seekValues 上一页最后一行的排序字段值
+     */
+    public SeekPageInfo(int page, int size, boolean count, List<String> seekValues) {
+        super(page, size, count);
+        this.seekValues = seekValues;
+        // 游标分页不跳过任何行
+        setBegin(0);
+        setEnd(size);
+    }
+
+    public List<String> getSeekValues() {
+        return seekValues;
+    }
+}
@@ -27,6 +27,7 @@ package io.choerodon.mybatis.pagehelper.page;
 import io.choerodon.core.domain.PageInfo;
 import io.choerodon.mybatis.pagehelper.Select;
 import io.choerodon.mybatis.pagehelper.domain.PageRequest;
+import io.choerodon.mybatis.pagehelper.domain.SeekPageInfo;
 import io.choerodon.mybatis.pagehelper.domain.Sort;
 
 /**
@@ -154,6 +155,20 @@ public abstract class PageMethod {
         return page;
     }
 
+    /**
+     * 开始游标分页和排序，排序字段的最后一个字段需要能够唯一确定一行（例如主键）
+     *
+     * @param pageRequest 分页封装对象，seek 为上一页最后一行的排序字段值
+     * @param count       是否进行count查询
+     * @return pageInfo
+     */
+    public static PageInfo startSeek(PageRequest pageRequest, boolean count) {
+        PageInfo page = new SeekPageInfo(pageRequest.getPage(), pageRequest.getSize(), count, pageRequest.getSeek());
+        setLocalPage(page);
+        setLocalSort(pageRequest.getSort());
+        return page;
+    }
+
     public static void startSort(Sort sort) {
         setLocalSort(sort);
     }
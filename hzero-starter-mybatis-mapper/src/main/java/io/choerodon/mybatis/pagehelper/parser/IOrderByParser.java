@@ -26,4 +26,26 @@ public interface IOrderByParser {
      * @return Sort对象转sql
      */
     String sortToString(Sort sort, MappedStatement ms);
+
+    /**
+     * 获取排序字段对应的列名
+     *
+     * @param order order
+     * @param ms    MappedStatement
+     * @return 列名
+     */
+    default String getSortColumn(Sort.Order order, MappedStatement ms) {
+        return order.getProperty();
+    }
+
+    /**
+     * 获取排序字段的java类型
+     *
+     * @param order order
+     * @param ms    MappedStatement
+     * @return java类型，无法确定时返回 null
+     */
+    default Class<?> getSortJavaType(Sort.Order order, MappedStatement ms) {
+        return null;
+    }
 }
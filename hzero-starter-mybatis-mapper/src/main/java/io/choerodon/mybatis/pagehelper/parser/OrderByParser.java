@@ -4,20 +4,26 @@ import io.choerodon.mybatis.code.Style;
 import io.choerodon.mybatis.domain.EntityColumn;
 import io.choerodon.mybatis.helper.EntityHelper;
 import io.choerodon.mybatis.helper.MapperTemplate;
+import io.choerodon.mybatis.pagehelper.cache.Cache;
+import io.choerodon.mybatis.pagehelper.cache.CacheFactory;
 import io.choerodon.mybatis.pagehelper.domain.Sort;
 import io.choerodon.mybatis.util.StringUtil;
 import net.sf.jsqlparser.JSQLParserException;
 import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 import net.sf.jsqlparser.statement.Statement;
 import net.sf.jsqlparser.statement.select.*;
+import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Properties;
 import java.util.Set;
 
 
@@ -30,9 +36,14 @@ public class OrderByParser implements IOrderByParser {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(OrderByParser.class);
     private final Style style;
+    /**
+     * 缓存sql是否包含order by的解析结果
+     */
+    private final Cache<String, Boolean> containOrderByCache;
 
     public OrderByParser(Style style) {
         this.style = style;
+        this.containOrderByCache = CacheFactory.createCache(null, "orderBy", new Properties());
     }
 
     /**
@@ -48,29 +59,65 @@ public class OrderByParser implements IOrderByParser {
         StringBuilder stringBuilder = new StringBuilder();
         while (iterator.hasNext()) {
             Sort.Order order = iterator.next();
-            //前端url传入的排序列名
-            String property = order.getProperty();
-            String direction = order.getDirection().toString();
-            if (!order.isPropertyChanged()) {
-                //根据ms获取entityClass,反射获取所有字段和注解
-                Class<?> entityClass = getEntityClass(ms);
-                if (entityClass != null) {
-                    String column = getColumn(entityClass, property);
-                    splicingSql(stringBuilder, direction, column);
-                } else {
-                    splicingSql(stringBuilder, direction, StringUtil.convertByStyle(property, style));
-                }
-            } else {
-                //多表联查，拼接order by暂未做校验，可能会报sql语句错误或sql注入
-                splicingSql(stringBuilder, direction, property);
-            }
+            splicingSql(stringBuilder, order.getDirection().toString(), getSortColumn(order, ms));
         }
         stringBuilder.deleteCharAt(stringBuilder.lastIndexOf(","));
         return stringBuilder.toString();
     }
 
+    @Override
+    public String getSortColumn(Sort.Order order, MappedStatement ms) {
+        //前端url传入的排序列名
+        String property = order.getProperty();
+        if (!order.isPropertyChanged()) {
+            //根据ms获取entityClass,反射获取所有字段和注解
+            Class<?> entityClass = getEntityClass(ms);
+            if (entityClass != null) {
+                return getColumn(entityClass, property);
+            } else {
+                return StringUtil.convertByStyle(property, style);
+            }
+        } else {
+            //多表联查，拼接order by暂未做校验，可能会报sql语句错误或sql注入
+            return property;
+        }
+    }
+
+    @Override
+    public Class<?> getSortJavaType(Sort.Order order, MappedStatement ms) {
+        if (order.isPropertyChanged()) {
+            return null;
+        }
+        String camelHumpProperty = StringUtil.underlineToCamelhump(order.getProperty());
+        Class<?> entityClass = getEntityClass(ms);
+        if (entityClass != null) {
+            for (EntityColumn entityColumn : EntityHelper.getColumns(entityClass)) {
+                if (entityColumn.getProperty().equalsIgnoreCase(camelHumpProperty)) {
+                    return entityColumn.getJavaType();
+                }
+            }
+        }
+        // 自定义查询按照返回值类型的字段判断
+        for (ResultMap resultMap : ms.getResultMaps()) {
+            Field field = FieldUtils.getField(resultMap.getType(), camelHumpProperty, true);
+            if (field != null) {
+                return field.getType();
+            }
+        }
+        return null;
+    }
+
     @Override
     public boolean containOrderBy(String sql) {
+        Boolean containOrderBy = containOrderByCache.get(sql);
+        if (containOrderBy == null) {
+            containOrderBy = parseContainOrderBy(sql);
+            containOrderByCache.put(sql, containOrderBy);
+        }
+        return containOrderBy;
+    }
+
+    private boolean parseContainOrderBy(String sql) {
         try {
             Statement stmt = CCJSqlParserUtil.parse(sql);
             Select select = (Select) stmt;
@@ -0,0 +1,223 @@
+package io.choerodon.mybatis.pagehelper.parser;
+
+import io.choerodon.mybatis.pagehelper.domain.Sort;
+import io.choerodon.mybatis.pagehelper.exception.PageException;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.BinaryExpression;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.JdbcNamedParameter;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
+import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
+import net.sf.jsqlparser.expression.operators.relational.GreaterThan;
+import net.sf.jsqlparser.expression.operators.relational.MinorThan;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.OrderByElement;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SelectBody;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 游标分页（seek）sql解析类，将查询改写为 WHERE (排序字段) > (上一页最后一行的值) ORDER BY 排序字段
+ * <p>
+ * 多个排序字段展开为 (a > ?) OR (a = ? AND b > ?) 的形式，支持混合的排序方向，并兼容不支持行比较的数据库
+ * <p>
+ * 上一页最后一行的值作为 JDBC 参数绑定，不拼接到 sql 中，避免数据库按字符串比较数值类型的字段
+ *
+ * @author agent 2026/10/18
+ * 2020/10/13
+ **/
+public class SeekSqlParser {
+
+    /**
+     * 改写过程中游标值的占位名称前缀，改写完成后替换为 ?
+     */
+    private static final String MARKER = "__hzero_seek_";
+
+    /**
+     * 改写为游标分页sql，不包含分页部分
+     *
+     * @param sql         原查询sql，不能包含 order by
+     * @param seekColumns 排序字段及上一页最后一行的值
+     * @return 改写后的sql及游标值参数的位置
+     */
+    public SeekSql getSeekSql(String sql, List<SeekColumn> seekColumns) {
+        Statement statement;
+        try {
+            statement = CCJSqlParserUtil.parse(sql);
+        } catch (JSQLParserException e) {
+            throw new PageException("JSQLParser can not parse the sql while using seek pagination: " + sql, e);
+        }
+        SelectBody selectBody = statement instanceof Select ? ((Select) statement).getSelectBody() : null;
+        if (!(selectBody instanceof PlainSelect)) {
+            throw new PageException("seek pagination only supports plain select sql: " + sql);
+        }
+        PlainSelect plainSelect = (PlainSelect) selectBody;
+        if (plainSelect.getOrderByElements() != null && !plainSelect.getOrderByElements().isEmpty()) {
+            throw new PageException("the select sql can not contains order by while using seek pagination");
+        }
+        Expression seek = null;
+        Expression equals = null;
+        List<OrderByElement> orderByElements = new ArrayList<>(seekColumns.size());
+        for (int i = 0; i < seekColumns.size(); i++) {
+            SeekColumn seekColumn = seekColumns.get(i);
+            Column column = new Column(seekColumn.getColumn());
+            Expression value = new JdbcNamedParameter(MARKER + i);
+            Expression compare = binary(seekColumn.getDirection().isAscending() ? new GreaterThan() : new MinorThan(), column, value);
+            Expression branch = equals == null ? compare : new AndExpression(equals, compare);
+            seek = seek == null ? branch : new OrExpression(seek, branch);
+            Expression equalsTo = binary(new EqualsTo(), column, value);
+            equals = equals == null ? equalsTo : new AndExpression(equals, equalsTo);
+
+            OrderByElement orderByElement = new OrderByElement();
+            orderByElement.setExpression(column);
+            orderByElement.setAsc(seekColumn.getDirection().isAscending());
+            orderByElement.setAscDescPresent(true);
+            orderByElements.add(orderByElement);
+        }
+        Expression where = plainSelect.getWhere();
+        plainSelect.setWhere(where == null ? new Parenthesis(seek) : new AndExpression(new Parenthesis(where), new Parenthesis(seek)));
+        plainSelect.setOrderByElements(orderByElements);
+        return replaceMarkers(statement.toString());
+    }
+
+    /**
+     * 将占位名称替换为 ?，并记录每个游标值参数在全部 ? 中的位置，忽略字符串常量和带引号的标识符中的内容
+     *
+     * @param sql 带占位名称的sql
+     * @return 改写后的sql
+     */
+    private SeekSql replaceMarkers(String sql) {
+        StringBuilder builder = new StringBuilder(sql.length());
+        List<SeekParameter> parameters = new ArrayList<>();
+        String markerPrefix = ":" + MARKER;
+        int placeholders = 0;
+        int i = 0;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                int end = i + 1;
+                while (end < sql.length()) {
+                    char current = sql.charAt(end);
+                    if (current == c && end + 1 < sql.length() && sql.charAt(end + 1) == c) {
+                        end += 2;
+                    } else if (current == c) {
+                        break;
+                    } else {
+                        end++;
+                    }
+                }
+                end = Math.min(end + 1, sql.length());
+                builder.append(sql, i, end);
+                i = end;
+            } else if (c == '?') {
+                placeholders++;
+                builder.append(c);
+                i++;
+            } else if (sql.startsWith(markerPrefix, i)) {
+                int end = i + markerPrefix.length();
+                while (end < sql.length() && Character.isDigit(sql.charAt(end))) {
+                    end++;
+                }
+                parameters.add(new SeekParameter(placeholders++, Integer.parseInt(sql.substring(i + markerPrefix.length(), end))));
+                builder.append('?');
+                i = end;
+            } else {
+                builder.append(c);
+                i++;
+            }
+        }
+        return new SeekSql(builder.toString(), parameters);
+    }
+
+    private Expression binary(BinaryExpression expression, Expression left, Expression right) {
+        expression.setLeftExpression(left);
+        expression.setRightExpression(right);
+        return expression;
+    }
+
+    /**
+     * 游标分页排序字段
+     */
+    public static class SeekColumn {
+        private final String column;
+        private final Sort.Direction direction;
+        private final Object value;
+
+        public SeekColumn(String column, Sort.Direction direction, Object value) {
+            this.column = column;
+            this.direction = direction;
+            this.value = value;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+
+        public Sort.Direction getDirection() {
+            return direction;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * 改写后的游标分页sql
+     */
+    public static class SeekSql {
+        private final String sql;
+        private final List<SeekParameter> parameters;
+
+        public SeekSql(String sql, List<SeekParameter> parameters) {
+            this.sql = sql;
+            this.parameters = Collections.unmodifiableList(parameters);
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        /**
+         * @return 游标值参数，按照在sql中出现的顺序排列
+         */
+        public List<SeekParameter> getParameters() {
+            return parameters;
+        }
+    }
+
+    /**
+     * 游标值参数
+     */
+    public static class SeekParameter {
+        private final int index;
+        private final int columnIndex;
+
+        public SeekParameter(int index, int columnIndex) {
+            this.index = index;
+            this.columnIndex = columnIndex;
+        }
+
+        /**
+         * @return 在sql全部 ? 中的位置，从0开始
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return 对应的排序字段下标
+         */
+        public int getColumnIndex() {
+            return columnIndex;
+        }
+    }
+}
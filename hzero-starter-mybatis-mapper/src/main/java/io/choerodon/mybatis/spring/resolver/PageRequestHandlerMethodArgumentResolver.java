@@ -1,6 +1,7 @@
 package io.choerodon.mybatis.spring.resolver;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 
 import io.choerodon.mybatis.pagehelper.annotation.PageableDefault;
 import io.choerodon.mybatis.pagehelper.domain.PageRequest;
@@ -29,6 +30,7 @@ public class PageRequestHandlerMethodArgumentResolver implements PageRequestArgu
 
     private static final String DEFAULT_PAGE_PARAMETER = "page";
     private static final String DEFAULT_SIZE_PARAMETER = "size";
+    private static final String DEFAULT_SEEK_PARAMETER = "seek";
     private static final String DEFAULT_PREFIX = "";
     private static final String DEFAULT_QUALIFIER_DELIMITER = "_";
     private static final int DEFAULT_MAX_PAGE_SIZE = 1000;
@@ -38,6 +40,7 @@ public class PageRequestHandlerMethodArgumentResolver implements PageRequestArgu
     private SortArgumentResolver sortResolver;
     private String pageParameterName = DEFAULT_PAGE_PARAMETER;
     private String sizeParameterName = DEFAULT_SIZE_PARAMETER;
+    private String seekParameterName = DEFAULT_SEEK_PARAMETER;
     private String prefix = DEFAULT_PREFIX;
     private String qualifierDelimiter = DEFAULT_QUALIFIER_DELIMITER;
     private int maxPageSize = DEFAULT_MAX_PAGE_SIZE;
@@ -79,6 +82,14 @@ public class PageRequestHandlerMethodArgumentResolver implements PageRequestArgu
         this.sizeParameterName = sizeParameterName;
     }
 
+    public String getSeekParameterName() {
+        return seekParameterName;
+    }
+
+    public void setSeekParameterName(String seekParameterName) {
+        this.seekParameterName = seekParameterName;
+    }
+
     public String getPrefix() {
         return prefix;
     }
@@ -141,7 +152,13 @@ public class PageRequestHandlerMethodArgumentResolver implements PageRequestArgu
         // Default if necessary and default configured
         sort = sort == null && defaultOrFallback != null ? defaultOrFallback.getSort() : sort;
 
-        return new PageRequest(page, pageSize, sort);
+        PageRequest pageRequest = new PageRequest(page, pageSize, sort);
+        // 游标分页，按排序字段顺序传入上一页最后一行的值，例如 seek=2020-01-01&seek=10086
+        String[] seekValues = webRequest.getParameterValues(getParameterNameToUse(seekParameterName, methodParameter));
+        if (seekValues != null && seekValues.length > 0) {
+            pageRequest.setSeek(Arrays.asList(seekValues));
+        }
+        return pageRequest;
     }
 
     private PageRequest getDefaultFromAnnotationOrFallback(MethodParameter methodParameter) {
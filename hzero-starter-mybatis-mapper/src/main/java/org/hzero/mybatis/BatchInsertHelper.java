@@ -1,10 +1,21 @@
 package org.hzero.mybatis;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
 import javax.persistence.Table;
 
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.hzero.mybatis.impl.DefaultDynamicSqlMapper;
@@ -27,26 +38,50 @@ import io.choerodon.mybatis.helper.SqlHelper;
 public class BatchInsertHelper<T> {
     private static final Long DEFAULT_VERSION_NUMBER = 1L;
     private static final Long DEFAULT_USER_ID = 10001L;
+    private static final String BATCH_INSERT_STATEMENT_PREFIX = BatchInsertHelper.class.getName() + ".insert.";
+    private static final String WITH_ID_SUFFIX = ".withId";
 
     //@Value("${hzero.supporter.batch-insert.slice-size:500}")
     private final int sliceSize;
 
+    /**
+     * 是否使用 JDBC batch 执行单行插入语句，此时 sliceSize 为每次 flush 的行数
+     */
+    private final boolean jdbcBatch;
+
     private final SqlSessionFactory sqlSessionFactory;
 
 
     public BatchInsertHelper(SqlSessionFactory sqlSessionFactory, int sliceSize) {
+        this(sqlSessionFactory, sliceSize, false);
+    }
+
+    public BatchInsertHelper(SqlSessionFactory sqlSessionFactory, int sliceSize, boolean jdbcBatch) {
         this.sqlSessionFactory = sqlSessionFactory;
         this.sliceSize = sliceSize;
+        this.jdbcBatch = jdbcBatch;
     }
 
     @Transactional(rollbackFor = Exception.class)
     public List<T> batchInsert(List<T> entities) {
+        return batchInsert(entities, jdbcBatch);
+    }
+
+    /**
+     * 批量插入
+     *
+     * @param entities  插入的数据
+     * @param jdbcBatch true 使用 JDBC batch 执行单行插入语句并回写主键，false 使用多行 VALUES 插入语句
+     * @return 插入的数据
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public List<T> batchInsert(List<T> entities, boolean jdbcBatch) {
         if (CollectionUtils.isEmpty(entities)) {
             return entities;
         }
         // 校验对象是否基础AuditDomain
         //this.validEntity(entities);
-        return doProcess(entities);
+        return jdbcBatch ? doBatchProcess(entities) : doProcess(entities);
     }
 
     private List<T> doProcess(List<T> entities) {
@@ -69,6 +104,27 @@ public class BatchInsertHelper<T> {
         return entities;
     }
 
+    private List<T> doBatchProcess(List<T> entities) {
+        // 初始化对象
+        this.initEntities(entities);
+        T template = entities.get(0);
+        this.initEntityHelper(template);
+        // 所有数据都已指定主键时插入主键，否则由数据库生成主键并回写
+        boolean withId = this.hasIds(entities);
+        try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+            String msId = this.getBatchInsertStatement(sqlSession.getConfiguration(), template.getClass(), withId);
+            for (int i = 0; i < entities.size(); i++) {
+                sqlSession.insert(msId, entities.get(i));
+                if ((i + 1) % sliceSize == 0) {
+                    sqlSession.flushStatements();
+                }
+            }
+            // 关闭 BATCH 会话时未执行的语句会被丢弃，必须显式执行
+            sqlSession.flushStatements();
+        }
+        return entities;
+    }
+
     private void initEntities(List<T> entities) {
         Long userId = DEFAULT_USER_ID;
         if (DetailsHelper.getUserDetails() != null) {
@@ -132,6 +188,74 @@ public class BatchInsertHelper<T> {
         return sb.toString();
     }
 
+    /**
+     * 获取单行插入语句，每个实体类只生成一次，参数映射在创建时解析完成
+     *
+     * @param configuration configuration
+     * @param entityClass   实体类
+     * @param withId        是否插入主键
+     * @return MappedStatement ID
+     */
+    private String getBatchInsertStatement(Configuration configuration, Class<?> entityClass, boolean withId) {
+        String msId = BATCH_INSERT_STATEMENT_PREFIX + entityClass.getName() + (withId ? WITH_ID_SUFFIX : "");
+        if (configuration.hasStatement(msId, false)) {
+            return msId;
+        }
+        synchronized (BatchInsertHelper.class) {
+            if (configuration.hasStatement(msId, false)) {
+                return msId;
+            }
+            StringBuilder columns = new StringBuilder();
+            StringBuilder values = new StringBuilder();
+            List<String> keyProperties = new ArrayList<>();
+            List<String> keyColumns = new ArrayList<>();
+            for (EntityColumn column : EntityHelper.getColumns(entityClass)) {
+                if (column.isId()) {
+                    keyProperties.add(column.getProperty());
+                    keyColumns.add(column.getColumn());
+                }
+                if (!column.isInsertable() || (!withId && column.isId())) {
+                    continue;
+                }
+                columns.append(column.getColumn()).append(",");
+                values.append(column.getColumnHolderWithComma(null, null));
+            }
+            columns.deleteCharAt(columns.length() - 1);
+            values.deleteCharAt(values.length() - 1);
+            String sql = "INSERT INTO " + this.getTableName(entityClass) + "(" + columns + ") VALUES (" + values + ")";
+            SqlSource sqlSource = configuration.getDefaultScriptingLanguageInstance().createSqlSource(configuration, sql, entityClass);
+            List<ResultMap> resultMaps = new ArrayList<>();
+            resultMaps.add(new ResultMap.Builder(configuration, "defaultResultMap", int.class, new ArrayList<>(0)).build());
+            MappedStatement.Builder builder = new MappedStatement.Builder(configuration, msId, sqlSource, SqlCommandType.INSERT)
+                    .resultMaps(resultMaps);
+            if (withId || keyProperties.isEmpty()) {
+                builder.keyGenerator(new NoKeyGenerator());
+            } else {
+                builder.keyGenerator(new Jdbc3KeyGenerator())
+                        .keyProperty(String.join(",", keyProperties))
+                        .keyColumn(String.join(",", keyColumns));
+            }
+            configuration.addMappedStatement(builder.build());
+        }
+        return msId;
+    }
+
+    private boolean hasIds(List<T> entities) {
+        Set<EntityColumn> pkColumns = EntityHelper.getPkColumns(entities.get(0).getClass());
+        if (CollectionUtils.isEmpty(pkColumns)) {
+            return false;
+        }
+        for (T entity : entities) {
+            MetaObject metaObject = SystemMetaObject.forObject(entity);
+            for (EntityColumn pkColumn : pkColumns) {
+                if (metaObject.getValue(pkColumn.getProperty()) == null) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     /**
      * 获取表名
      *
@@ -18,9 +18,12 @@ public class BatchInsertHelperConfig {
     @Value("${hzero.supporter.batch-insert.slice-size:500}")
     private int sliceSize;
 
+    @Value("${hzero.supporter.batch-insert.jdbc-batch:false}")
+    private boolean jdbcBatch;
+
     @Bean
     @ConditionalOnMissingBean
     public BatchInsertHelper batchInsertHelper(SqlSessionFactory sqlSessionFactory) {
-        return new BatchInsertHelper(sqlSessionFactory, this.sliceSize);
+        return new BatchInsertHelper(sqlSessionFactory, this.sliceSize, this.jdbcBatch);
     }
 }
@@ -9,10 +9,10 @@ import org.hzero.mybatis.annotation.DataSecurity;
 import org.hzero.mybatis.security.DataSecurityInterceptor;
 
 import javax.persistence.Transient;
-import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>
@@ -25,7 +25,7 @@ public class DataSecurityHelper {
     private DataSecurityHelper() {
     }
 
-    private static final Map<Class<?>, EntityTable> ENTITY_CLASS_TABLE_MAP = new HashMap<>();
+    private static final Map<Class<?>, EntityTable> ENTITY_CLASS_TABLE_MAP = new ConcurrentHashMap<>();
 
     /**
      * 关闭安全校验
@@ -53,10 +53,12 @@ public class DataSecurityHelper {
     }
 
     public static EntityTable getEntityTable(Class<?> entityClass) {
-        if (!ENTITY_CLASS_TABLE_MAP.containsKey(entityClass)) {
+        EntityTable entityTable = ENTITY_CLASS_TABLE_MAP.get(entityClass);
+        if (entityTable == null) {
             initEntityNameMap(entityClass);
+            entityTable = ENTITY_CLASS_TABLE_MAP.get(entityClass);
         }
-        return ENTITY_CLASS_TABLE_MAP.get(entityClass);
+        return entityTable;
     }
 
     public static Set<EntityField> getEntityFields(Class<?> entityClass) {
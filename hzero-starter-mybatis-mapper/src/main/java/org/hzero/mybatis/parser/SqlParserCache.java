@@ -0,0 +1,98 @@
+package org.hzero.mybatis.parser;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无法解析的 SQL 缓存，以 MyBatis SQL ID + SQL 为键，命中后直接执行原 SQL，不再经过 JSqlParser 重复解析
+ * <p>
+ * 只缓存解析失败的 SQL：解析失败时本来就不会执行任何 {@link SqlInterceptor}，跳过解析不会改变执行结果；
+ * 可以解析的 SQL 每次都会重新解析，保证各拦截器的 before/handleStatement/after 都会执行
+ *
+ * @author agent 2026/10/18
+ */
+public class SqlParserCache {
+    private final int maxSize;
+    private final Set<SqlKey> unparsable = ConcurrentHashMap.newKeySet();
+    private final AtomicLong hitCount = new AtomicLong();
+
+    public SqlParserCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param sqlId MyBatis SQL ID
+     * @param sql   原始 SQL
+     * @return 该 SQL 是否已知无法解析
+     */
+    public boolean isUnparsable(String sqlId, String sql) {
+        if (unparsable.isEmpty() || !unparsable.contains(new SqlKey(sqlId, sql))) {
+            return false;
+        }
+        hitCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 记录无法解析的 SQL，达到上限后不再记录
+     *
+     * @param sqlId MyBatis SQL ID
+     * @param sql   原始 SQL
+     */
+    public void markUnparsable(String sqlId, String sql) {
+        if (unparsable.size() < maxSize) {
+            unparsable.add(new SqlKey(sqlId, sql));
+        }
+    }
+
+    public void clear() {
+        unparsable.clear();
+        hitCount.set(0);
+    }
+
+    public int size() {
+        return unparsable.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return 跳过解析的次数
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    private static final class SqlKey {
+        private final String sqlId;
+        private final String sql;
+        private final int hash;
+
+        private SqlKey(String sqlId, String sql) {
+            this.sqlId = sqlId;
+            this.sql = sql;
+            this.hash = Objects.hash(sqlId, sql);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SqlKey)) {
+                return false;
+            }
+            SqlKey sqlKey = (SqlKey) o;
+            return Objects.equals(sqlId, sqlKey.sqlId) && Objects.equals(sql, sqlKey.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
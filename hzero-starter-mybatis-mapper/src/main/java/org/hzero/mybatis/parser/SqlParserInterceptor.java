@@ -2,6 +2,7 @@ package org.hzero.mybatis.parser;
 
 import io.choerodon.core.oauth.CustomUserDetails;
 import io.choerodon.core.oauth.DetailsHelper;
+import net.sf.jsqlparser.JSQLParserException;
 import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 import net.sf.jsqlparser.statement.Statement;
 import net.sf.jsqlparser.statement.insert.Insert;
@@ -43,10 +44,19 @@ public class SqlParserInterceptor implements Interceptor {
     public static final ThreadLocal<Boolean> sqlParserEnable = new ThreadLocal<>();
     private final String serviceName;
     private final List<SqlInterceptor> sqlInterceptors;
+    private final SqlParserCache sqlParserCache;
 
     public SqlParserInterceptor(String serviceName, List<SqlInterceptor> sqlInterceptors) {
+        this(serviceName, sqlInterceptors, null);
+    }
+
+    /**
+     * @param sqlParserCache 无法解析的 SQL 缓存，为 null 时每次都重新解析
+     */
+    public SqlParserInterceptor(String serviceName, List<SqlInterceptor> sqlInterceptors, SqlParserCache sqlParserCache) {
         this.serviceName = serviceName;
         this.sqlInterceptors = sqlInterceptors;
+        this.sqlParserCache = sqlParserCache;
     }
 
     @Override
@@ -62,18 +72,20 @@ public class SqlParserInterceptor implements Interceptor {
         if (boundSql == null) {
             return invocation.proceed();
         }
+        String sqlId = SqlUtils.getSqlId(invocation);
+        String sql = boundSql.getSql();
+        if (sqlParserCache != null && sqlParserCache.isUnparsable(sqlId, sql)) {
+            return invocation.proceed();
+        }
         currentBoundSql.set(boundSql);
         currentInvocation.set(invocation);
-        String sqlId = SqlUtils.getSqlId(invocation);
-        Statement statement;
+        String rewrittenSql;
         try {
-            statement = CCJSqlParserUtil.parse(boundSql.getSql());
             CustomUserDetails userDetails = DetailsHelper.getUserDetails();
-            for (SqlInterceptor sqlInterceptor : sqlInterceptors) {
-                sqlInterceptor.before();
-                statement = sqlInterceptor.handleStatement(statement, serviceName, sqlId, getArgs(invocation, statement), userDetails != null ? userDetails : DetailsHelper.getAnonymousDetails());
-                sqlInterceptor.after();
+            if (userDetails == null) {
+                userDetails = DetailsHelper.getAnonymousDetails();
             }
+            rewrittenSql = parseSql(invocation, sqlId, sql, userDetails);
         } catch (Exception e) {
             logger.error("Error parser sql.", e);
             return invocation.proceed();
@@ -81,7 +93,26 @@ public class SqlParserInterceptor implements Interceptor {
             currentInvocation.remove();
             currentBoundSql.remove();
         }
-        return SqlUtils.resetSql(invocation, boundSql, statement.toString()).proceed();
+        return SqlUtils.resetSql(invocation, boundSql, rewrittenSql).proceed();
+    }
+
+    private String parseSql(Invocation invocation, String sqlId, String sql, CustomUserDetails userDetails) throws JSQLParserException {
+        Statement statement;
+        try {
+            statement = CCJSqlParserUtil.parse(sql);
+        } catch (JSQLParserException e) {
+            if (sqlParserCache != null) {
+                // 无法解析的 SQL 不再重复解析
+                sqlParserCache.markUnparsable(sqlId, sql);
+            }
+            throw e;
+        }
+        for (SqlInterceptor sqlInterceptor : sqlInterceptors) {
+            sqlInterceptor.before();
+            statement = sqlInterceptor.handleStatement(statement, serviceName, sqlId, getArgs(invocation, statement), userDetails);
+            sqlInterceptor.after();
+        }
+        return statement.toString();
     }
 
     private void preparedGenerateKey(Invocation invocation) {
@@ -125,6 +156,10 @@ public class SqlParserInterceptor implements Interceptor {
         return Collections.emptyMap();
     }
 
+    public SqlParserCache getSqlParserCache() {
+        return sqlParserCache;
+    }
+
     public static Invocation getCurrentInvocation() {
         return currentInvocation.get();
     }
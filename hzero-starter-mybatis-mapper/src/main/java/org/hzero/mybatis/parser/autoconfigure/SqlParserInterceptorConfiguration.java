@@ -1,6 +1,7 @@
 package org.hzero.mybatis.parser.autoconfigure;
 
 import org.hzero.mybatis.parser.SqlInterceptor;
+import org.hzero.mybatis.parser.SqlParserCache;
 import org.hzero.mybatis.parser.SqlParserInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -17,12 +18,19 @@ import java.util.List;
 public class SqlParserInterceptorConfiguration {
     @Value("${spring.application.name:application}")
     private String serviceName;
+    /**
+     * 缓存无法解析的 SQL，避免每次执行都重复解析失败并打印异常；可以解析的 SQL 不缓存
+     */
+    @Value("${hzero.mybatis-mapper.sql-parser.cache.enable:true}")
+    private boolean cacheEnable;
+    @Value("${hzero.mybatis-mapper.sql-parser.cache.size:1024}")
+    private int cacheSize;
     private List<SqlInterceptor> sqlInterceptors;
 
     @Bean
     @ConditionalOnMissingBean
     public SqlParserInterceptor sqlParserInterceptor() {
-        return new SqlParserInterceptor(serviceName, sqlInterceptors);
+        return new SqlParserInterceptor(serviceName, sqlInterceptors, cacheEnable ? new SqlParserCache(cacheSize) : null);
     }
 
     @Autowired(required = false)
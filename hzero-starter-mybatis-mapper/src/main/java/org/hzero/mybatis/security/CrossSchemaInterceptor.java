@@ -1,10 +1,10 @@
 package org.hzero.mybatis.security;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Properties;
-import java.util.concurrent.atomic.AtomicReference;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import net.sf.jsqlparser.JSQLParserException;
 import net.sf.jsqlparser.parser.CCJSqlParserUtil;
@@ -19,27 +19,48 @@ import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.SqlSource;
 import org.apache.ibatis.plugin.*;
+import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
 import io.choerodon.core.convertor.ApplicationContextHelper;
+import io.choerodon.core.domain.PageInfo;
+import io.choerodon.mybatis.pagehelper.PageHelper;
+import io.choerodon.mybatis.pagehelper.domain.PageRequest;
+import io.choerodon.mybatis.pagehelper.domain.SeekPageInfo;
+import io.choerodon.mybatis.pagehelper.domain.Sort;
 
 import org.hzero.core.redis.RedisHelper;
 import org.hzero.mybatis.annotation.CrossSchema;
 import org.hzero.mybatis.helper.CrossSchemaHelper;
+import org.hzero.mybatis.parser.SqlParserInterceptor;
 import org.hzero.mybatis.util.SqlUtils;
 
 /**
  * <p>
  * 跨 Schema 查询多个租户的信息拦截器
  * </p>
+ * 默认将各个租户 Schema 的查询拼接为一个 UNION ALL 语句；指定并行线程池时，每个 Schema 的查询在线程池中使用独立的连接并行执行，
+ * 在应用中合并结果，排序的查询按照排序字段多路归并，分页查询每个 Schema 只查询前 end 行，合并后再截取当前页，count 查询结果求和
+ * <p>
+ * 归并按照 Java 的比较规则排序（字符串按照字符编码比较），与数据库的排序规则（collation）可能不一致；
+ * 排序字段无法在结果类型上取值时（如按照列名排序、结果类型为 Map）不能归并，使用 UNION ALL 查询
+ * <p>
+ * 并行执行时各个 Schema 的查询不在当前事务中，当前线程的用户信息以及数据加解密、安全令牌、SQL 解析的开关会复制到执行线程
  *
  * @author qingsheng.chen 2018/9/20 星期四 14:26
  */
@@ -53,46 +74,70 @@ public class CrossSchemaInterceptor implements Interceptor {
     private static final String PREFIX = "hpfm:database:";
     private static final int ARGS_LENGTH_FOUR = 4;
     public static final ThreadLocal<Boolean> CROSS_ENABLE = new ThreadLocal<>();
+    /**
+     * 并行执行线程中当前查询的 Schema
+     */
+    private static final ThreadLocal<String> CURRENT_SCHEMA = new ThreadLocal<>();
     private static String applicationName;
     private static RedisHelper redisHelper;
+    private final ExecutorService parallelExecutor;
 
     public CrossSchemaInterceptor() {
+        this(null);
+    }
+
+    /**
+     * @param parallelExecutor 并行查询各个 Schema 的线程池，为 null 时使用 UNION ALL 查询
+     */
+    public CrossSchemaInterceptor(ExecutorService parallelExecutor) {
+        this.parallelExecutor = parallelExecutor;
         ApplicationContextHelper.asyncStaticSetter(RedisHelper.class, CrossSchemaInterceptor.class, "redisHelper");
     }
 
     @Override
     public Object intercept(Invocation invocation) throws Throwable {
+        String currentSchema = CURRENT_SCHEMA.get();
+        if (currentSchema != null) {
+            // 并行执行线程中，分页拦截器生成分页 SQL 之后改写为当前 Schema
+            processSql(invocation, Collections.singletonList(currentSchema));
+            return invocation.proceed();
+        }
         if (BooleanUtils.isTrue(CROSS_ENABLE.get())) {
-            if (!SqlUtils.isCountSql(invocation)) {
+            boolean countSql = SqlUtils.isCountSql(invocation);
+            if (!countSql) {
                 CROSS_ENABLE.remove();
             }
             MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
-            CrossSchema crossSchema = CrossSchemaHelper.crossSchema(ms.getId());
+            CrossSchema crossSchema = CrossSchemaHelper.crossSchema(parallelExecutor != null && countSql ? getSourceId(ms.getId()) : ms.getId());
             if (crossSchema != null && invocation.getArgs()[1] instanceof MapperMethod.ParamMap) {
                 List<Long> tenantIds = getTenantIds(crossSchema, invocation);
                 if (!tenantIds.isEmpty()) {
-                    processSql(invocation, tenantIds);
+                    if (parallelExecutor != null && canParallel(invocation) && canMerge(ms, countSql)) {
+                        List<String> tenantSchema = getTenantSchema(tenantIds);
+                        if (!CollectionUtils.isEmpty(tenantSchema)) {
+                            return parallelQuery(invocation, tenantSchema, countSql);
+                        }
+                    } else {
+                        processSql(invocation, getTenantSchema(tenantIds));
+                    }
                 }
             }
         }
         return invocation.proceed();
     }
 
-    private void processSql(Invocation invocation, List<Long> tenantIds) {
+    private void processSql(Invocation invocation, List<String> tenantSchema) {
         BoundSql boundSql = getBoundSql(invocation);
         if (boundSql == null) {
             return;
         }
         List<String> tableNameList = getTableNameList(boundSql.getSql());
-        List<String> tenantSchema = getTenantSchema(tenantIds);
         List<ParameterMapping> parameterMappingList = new ArrayList<>();
         List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
         if (!CollectionUtils.isEmpty(tenantSchema) && !CollectionUtils.isEmpty(tableNameList)) {
             List<String> sqlList = new ArrayList<>();
             tenantSchema.forEach(schema -> {
-                AtomicReference<String> sql = new AtomicReference<>(boundSql.getSql());
-                tableNameList.forEach(tableName -> sql.set(sql.get().replace(tableName, schema + "." + tableName)));
-                sqlList.add(sql.get());
+                sqlList.add(getSchemaSql(boundSql.getSql(), tableNameList, schema));
                 parameterMappingList.addAll(parameterMappings);
             });
             SystemMetaObject.forObject(boundSql).setValue("sql", StringUtils.collectionToDelimitedString(sqlList, UNION_ALL));
@@ -101,6 +146,238 @@ public class CrossSchemaInterceptor implements Interceptor {
         }
     }
 
+    private String getSchemaSql(String sql, List<String> tableNameList, String schema) {
+        for (String tableName : tableNameList) {
+            sql = sql.replace(tableName, schema + "." + tableName);
+        }
+        return sql;
+    }
+
+    /**
+     * 自定义 ResultHandler 的查询无法合并结果，使用 UNION ALL 查询
+     */
+    private boolean canParallel(Invocation invocation) {
+        Object resultHandler = invocation.getArgs()[3];
+        return resultHandler == null || resultHandler == Executor.NO_RESULT_HANDLER;
+    }
+
+    /**
+     * 排序字段需要能够在结果类型上取值才能归并
+     */
+    private boolean canMerge(MappedStatement ms, boolean countSql) {
+        Sort sort = PageHelper.getLocalSort();
+        if (countSql || sort == null) {
+            return true;
+        }
+        List<ResultMap> resultMaps = ms.getResultMaps();
+        if (CollectionUtils.isEmpty(resultMaps)) {
+            return false;
+        }
+        Class<?> type = resultMaps.get(0).getType();
+        if (Map.class.isAssignableFrom(type)) {
+            return false;
+        }
+        MetaClass metaClass = MetaClass.forClass(type, ms.getConfiguration().getReflectorFactory());
+        for (Sort.Order order : sort) {
+            if (!metaClass.hasGetter(order.getProperty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String getSourceId(String countId) {
+        return countId.substring(0, countId.length() - SqlUtils.COUNT_SQL_SUFFIX.length());
+    }
+
+    /**
+     * 并行查询各个 Schema 并合并结果
+     */
+    private Object parallelQuery(Invocation invocation, List<String> tenantSchema, boolean countSql) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        Object parameter = invocation.getArgs()[1];
+        PageInfo pageInfo = PageHelper.getLocalPage();
+        Sort sort = PageHelper.getLocalSort();
+        boolean page = !countSql && pageInfo != null && pageInfo.getSize() > 0;
+        List<SchemaQuery> queries = new ArrayList<>(tenantSchema.size());
+        if (page) {
+            // 分页查询，由执行线程中的分页拦截器重新生成每个 Schema 的分页 SQL
+            for (String schema : tenantSchema) {
+                queries.add(new SchemaQuery(schema, ms, pageInfo, sort));
+            }
+        } else {
+            BoundSql boundSql = getBoundSql(invocation);
+            if (boundSql == null) {
+                return invocation.proceed();
+            }
+            List<String> tableNameList = getTableNameList(boundSql.getSql());
+            if (CollectionUtils.isEmpty(tableNameList)) {
+                return invocation.proceed();
+            }
+            for (String schema : tenantSchema) {
+                queries.add(new SchemaQuery(schema, copyFromMappedStatement(ms,
+                        new SimpleSqlSource(copyBoundSql(ms, boundSql, getSchemaSql(boundSql.getSql(), tableNameList, schema))))));
+            }
+        }
+        List<List<Object>> results = execute(ms.getConfiguration(), queries, parameter);
+        if (countSql) {
+            long count = 0;
+            for (List<Object> result : results) {
+                if (!result.isEmpty() && result.get(0) instanceof Number) {
+                    count += ((Number) result.get(0)).longValue();
+                }
+            }
+            List<Object> countResult = new ArrayList<>(1);
+            countResult.add(count);
+            return countResult;
+        }
+        if (page) {
+            List<Object> merged = merge(results, sort, pageInfo.getEnd());
+            return merged.size() <= pageInfo.getBegin() ? new ArrayList<>()
+                    : new ArrayList<>(merged.subList(pageInfo.getBegin(), Math.min(merged.size(), pageInfo.getEnd())));
+        }
+        return merge(results, sort, Integer.MAX_VALUE);
+    }
+
+    private List<List<Object>> execute(Configuration configuration, List<SchemaQuery> queries, Object parameter) throws Throwable {
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        Boolean securityToken = SecurityTokenInterceptor.SECURITY_ENABLE.get();
+        Boolean dataSecurity = DataSecurityInterceptor.SECURITY_ENABLE.get();
+        Boolean sqlParser = SqlParserInterceptor.sqlParserEnable.get();
+        List<Future<List<Object>>> futures = new ArrayList<>(queries.size());
+        for (SchemaQuery query : queries) {
+            futures.add(parallelExecutor.submit(() -> {
+                SecurityContextHolder.setContext(securityContext);
+                setOrRemove(SecurityTokenInterceptor.SECURITY_ENABLE, securityToken);
+                setOrRemove(DataSecurityInterceptor.SECURITY_ENABLE, dataSecurity);
+                setOrRemove(SqlParserInterceptor.sqlParserEnable, sqlParser);
+                try {
+                    return query.execute(configuration, parameter);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                    SecurityTokenInterceptor.SECURITY_ENABLE.remove();
+                    DataSecurityInterceptor.SECURITY_ENABLE.remove();
+                    SqlParserInterceptor.sqlParserEnable.remove();
+                }
+            }));
+        }
+        List<List<Object>> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<List<Object>> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return results;
+    }
+
+    private <T> void setOrRemove(ThreadLocal<T> threadLocal, T value) {
+        if (value == null) {
+            threadLocal.remove();
+        } else {
+            threadLocal.set(value);
+        }
+    }
+
+    /**
+     * 按照排序字段多路归并各个 Schema 的查询结果，没有排序时按照 Schema 的顺序拼接，排序字段的比较使用 Java 的比较规则
+     *
+     * @param results 各个 Schema 的查询结果，已经按照排序字段排序
+     * @param sort    排序
+     * @param limit   最多返回的行数
+     * @return 合并后的结果
+     */
+    private List<Object> merge(List<List<Object>> results, Sort sort, int limit) {
+        List<Object> merged = new ArrayList<>();
+        if (sort == null) {
+            for (List<Object> result : results) {
+                for (Object row : result) {
+                    if (merged.size() >= limit) {
+                        return merged;
+                    }
+                    merged.add(row);
+                }
+            }
+            return merged;
+        }
+        Comparator<Object> comparator = getComparator(sort);
+        PriorityQueue<MergeCursor> queue = new PriorityQueue<>(Math.max(results.size(), 1), (c1, c2) -> {
+            int result = comparator.compare(c1.current(), c2.current());
+            // 相同时保持 Schema 的顺序
+            return result != 0 ? result : Integer.compare(c1.index, c2.index);
+        });
+        for (int i = 0; i < results.size(); ++i) {
+            if (!results.get(i).isEmpty()) {
+                queue.add(new MergeCursor(i, results.get(i)));
+            }
+        }
+        while (!queue.isEmpty() && merged.size() < limit) {
+            MergeCursor cursor = queue.poll();
+            merged.add(cursor.current());
+            if (cursor.next()) {
+                queue.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private Comparator<Object> getComparator(Sort sort) {
+        Comparator<Object> comparator = (o1, o2) -> 0;
+        for (Sort.Order order : sort) {
+            comparator = comparator.thenComparing((o1, o2) -> compare(getValue(o1, order.getProperty()), getValue(o2, order.getProperty()), order));
+        }
+        return comparator;
+    }
+
+    private Object getValue(Object row, String property) {
+        if (row == null) {
+            return null;
+        }
+        MetaObject metaObject = SystemMetaObject.forObject(row);
+        return metaObject.hasGetter(property) ? metaObject.getValue(property) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(Object value1, Object value2, Sort.Order order) {
+        if (value1 == null || value2 == null) {
+            if (value1 == value2) {
+                return 0;
+            }
+            // 未指定时按照 MySQL 的规则，null 视为最小值
+            boolean nullsFirst = Sort.NullHandling.NULLS_FIRST.equals(order.getNullHandling())
+                    || (Sort.NullHandling.NATIVE.equals(order.getNullHandling()) && order.isAscending());
+            return (value1 == null) == nullsFirst ? -1 : 1;
+        }
+        int result;
+        if (order.isIgnoreCase() && value1 instanceof String && value2 instanceof String) {
+            result = ((String) value1).compareToIgnoreCase((String) value2);
+        } else if (value1 instanceof Number && value2 instanceof Number && !value1.getClass().equals(value2.getClass())) {
+            result = new BigDecimal(value1.toString()).compareTo(new BigDecimal(value2.toString()));
+        } else if (value1 instanceof Comparable && value1.getClass().isInstance(value2)) {
+            result = ((Comparable<Object>) value1).compareTo(value2);
+        } else {
+            result = String.valueOf(value1).compareTo(String.valueOf(value2));
+        }
+        return order.isAscending() ? result : -result;
+    }
+
+    private BoundSql copyBoundSql(MappedStatement ms, BoundSql boundSql, String sql) {
+        BoundSql newBoundSql = new BoundSql(ms.getConfiguration(), sql, boundSql.getParameterMappings(), boundSql.getParameterObject());
+        for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+            String property = parameterMapping.getProperty();
+            if (boundSql.hasAdditionalParameter(property)) {
+                newBoundSql.setAdditionalParameter(property, boundSql.getAdditionalParameter(property));
+            }
+        }
+        return newBoundSql;
+    }
+
     private List<Long> getTenantIds(CrossSchema crossSchema, Invocation invocation) {
         List<Long> tenantIds = new ArrayList<>();
         String paramName = crossSchema.value();
@@ -242,6 +519,88 @@ public class CrossSchemaInterceptor implements Interceptor {
         // no need properties
     }
 
+    /**
+     * 单个 Schema 的查询，在独立的连接上执行
+     */
+    private static class SchemaQuery {
+        private final String schema;
+        private final MappedStatement ms;
+        private final PageInfo pageInfo;
+        private final Sort sort;
+
+        /**
+         * @param schema schema
+         * @param ms     已经改写为当前 Schema 的 MappedStatement
+         */
+        private SchemaQuery(String schema, MappedStatement ms) {
+            this(schema, ms, null, null);
+        }
+
+        /**
+         * @param schema   schema
+         * @param ms       原始的 MappedStatement
+         * @param pageInfo 当前分页，每个 Schema 查询 [0, end) 行
+         * @param sort     排序
+         */
+        private SchemaQuery(String schema, MappedStatement ms, PageInfo pageInfo, Sort sort) {
+            this.schema = schema;
+            this.ms = ms;
+            this.pageInfo = pageInfo;
+            this.sort = sort;
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<Object> execute(Configuration configuration, Object parameter) throws Exception {
+            Transaction transaction = configuration.getEnvironment().getTransactionFactory()
+                    .newTransaction(configuration.getEnvironment().getDataSource(), null, false);
+            Executor executor = configuration.newExecutor(transaction, ExecutorType.SIMPLE);
+            try {
+                if (pageInfo != null) {
+                    startPage();
+                    CURRENT_SCHEMA.set(schema);
+                }
+                return new ArrayList<>((List<Object>) executor.query(ms, parameter, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER));
+            } finally {
+                CURRENT_SCHEMA.remove();
+                PageHelper.clearPage();
+                PageHelper.clearSort();
+                executor.close(false);
+            }
+        }
+
+        private void startPage() {
+            if (pageInfo instanceof SeekPageInfo) {
+                PageRequest pageRequest = new PageRequest(pageInfo.getPage(), pageInfo.getSize(), sort);
+                pageRequest.setSeek(((SeekPageInfo) pageInfo).getSeekValues());
+                PageHelper.startSeek(pageRequest, false);
+            } else {
+                PageHelper.startPage(0, pageInfo.getEnd(), false);
+                if (sort != null) {
+                    PageHelper.startSort(sort);
+                }
+            }
+        }
+    }
+
+    private static class MergeCursor {
+        private final int index;
+        private final List<Object> rows;
+        private int position;
+
+        private MergeCursor(int index, List<Object> rows) {
+            this.index = index;
+            this.rows = rows;
+        }
+
+        private Object current() {
+            return rows.get(position);
+        }
+
+        private boolean next() {
+            return ++position < rows.size();
+        }
+    }
+
     private static class SimpleSqlSource implements SqlSource {
         private BoundSql boundSql;
 
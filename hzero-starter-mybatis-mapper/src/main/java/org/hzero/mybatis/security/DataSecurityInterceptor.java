@@ -4,7 +4,6 @@ import io.choerodon.core.convertor.ApplicationContextHelper;
 import io.choerodon.mybatis.domain.EntityColumn;
 import io.choerodon.mybatis.helper.EntityHelper;
 import org.apache.commons.lang3.BooleanUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.mapping.BoundSql;
@@ -23,10 +22,16 @@ import org.slf4j.LoggerFactory;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>
@@ -43,6 +48,12 @@ import java.util.stream.Collectors;
 public class DataSecurityInterceptor implements Interceptor {
     private static final Logger logger = LoggerFactory.getLogger(DataSecurityInterceptor.class);
     public static final ThreadLocal<Boolean> SECURITY_ENABLE = new ThreadLocal<>();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    /**
+     * 实体的加解密计划，每个实体类只解析一次
+     */
+    private static final Map<Class<?>, SecurityPlan> SECURITY_PLANS = new ConcurrentHashMap<>();
 
     /**
      * 是否默认打开数据加解密，默认关闭，设置为 true 之后，不需要调用 {@link DataSecurityHelper#open()} 即可自动打开，<strong>但是相应的，如果需要禁用数据加解密，则需要显式调用 {@link DataSecurityHelper#close()} ()} </strong>
@@ -95,55 +106,48 @@ public class DataSecurityInterceptor implements Interceptor {
     }
 
     private void process(Object result, boolean encrypt) {
-        Set<String> dataSecurityFieldSet;
+        if (result == null) {
+            return;
+        }
         if (result instanceof Collection) {
-            Collection collection = (Collection) result;
-            if (!collection.iterator().hasNext()) {
+            Collection<?> collection = (Collection<?>) result;
+            if (collection.isEmpty()) {
                 return;
             }
-            Object entity = collection.iterator().next();
-            if (entity == null) {
-                return;
-            }
-            if (EntityHelper.contain(entity.getClass())) {
-                dataSecurityFieldSet = EntityHelper.getTableByEntity(entity.getClass()).getDataSecurityColumns().stream().map(EntityColumn::getProperty).collect(Collectors.toSet());
-            } else {
-                dataSecurityFieldSet = DataSecurityHelper.getDataSecurityColumns(entity.getClass()).stream().map(EntityColumn::getProperty).collect(Collectors.toSet());
-            }
-            if (!CollectionUtils.isEmpty(dataSecurityFieldSet)) {
-                for (Object object : collection) {
-                    process(object, dataSecurityFieldSet, encrypt);
+            // 一次处理中密钥只读取一次，同类型的行复用同一个计划
+            String securityKey = null;
+            Class<?> lastClass = null;
+            SecurityPlan plan = null;
+            for (Object object : collection) {
+                if (object == null) {
+                    continue;
                 }
+                if (object.getClass() != lastClass) {
+                    lastClass = object.getClass();
+                    plan = getSecurityPlan(lastClass);
+                }
+                if (plan.isEmpty()) {
+                    continue;
+                }
+                if (securityKey == null) {
+                    securityKey = getSecurityKey();
+                }
+                plan.process(object, securityKey, encrypt);
             }
         } else {
-            if (result == null) {
-                return;
-            }
-            Class<?> entityClass = result.getClass();
-            if (EntityHelper.contain(entityClass)) {
-                dataSecurityFieldSet = EntityHelper.getTableByEntity(entityClass).getDataSecurityColumns().stream().map(EntityColumn::getProperty).collect(Collectors.toSet());
-            } else {
-                dataSecurityFieldSet = DataSecurityHelper.getDataSecurityColumns(entityClass).stream().map(EntityColumn::getProperty).collect(Collectors.toSet());
-            }
-            if (!CollectionUtils.isEmpty(dataSecurityFieldSet)) {
-                process(result, dataSecurityFieldSet, encrypt);
+            SecurityPlan plan = getSecurityPlan(result.getClass());
+            if (!plan.isEmpty()) {
+                plan.process(result, getSecurityKey(), encrypt);
             }
         }
     }
 
-    private void process(Object result, Set<String> fieldSet, boolean encrypt) {
-        if (!CollectionUtils.isEmpty(fieldSet)) {
-            for (String fieldName : fieldSet) {
-                try {
-                    String value = encrypt ? encrypt(valueOfString(FieldUtils.readField(result, fieldName, true)))
-                            : decrypt(valueOfString(FieldUtils.readField(result, fieldName, true)));
-                    FieldUtils.writeField(result, fieldName, value, true);
-                } catch (Exception e) {
-                    logger.error("Unable to process recode [encrypt({}), fieldName({}), result({})]", encrypt, fieldName, result);
-                    e.printStackTrace();
-                }
-            }
+    private static SecurityPlan getSecurityPlan(Class<?> entityClass) {
+        SecurityPlan plan = SECURITY_PLANS.get(entityClass);
+        if (plan == null) {
+            plan = SECURITY_PLANS.computeIfAbsent(entityClass, SecurityPlan::new);
         }
+        return plan;
     }
 
     public static String valueOfString(Object value) {
@@ -157,14 +161,28 @@ public class DataSecurityInterceptor implements Interceptor {
         if (!StringUtils.hasText(value)) {
             return value;
         }
-        return EncryptionUtils.AES.encrypt(value, getSecurityKey());
+        return encrypt(value, getSecurityKey());
+    }
+
+    private static String encrypt(String value, String securityKey) {
+        if (!StringUtils.hasText(value)) {
+            return value;
+        }
+        return EncryptionUtils.AES.encrypt(value, securityKey);
     }
 
     public static String decrypt(String value) {
         if (!StringUtils.hasText(value)) {
             return value;
         }
-        return EncryptionUtils.AES.decrypt(value, getSecurityKey());
+        return decrypt(value, getSecurityKey());
+    }
+
+    private static String decrypt(String value, String securityKey) {
+        if (!StringUtils.hasText(value)) {
+            return value;
+        }
+        return EncryptionUtils.AES.decrypt(value, securityKey);
     }
 
     private static String getSecurityKey() {
@@ -198,4 +216,75 @@ public class DataSecurityInterceptor implements Interceptor {
     public void setProperties(Properties properties) {
         // no need properties
     }
+
+    /**
+     * 实体的加解密计划，包含需要加解密的字段及其读写方法
+     */
+    private static final class SecurityPlan {
+        private final String[] fieldNames;
+        private final MethodHandle[] getters;
+        private final MethodHandle[] setters;
+
+        private SecurityPlan(Class<?> entityClass) {
+            List<String> names = new ArrayList<>();
+            List<MethodHandle> getterList = new ArrayList<>();
+            List<MethodHandle> setterList = new ArrayList<>();
+            for (EntityColumn column : getDataSecurityColumns(entityClass)) {
+                Field field = findField(entityClass, column.getProperty());
+                if (field == null) {
+                    logger.error("Unable to find data security field [entity({}), fieldName({})]", entityClass.getName(), column.getProperty());
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    getterList.add(MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE));
+                    setterList.add(MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE));
+                    names.add(field.getName());
+                } catch (IllegalAccessException | RuntimeException e) {
+                    logger.error("Unable to access data security field [entity({}), fieldName({})]", entityClass.getName(), field.getName(), e);
+                }
+            }
+            this.fieldNames = names.toArray(new String[0]);
+            this.getters = getterList.toArray(new MethodHandle[0]);
+            this.setters = setterList.toArray(new MethodHandle[0]);
+        }
+
+        private static Collection<EntityColumn> getDataSecurityColumns(Class<?> entityClass) {
+            Collection<EntityColumn> columns = EntityHelper.contain(entityClass)
+                    ? EntityHelper.getTableByEntity(entityClass).getDataSecurityColumns()
+                    : DataSecurityHelper.getDataSecurityColumns(entityClass);
+            return CollectionUtils.isEmpty(columns) ? new ArrayList<>() : columns;
+        }
+
+        private static Field findField(Class<?> entityClass, String fieldName) {
+            if (fieldName == null) {
+                return null;
+            }
+            for (Class<?> current = entityClass; current != null && current != Object.class; current = current.getSuperclass()) {
+                try {
+                    return current.getDeclaredField(fieldName);
+                } catch (NoSuchFieldException e) {
+                    // 继续查找父类
+                }
+            }
+            return null;
+        }
+
+        private boolean isEmpty() {
+            return fieldNames.length == 0;
+        }
+
+        private void process(Object result, String securityKey, boolean encrypt) {
+            for (int i = 0; i < fieldNames.length; i++) {
+                try {
+                    String value = valueOfString(getters[i].invokeExact(result));
+                    setters[i].invokeExact(result, (Object) (encrypt ? encrypt(value, securityKey) : decrypt(value, securityKey)));
+                } catch (Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    logger.error("Unable to process recode [encrypt({}), fieldName({}), result({})]", encrypt, fieldNames[i], result, e);
+                }
+            }
+        }
+    }
 }
@@ -22,11 +22,14 @@ import org.springframework.data.redis.connection.RedisClusterConfiguration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisSentinelConfiguration;
 import org.springframework.data.redis.core.*;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import org.hzero.core.cache.CacheProperties;
 import org.hzero.core.cache.CacheValueAspect;
 import org.hzero.core.message.MessageAccessor;
+import org.hzero.core.message.MessageLocalCache;
 import org.hzero.core.message.RedisMessageSource;
 import org.hzero.core.redis.*;
 import org.hzero.core.redis.config.DynamicRedisTemplateFactory;
@@ -160,16 +163,39 @@ public class HZeroRedisAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean(RedisMessageSource.class)
-    public MessageSource messageSource(RedisHelper redisHelper) {
+    public MessageSource messageSource(RedisHelper redisHelper, HZeroRedisProperties redisProperties) {
         ReloadableResourceBundleMessageSource parentMessageSource = new ReloadableResourceBundleMessageSource();
         parentMessageSource.setBasenames(MessageAccessor.getBasenames());
         parentMessageSource.setDefaultEncoding(Charsets.UTF_8.displayName());
 
         RedisMessageSource messageSource = new RedisMessageSource(redisHelper);
         messageSource.setParentMessageSource(parentMessageSource);
+        HZeroRedisProperties.MessageCache messageCache = redisProperties.getMessageCache();
+        if (messageCache.isEnable()) {
+            messageSource.setLocalCache(new MessageLocalCache(messageCache.getMaxSize(), messageCache.getExpireSeconds()));
+        }
         return messageSource;
     }
 
+    /**
+     * 订阅消息变更，失效消息本地缓存
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = HZeroRedisProperties.PREFIX, name = "message-cache.enable", havingValue = "true")
+    public RedisMessageListenerContainer messageCacheListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                       ObjectProvider<RedisMessageSource> messageSources) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        messageSources.ifAvailable(messageSource -> {
+            if (messageSource.getLocalCache() != null) {
+                MessageLocalCache localCache = messageSource.getLocalCache();
+                container.addMessageListener((message, pattern) -> localCache.evict(new String(message.getBody(), Charsets.UTF_8)),
+                        new ChannelTopic(RedisMessageSource.INVALIDATE_CHANNEL));
+            }
+        });
+        return container;
+    }
+
     @Bean
     @ConditionalOnProperty(prefix = CacheProperties.PREFIX, name = "enable", havingValue = "true")
     public CacheValueAspect cacheValueAspect(RedisHelper redisHelper, Environment environment) {
@@ -2,10 +2,9 @@ package org.hzero.core.cache;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.ArrayUtils;
@@ -17,6 +16,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.Assert;
 
@@ -30,6 +32,8 @@ import org.hzero.core.util.Reflections;
 
 /**
  * ProcessCacheValue 切面
+ * <p>
+ * 先遍历整个返回结果收集需要查询的缓存，再按照 redis db 分组，每个 db 使用一次 pipeline 批量查询(GET/HMGET/LRANGE)，最后回写到对象中
  *
  * @author bojiangzhou 2018/08/16
  * @see CacheValue
@@ -41,6 +45,10 @@ public class CacheValueAspect {
 
     private final RedisHelper redisHelper;
     private final Environment environment;
+    /**
+     * 类的 CacheValue 字段信息
+     */
+    private final Map<Class<?>, ClassMeta> classMetaCache = new ConcurrentHashMap<>();
 
     public CacheValueAspect(RedisHelper redisHelper, Environment environment) {
         Assert.notNull(redisHelper, "redisHelper not be null.");
@@ -65,53 +73,210 @@ public class CacheValueAspect {
         if (result == null) {
             return null;
         }
-        if (result instanceof ResponseEntity) {
-            Object body = ((ResponseEntity<?>) result).getBody();
-            if (body == null) {
-                return result;
+        Object target = result instanceof ResponseEntity ? ((ResponseEntity<?>) result).getBody() : result;
+        if (target == null) {
+            return result;
+        }
+        Map<Integer, List<CacheValueRequest>> requests = new LinkedHashMap<>();
+        collect(target, requests, Collections.newSetFromMap(new IdentityHashMap<>()), new PlaceholderContext());
+        for (Map.Entry<Integer, List<CacheValueRequest>> entry : requests.entrySet()) {
+            process(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * 遍历对象，收集需要查询的缓存
+     */
+    private void collect(Object obj, Map<Integer, List<CacheValueRequest>> requests, Set<Object> visited, PlaceholderContext context) throws IllegalAccessException {
+        if (obj instanceof Collection) {
+            for (Object item : (Collection<?>) obj) {
+                collect(item, requests, visited, context);
+            }
+            return;
+        }
+        if (!(obj instanceof Cacheable) || !visited.add(obj)) {
+            return;
+        }
+        ClassMeta classMeta = classMetaCache.computeIfAbsent(obj.getClass(), this::buildClassMeta);
+        for (CacheValueMeta meta : classMeta.cacheValueFields) {
+            requests.computeIfAbsent(meta.db, db -> new ArrayList<>()).add(new CacheValueRequest(obj, meta, meta.getKey(obj, context), meta.getPrimaryValue(obj)));
+        }
+        for (Field field : classMeta.nestedFields) {
+            Object fieldValue = field.get(obj);
+            if (fieldValue != null) {
+                collect(fieldValue, requests, visited, context);
+            }
+        }
+    }
+
+    /**
+     * 批量查询同一个 db 的缓存并回写
+     */
+    private void process(int db, List<CacheValueRequest> requests) throws IllegalAccessException, IOException {
+        // 去重后的查询，保持插入顺序与 pipeline 结果对应
+        Set<String> strKeys = new LinkedHashSet<>();
+        Map<String, Set<String>> hashKeys = new LinkedHashMap<>();
+        Set<String> listKeys = new LinkedHashSet<>();
+        for (CacheValueRequest request : requests) {
+            logger.debug("process cache value, key is [{}], primaryValue is [{}], db is [{}]", request.key, request.primaryValue, db);
+            switch (request.meta.cacheValue.structure()) {
+                case VALUE:
+                case OBJECT:
+                    strKeys.add(request.key);
+                    break;
+                case MAP_VALUE:
+                case MAP_OBJECT:
+                    hashKeys.computeIfAbsent(request.key, key -> new LinkedHashSet<>()).add(request.primaryValue);
+                    break;
+                case LIST_OBJECT:
+                    listKeys.add(request.key);
+                    break;
+                default:
             }
-            if (body instanceof Collection) {
-                for (Object obj : (Collection<?>) body) {
-                    processObject(obj);
+        }
+
+        if (db > BaseConstants.NEGATIVE_ONE) {
+            redisHelper.setCurrentDatabase(db);
+        }
+        List<Object> results;
+        try {
+            RedisTemplate<String, String> redisTemplate = redisHelper.getRedisTemplate();
+            RedisSerializer<String> serializer = redisTemplate.getStringSerializer();
+            results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String key : strKeys) {
+                    connection.get(serializer.serialize(key));
+                }
+                for (Map.Entry<String, Set<String>> entry : hashKeys.entrySet()) {
+                    byte[][] fields = new byte[entry.getValue().size()][];
+                    int i = 0;
+                    for (String field : entry.getValue()) {
+                        fields[i++] = serializer.serialize(field);
+                    }
+                    connection.hMGet(serializer.serialize(entry.getKey()), fields);
+                }
+                for (String key : listKeys) {
+                    connection.lRange(serializer.serialize(key), 0, -1);
                 }
-            } else {
-                processObject(body);
+                return null;
+            });
+        } finally {
+            if (db > BaseConstants.NEGATIVE_ONE) {
+                redisHelper.clearCurrentDatabase();
+            }
+        }
+
+        // 按照 pipeline 的顺序取出结果
+        Iterator<Object> iterator = results.iterator();
+        Map<String, String> strValues = new HashMap<>(strKeys.size());
+        for (String key : strKeys) {
+            strValues.put(key, (String) iterator.next());
+        }
+        Map<String, Map<String, String>> hashValues = new HashMap<>(hashKeys.size());
+        for (Map.Entry<String, Set<String>> entry : hashKeys.entrySet()) {
+            List<?> values = (List<?>) iterator.next();
+            Map<String, String> fieldValues = new HashMap<>(entry.getValue().size());
+            int i = 0;
+            for (String field : entry.getValue()) {
+                fieldValues.put(field, values == null ? null : (String) values.get(i++));
             }
-        } else if (result instanceof Collection) {
-            for (Object obj : (Collection<?>) result) {
-                processObject(obj);
+            hashValues.put(entry.getKey(), fieldValues);
+        }
+        Map<String, List<?>> listValues = new HashMap<>(listKeys.size());
+        for (String key : listKeys) {
+            listValues.put(key, (List<?>) iterator.next());
+        }
+
+        // JSON 只解析一次
+        Map<String, Map<String, String>> objectCache = new HashMap<>();
+        Map<String, List<Map<String, String>>> listCache = new HashMap<>();
+        for (CacheValueRequest request : requests) {
+            CacheValue cacheValue = request.meta.cacheValue;
+            String searchValue = null;
+            Map<String, String> map;
+            switch (cacheValue.structure()) {
+                case VALUE:
+                    searchValue = strValues.get(request.key);
+                    break;
+                case OBJECT:
+                    map = readObject(objectCache, request.key, strValues.get(request.key));
+                    searchValue = map == null ? null : map.get(cacheValue.searchKey());
+                    break;
+                case MAP_VALUE:
+                    searchValue = hashValues.get(request.key).get(request.primaryValue);
+                    break;
+                case MAP_OBJECT:
+                    map = readObject(objectCache, request.key + ":" + request.primaryValue, hashValues.get(request.key).get(request.primaryValue));
+                    searchValue = map == null ? null : map.get(cacheValue.searchKey());
+                    break;
+                case LIST_OBJECT:
+                    String mapKey = StringUtils.defaultIfBlank(cacheValue.primaryKeyAlias(), cacheValue.primaryKey());
+                    for (Map<String, String> item : readList(listCache, request.key, listValues.get(request.key))) {
+                        if (StringUtils.equals(item.get(mapKey), request.primaryValue)) {
+                            searchValue = item.get(cacheValue.searchKey());
+                            break;
+                        }
+                    }
+                    break;
+                default:
             }
-        } else {
-            processObject(result);
+            request.meta.field.set(request.target, searchValue);
         }
+    }
 
-        return result;
+    @SuppressWarnings("unchecked")
+    private Map<String, String> readObject(Map<String, Map<String, String>> objectCache, String cacheKey, String json) throws IOException {
+        if (StringUtils.isBlank(json)) {
+            return null;
+        }
+        Map<String, String> map = objectCache.get(cacheKey);
+        if (map == null) {
+            map = mapper.readValue(json, HashMap.class);
+            objectCache.put(cacheKey, map);
+        }
+        return map;
     }
 
-    private void processObject(Object obj) throws IllegalAccessException, IOException {
-        if (!(obj instanceof Cacheable)) { return; }
-        Field[] fields = Reflections.getAllField(obj.getClass());
-        for (Field field : fields) {
-            if (field.isAnnotationPresent(CacheValue.class)) {
-                processObjectCacheValue(obj, fields, field, field.getAnnotation(CacheValue.class));
+    @SuppressWarnings("unchecked")
+    private List<Map<String, String>> readList(Map<String, List<Map<String, String>>> listCache, String key, List<?> values) throws IOException {
+        List<Map<String, String>> list = listCache.get(key);
+        if (list == null) {
+            list = new ArrayList<>(values == null ? 0 : values.size());
+            if (values != null) {
+                for (Object value : values) {
+                    list.add(mapper.readValue((String) value, HashMap.class));
+                }
             }
+            listCache.put(key, list);
+        }
+        return list;
+    }
+
+    private ClassMeta buildClassMeta(Class<?> clazz) {
+        Field[] fields = Reflections.getAllField(clazz);
+        List<CacheValueMeta> cacheValueFields = new ArrayList<>();
+        List<Field> nestedFields = new ArrayList<>();
+        for (Field field : fields) {
             Reflections.makeAccessible(field);
-            Object fieldValue = field.get(obj);
-            if (fieldValue == null) {
-                continue;
+            if (field.isAnnotationPresent(CacheValue.class)) {
+                cacheValueFields.add(buildCacheValueMeta(field, fields, field.getAnnotation(CacheValue.class)));
             }
-            if (fieldValue instanceof Collection) {
-                for (Object fv : (Collection<?>) fieldValue) {
-                    processObject(fv);
-                }
-            } else {
-                processObject(fieldValue);
+            if (mayContainCacheable(field.getType())) {
+                nestedFields.add(field);
             }
         }
+        return new ClassMeta(cacheValueFields, nestedFields);
     }
 
-    @SuppressWarnings("unchecked")
-    private void processObjectCacheValue(Object target, Field[] targetFields, Field cacheValueField, CacheValue cacheValue) throws IllegalAccessException, IOException {
+    /**
+     * 基本类型以及 String、Long 等 final 类不可能包含 Cacheable 对象
+     */
+    private boolean mayContainCacheable(Class<?> type) {
+        return !type.isPrimitive()
+                && (!Modifier.isFinal(type.getModifiers()) || Cacheable.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type));
+    }
+
+    private CacheValueMeta buildCacheValueMeta(Field cacheValueField, Field[] targetFields, CacheValue cacheValue) {
         int db = cacheValue.db();
         if (StringUtils.isNotBlank(cacheValue.dbAlias())) {
             try {
@@ -122,8 +287,6 @@ public class CacheValueAspect {
             }
         }
 
-        String key = replacePlaceholder(cacheValue.key(), target, targetFields);
-
         Field primaryField = null;
         for (Field targetField : targetFields) {
             if (StringUtils.equals(cacheValue.primaryKey(), targetField.getName())) {
@@ -131,121 +294,132 @@ public class CacheValueAspect {
                 break;
             }
         }
-        String primaryValue = null;
-        if (primaryField != null) {
-            Reflections.makeAccessible(primaryField);
-            primaryValue = String.valueOf(primaryField.get(target));
-        }
-        primaryValue = StringUtils.defaultIfBlank(primaryValue, "null");
-
-        // 对象中查找的属性
-        String searchKey = cacheValue.searchKey();
-
-        logger.debug("process cache value, key is [{}], primaryValue is [{}], db is [{}]", key, primaryValue, db);
 
-        String searchValue = null;
-        String json = null;
-        Map<String, String> map = null;
-        if (db > BaseConstants.NEGATIVE_ONE) {
-            redisHelper.setCurrentDatabase(db);
-        }
-        switch (cacheValue.structure()) {
-            case VALUE:
-                searchValue = redisHelper.strGet(key);
-                break;
-            case OBJECT:
-                json = redisHelper.strGet(key);
-                if (StringUtils.isNotBlank(json)) {
-                    map = mapper.readValue(json, HashMap.class);
-                    searchValue = map.get(searchKey);
-                }
-                break;
-            case MAP_VALUE:
-                searchValue = redisHelper.hshGet(key, primaryValue);
-                break;
-            case MAP_OBJECT:
-                json = redisHelper.hshGet(key, primaryValue);
-                if (StringUtils.isNotBlank(json)) {
-                    map = mapper.readValue(json, HashMap.class);
-                    searchValue = map.get(searchKey);
-                }
-                break;
-            case LIST_OBJECT:
-                List<String> list = redisHelper.lstAll(key);
-                for (String obj : list) {
-                    map = mapper.readValue(obj, HashMap.class);
-                    String mapKey = StringUtils.defaultIfBlank(cacheValue.primaryKeyAlias(), cacheValue.primaryKey());
-                    if (StringUtils.equals(map.get(mapKey), primaryValue)) {
-                        searchValue = map.get(searchKey);
+        String[] placeholders = StringUtils.substringsBetween(cacheValue.key(), "{", "}");
+        Map<String, Field> placeholderFields = new LinkedHashMap<>();
+        if (ArrayUtils.isNotEmpty(placeholders)) {
+            for (String placeholder : placeholders) {
+                for (Field targetField : targetFields) {
+                    if (StringUtils.equals(placeholder, targetField.getName())) {
+                        Reflections.makeAccessible(targetField);
+                        placeholderFields.put(placeholder, targetField);
                         break;
                     }
                 }
-                break;
-            default:
+            }
         }
-        if (db > BaseConstants.NEGATIVE_ONE) {
-            redisHelper.clearCurrentDatabase();
+        if (primaryField != null) {
+            Reflections.makeAccessible(primaryField);
         }
-        Reflections.makeAccessible(cacheValueField);
-        cacheValueField.set(target, searchValue);
+        return new CacheValueMeta(cacheValueField, cacheValue, db, primaryField, placeholderFields);
     }
 
-    private String replacePlaceholder(String key, Object target, Field[] targetFields) throws IllegalAccessException {
-        String[] placeholders = StringUtils.substringsBetween(key, "{", "}");
-        if (ArrayUtils.isEmpty(placeholders)) {
-            return key;
+    /**
+     * 类的 CacheValue 字段以及可能包含 Cacheable 对象的字段
+     */
+    private static class ClassMeta {
+        private final List<CacheValueMeta> cacheValueFields;
+        private final List<Field> nestedFields;
+
+        private ClassMeta(List<CacheValueMeta> cacheValueFields, List<Field> nestedFields) {
+            this.cacheValueFields = cacheValueFields;
+            this.nestedFields = nestedFields;
         }
+    }
 
-        Map<String, String> values = new HashMap<>(placeholders.length);
-        for (Field targetField : targetFields) {
-            for (String placeholder : placeholders) {
-                if (StringUtils.equals(placeholder, targetField.getName())) {
-                    Reflections.makeAccessible(targetField);
-                    values.put(placeholder, String.valueOf(targetField.get(target)));
-                    break;
-                }
-            }
+    /**
+     * CacheValue 字段信息
+     */
+    private static class CacheValueMeta {
+        private final Field field;
+        private final CacheValue cacheValue;
+        private final int db;
+        private final Field primaryField;
+        private final Map<String, Field> placeholderFields;
+
+        private CacheValueMeta(Field field, CacheValue cacheValue, int db, Field primaryField, Map<String, Field> placeholderFields) {
+            this.field = field;
+            this.cacheValue = cacheValue;
+            this.db = db;
+            this.primaryField = primaryField;
+            this.placeholderFields = placeholderFields;
         }
 
-        for (String placeholder : placeholders) {
-            if (values.containsKey(placeholder)) {
-                key = StringUtils.replace(key, "{" + placeholder + "}", StringUtils.defaultIfBlank(values.get(placeholder), "null"));
+        private String getPrimaryValue(Object target) throws IllegalAccessException {
+            String primaryValue = null;
+            if (primaryField != null) {
+                primaryValue = String.valueOf(primaryField.get(target));
             }
+            return StringUtils.defaultIfBlank(primaryValue, "null");
         }
 
-        if (key.contains(PLACEHOLDER_LANG)) {
-            String lang;
-            CustomUserDetails details = DetailsHelper.getUserDetails();
-            if (details != null) {
-                lang = details.getLanguage();
-            } else {
-                lang = LanguageHelper.language();
+        private String getKey(Object target, PlaceholderContext context) throws IllegalAccessException {
+            String key = cacheValue.key();
+            for (Map.Entry<String, Field> entry : placeholderFields.entrySet()) {
+                key = StringUtils.replace(key, "{" + entry.getKey() + "}",
+                        StringUtils.defaultIfBlank(String.valueOf(entry.getValue().get(target)), "null"));
+            }
+            if (key.contains(PLACEHOLDER_LANG)) {
+                key = StringUtils.replace(key, PLACEHOLDER_LANG, context.getLang());
             }
-            key = StringUtils.replace(key, PLACEHOLDER_LANG, String.valueOf(lang));
+            if (key.contains(PLACEHOLDER_USER_ID)) {
+                key = StringUtils.replace(key, PLACEHOLDER_USER_ID, context.getUserId());
+            }
+            if (key.contains(PLACEHOLDER_TENANT_ID)) {
+                key = StringUtils.replace(key, PLACEHOLDER_TENANT_ID, context.getTenantId());
+            }
+            return key;
         }
-        if (key.contains(PLACEHOLDER_USER_ID)) {
-            Object userId;
-            CustomUserDetails details = DetailsHelper.getUserDetails();
-            if (details != null) {
-                userId = details.getUserId();
-            } else {
-                userId = "null";
+    }
+
+    /**
+     * 当前用户的语言、用户ID、租户ID，一次处理中只获取一次
+     */
+    private static class PlaceholderContext {
+        private String lang;
+        private String userId;
+        private String tenantId;
+
+        private String getLang() {
+            if (lang == null) {
+                CustomUserDetails details = DetailsHelper.getUserDetails();
+                lang = String.valueOf(details != null ? details.getLanguage() : LanguageHelper.language());
             }
-            key = StringUtils.replace(key, PLACEHOLDER_USER_ID, String.valueOf(userId));
+            return lang;
         }
-        if (key.contains(PLACEHOLDER_TENANT_ID)) {
-            Object tenantId;
-            CustomUserDetails details = DetailsHelper.getUserDetails();
-            if (details != null) {
-                tenantId = details.getOrganizationId().toString();
-            } else {
-                tenantId = BaseConstants.DEFAULT_TENANT_ID.toString();
+
+        private String getUserId() {
+            if (userId == null) {
+                CustomUserDetails details = DetailsHelper.getUserDetails();
+                userId = details != null ? String.valueOf(details.getUserId()) : "null";
             }
-            key = StringUtils.replace(key, PLACEHOLDER_TENANT_ID, String.valueOf(tenantId));
+            return userId;
         }
 
-        return key;
+        private String getTenantId() {
+            if (tenantId == null) {
+                CustomUserDetails details = DetailsHelper.getUserDetails();
+                tenantId = details != null ? details.getOrganizationId().toString() : BaseConstants.DEFAULT_TENANT_ID.toString();
+            }
+            return tenantId;
+        }
     }
 
+    /**
+     * 单个 CacheValue 字段的查询
+     */
+    private static class CacheValueRequest {
+        private final Object target;
+        private final CacheValueMeta meta;
+        private final String key;
+        private final String primaryValue;
+
+        private CacheValueRequest(Object target, CacheValueMeta meta, String key, String primaryValue) {
+            this.target = target;
+            this.meta = meta;
+            this.primaryValue = primaryValue;
+            this.key = key;
+        }
+    }
 
 }
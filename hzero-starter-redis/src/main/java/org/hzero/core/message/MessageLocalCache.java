@@ -0,0 +1,235 @@
+package org.hzero.core.message;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * 消息本地缓存，按照 语言 + 消息编码 缓存 Redis 中的消息，Redis 中不存在的消息同样缓存，避免每次查询都访问 Redis
+ * <p>
+ * 缓存有数量上限和过期时间，超出上限时按近似 LRU(CLOCK) 淘汰最近未访问的消息，读取不加锁；
+ * 消息变更方调用 {@link RedisMessageSource#notifyMessageChanged(String, String)} 时通过 Redis 发布订阅通知各个节点失效本地缓存，
+ * 未通知的变更在过期时间后生效
+ *
+ * @author agent 2026/10/18
+ */
+public class MessageLocalCache {
+
+    /**
+     * 失效消息中表示全部语言或全部消息的通配符
+     */
+    public static final String ALL = "*";
+    private static final String SEPARATOR = ":";
+
+    private final int maxSize;
+    private final long expireMillis;
+    private final ConcurrentMap<CacheKey, Entry> cache = new ConcurrentHashMap<>();
+    private final Queue<Entry> evictionQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger evictionQueueSize = new AtomicInteger();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    /**
+     * @param maxSize       最大缓存数量
+     * @param expireSeconds 过期时间，单位秒，小于等于 0 时不过期
+     */
+    public MessageLocalCache(int maxSize, long expireSeconds) {
+        this.maxSize = maxSize;
+        this.expireMillis = expireSeconds > 0 ? expireSeconds * 1000 : Long.MAX_VALUE;
+    }
+
+    /**
+     * 获取缓存
+     *
+     * @param language 语言
+     * @param code     消息编码
+     * @return 缓存项，未缓存或已过期时返回 null，{@link Entry#getMessage()} 为 null 表示 Redis 中不存在该消息
+     */
+    public Entry get(String language, String code) {
+        CacheKey key = new CacheKey(language, code);
+        Entry entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired()) {
+            cache.remove(key, entry);
+            return null;
+        }
+        entry.accessed = true;
+        return entry;
+    }
+
+    /**
+     * 缓存消息
+     *
+     * @param language 语言
+     * @param code     消息编码
+     * @param message  消息，null 表示 Redis 中不存在该消息
+     */
+    public void put(String language, String code, Message message) {
+        long expireAt = expireMillis == Long.MAX_VALUE ? Long.MAX_VALUE : System.currentTimeMillis() + expireMillis;
+        // 缓存副本，避免调用方修改缓存的消息
+        Entry entry = new Entry(new CacheKey(language, code), copy(message), expireAt);
+        cache.put(entry.key, entry);
+        evictionQueue.offer(entry);
+        evictionQueueSize.incrementAndGet();
+        evict();
+    }
+
+    /**
+     * 失效缓存
+     *
+     * @param language 语言，{@link #ALL} 或空表示全部语言
+     * @param code     消息编码，{@link #ALL} 或空表示全部消息
+     */
+    public void evict(String language, String code) {
+        boolean allLanguage = StringUtils.isBlank(language) || ALL.equals(language);
+        boolean allCode = StringUtils.isBlank(code) || ALL.equals(code);
+        if (allLanguage && allCode) {
+            clear();
+            return;
+        }
+        if (!allLanguage && !allCode) {
+            cache.remove(new CacheKey(language, code));
+            return;
+        }
+        cache.keySet().removeIf(key -> (allLanguage || Objects.equals(key.language, language)) && (allCode || Objects.equals(key.code, code)));
+    }
+
+    /**
+     * 处理发布订阅收到的失效消息
+     *
+     * @param payload 失效消息，格式为 语言:消息编码
+     */
+    public void evict(String payload) {
+        if (StringUtils.isBlank(payload)) {
+            return;
+        }
+        int index = payload.indexOf(SEPARATOR);
+        if (index < 0) {
+            evict(payload, ALL);
+        } else {
+            evict(payload.substring(0, index), payload.substring(index + 1));
+        }
+    }
+
+    public void clear() {
+        cache.clear();
+        evictionQueue.clear();
+        evictionQueueSize.set(0);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 超出最大数量时淘汰：过期或已被替换的缓存项直接丢弃，最近访问过的清除访问标记后重新入队，其余淘汰；同一时刻只有一个线程执行淘汰
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // 最多转两圈：第一圈清除访问标记，第二圈一定能淘汰
+            int budget = evictionQueueSize.get() * 2 + 1;
+            while (budget-- > 0 && (cache.size() > maxSize || evictionQueueSize.get() > maxSize * 2)) {
+                Entry entry = evictionQueue.poll();
+                if (entry == null) {
+                    break;
+                }
+                evictionQueueSize.decrementAndGet();
+                if (cache.get(entry.key) != entry) {
+                    continue;
+                }
+                if (entry.isExpired() || (cache.size() > maxSize && !entry.accessed)) {
+                    cache.remove(entry.key, entry);
+                    continue;
+                }
+                entry.accessed = false;
+                evictionQueue.offer(entry);
+                evictionQueueSize.incrementAndGet();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * 构建失效消息
+     *
+     * @param language 语言，null 表示全部语言
+     * @param code     消息编码，null 表示全部消息
+     * @return 失效消息
+     */
+    public static String buildPayload(String language, String code) {
+        return StringUtils.defaultIfBlank(language, ALL) + SEPARATOR + StringUtils.defaultIfBlank(code, ALL);
+    }
+
+    private static Message copy(Message message) {
+        return message == null ? null : new Message().setCode(message.code()).setDesc(message.desc()).setType(message.type());
+    }
+
+    /**
+     * 缓存项
+     */
+    public static class Entry {
+        private final CacheKey key;
+        private final Message message;
+        private final long expireAt;
+        private volatile boolean accessed;
+
+        private Entry(CacheKey key, Message message, long expireAt) {
+            this.key = key;
+            this.message = message;
+            this.expireAt = expireAt;
+        }
+
+        /**
+         * @return 消息副本，Redis 中不存在该消息时返回 null
+         */
+        public Message getMessage() {
+            return copy(message);
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expireAt;
+        }
+    }
+
+    private static final class CacheKey {
+        private final String language;
+        private final String code;
+
+        private CacheKey(String language, String code) {
+            this.language = language;
+            this.code = code;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey cacheKey = (CacheKey) o;
+            return Objects.equals(language, cacheKey.language) && Objects.equals(code, cacheKey.code);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(language, code);
+        }
+    }
+}
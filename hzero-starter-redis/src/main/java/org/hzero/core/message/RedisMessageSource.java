@@ -28,9 +28,14 @@ public class RedisMessageSource extends AbstractMessageSource implements IMessag
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RedisMessageSource.class);
     private static final String MESSAGE_KEY = "hpfm:message:";
+    /**
+     * 消息变更时通知各个节点失效本地缓存的频道
+     */
+    public static final String INVALIDATE_CHANNEL = "hpfm:message:invalidate";
 
     private RedisHelper redisHelper;
     private int redisDb = 1;
+    private MessageLocalCache localCache;
 
     public RedisMessageSource() {
         ApplicationContextHelper.asyncInstanceSetter(RedisHelper.class, this, "setRedisHelper");
@@ -50,6 +55,34 @@ public class RedisMessageSource extends AbstractMessageSource implements IMessag
         this.redisDb = Integer.parseInt(environment.getProperty("hzero.service.platform.redis-db", "1"));
     }
 
+    /**
+     * 设置本地缓存，为 null 时每次都从 Redis 中查询
+     *
+     * @param localCache 本地缓存
+     */
+    public void setLocalCache(MessageLocalCache localCache) {
+        this.localCache = localCache;
+    }
+
+    public MessageLocalCache getLocalCache() {
+        return localCache;
+    }
+
+    /**
+     * 消息变更后调用，失效当前节点的本地缓存，并通知其它节点失效
+     *
+     * @param language 语言，null 表示全部语言
+     * @param code     消息编码，null 表示全部消息
+     */
+    public void notifyMessageChanged(String language, String code) {
+        if (localCache != null) {
+            localCache.evict(language, code);
+        }
+        if (redisHelper != null) {
+            redisHelper.getRedisTemplate().convertAndSend(INVALIDATE_CHANNEL, MessageLocalCache.buildPayload(language, code));
+        }
+    }
+
     @Override
     public void setParent(MessageSource messageSource) {
         this.setParentMessageSource(messageSource);
@@ -125,12 +158,22 @@ public class RedisMessageSource extends AbstractMessageSource implements IMessag
         } else {
             language = locale.toString();
         }
+        if (localCache != null) {
+            MessageLocalCache.Entry entry = localCache.get(language, code);
+            if (entry != null) {
+                return entry.getMessage();
+            }
+        }
         String obj = SafeRedisHelper.execute(redisDb, () -> redisHelper.hshGet(MESSAGE_KEY + language, code));
 
+        Message message = null;
         if (StringUtils.isNotEmpty(obj)) {
-            return redisHelper.fromJson(obj, Message.class);
+            message = redisHelper.fromJson(obj, Message.class);
         }
-        return null;
+        if (localCache != null) {
+            localCache.put(language, code, message);
+        }
+        return message;
     }
 
 
@@ -30,6 +30,56 @@ public class HZeroRedisProperties {
      */
     private int intervals = 5;
 
+    /**
+     * 使用阻塞方式消费队列消息，消息处理成功后确认，处理失败或服务宕机时重新投递，默认关闭
+     */
+    private boolean queueBlocking = false;
+
+    /**
+     * 阻塞消费时单次等待消息的超时时间，单位秒，需小于 redis 连接的读超时时间
+     */
+    private int queueBlockTimeout = 2;
+
+    /**
+     * 阻塞消费时每个队列的消费线程数
+     */
+    private int queueConsumerThreads = 1;
+
+    /**
+     * 阻塞消费时当前服务实例的消费者标识，每个消费者使用独立的处理中列表，为空时使用主机名加随机串
+     */
+    private String queueConsumerId;
+
+    /**
+     * 阻塞消费时消费者心跳的超时时间，单位秒，超时未续期的消费者的处理中消息由其他实例重新投递
+     */
+    private int queueConsumerTimeout = 60;
+
+    /**
+     * 阻塞消费时服务关闭等待处理中消息完成的超时时间，单位秒，超时未完成的消息在心跳超时后由其他实例重新投递
+     */
+    private int queueHandlerTimeout = 30;
+
+    /**
+     * 阻塞消费时消息处理失败的最大重试次数，超过后转移到死信列表
+     */
+    private int queueMaxRetries = 3;
+
+    /**
+     * 阻塞消费时消息处理失败后首次重试的延迟时间，单位毫秒，之后每次重试延迟翻倍
+     */
+    private long queueRetryBackoff = 1000;
+
+    /**
+     * 阻塞消费时消息重试的最大延迟时间，单位毫秒
+     */
+    private long queueRetryMaxBackoff = 300_000;
+
+    /**
+     * 消息本地缓存
+     */
+    private MessageCache messageCache = new MessageCache();
+
     public boolean isDynamicDatabase() {
         return dynamicDatabase;
     }
@@ -63,4 +113,134 @@ public class HZeroRedisProperties {
         this.intervals = intervals;
         return this;
     }
+
+    public boolean isQueueBlocking() {
+        return queueBlocking;
+    }
+
+    public HZeroRedisProperties setQueueBlocking(boolean queueBlocking) {
+        this.queueBlocking = queueBlocking;
+        return this;
+    }
+
+    public int getQueueBlockTimeout() {
+        return queueBlockTimeout;
+    }
+
+    public HZeroRedisProperties setQueueBlockTimeout(int queueBlockTimeout) {
+        this.queueBlockTimeout = queueBlockTimeout;
+        return this;
+    }
+
+    public int getQueueConsumerThreads() {
+        return queueConsumerThreads;
+    }
+
+    public HZeroRedisProperties setQueueConsumerThreads(int queueConsumerThreads) {
+        this.queueConsumerThreads = queueConsumerThreads;
+        return this;
+    }
+
+    public String getQueueConsumerId() {
+        return queueConsumerId;
+    }
+
+    public HZeroRedisProperties setQueueConsumerId(String queueConsumerId) {
+        this.queueConsumerId = queueConsumerId;
+        return this;
+    }
+
+    public int getQueueConsumerTimeout() {
+        return queueConsumerTimeout;
+    }
+
+    public HZeroRedisProperties setQueueConsumerTimeout(int queueConsumerTimeout) {
+        this.queueConsumerTimeout = queueConsumerTimeout;
+        return this;
+    }
+
+    public int getQueueHandlerTimeout() {
+        return queueHandlerTimeout;
+    }
+
+    public HZeroRedisProperties setQueueHandlerTimeout(int queueHandlerTimeout) {
+        this.queueHandlerTimeout = queueHandlerTimeout;
+        return this;
+    }
+
+    public int getQueueMaxRetries() {
+        return queueMaxRetries;
+    }
+
+    public HZeroRedisProperties setQueueMaxRetries(int queueMaxRetries) {
+        this.queueMaxRetries = queueMaxRetries;
+        return this;
+    }
+
+    public long getQueueRetryBackoff() {
+        return queueRetryBackoff;
+    }
+
+    public HZeroRedisProperties setQueueRetryBackoff(long queueRetryBackoff) {
+        this.queueRetryBackoff = queueRetryBackoff;
+        return this;
+    }
+
+    public long getQueueRetryMaxBackoff() {
+        return queueRetryMaxBackoff;
+    }
+
+    public HZeroRedisProperties setQueueRetryMaxBackoff(long queueRetryMaxBackoff) {
+        this.queueRetryMaxBackoff = queueRetryMaxBackoff;
+        return this;
+    }
+
+    public MessageCache getMessageCache() {
+        return messageCache;
+    }
+
+    public void setMessageCache(MessageCache messageCache) {
+        this.messageCache = messageCache;
+    }
+
+    public static class MessageCache {
+        /**
+         * 启用消息本地缓存，默认关闭
+         */
+        private boolean enable = false;
+
+        /**
+         * 最大缓存数量
+         */
+        private int maxSize = 10000;
+
+        /**
+         * 过期时间，单位秒，小于等于 0 时不过期；消息变更未通过发布订阅通知时（例如直接修改 Redis），最多在过期时间后生效
+         */
+        private long expireSeconds = 60;
+
+        public boolean isEnable() {
+            return enable;
+        }
+
+        public void setEnable(boolean enable) {
+            this.enable = enable;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public long getExpireSeconds() {
+            return expireSeconds;
+        }
+
+        public void setExpireSeconds(long expireSeconds) {
+            this.expireSeconds = expireSeconds;
+        }
+    }
 }
@@ -15,7 +15,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisStringCommands;
 import org.springframework.data.redis.core.*;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
@@ -958,6 +960,193 @@ public class RedisHelper implements InitializingBean {
         hashOpr.delete(key, hashKeys);
     }
 
+    // ============================================================================
+    // 批量操作，多个命令通过管道在一次网络往返中发送，使用当前线程的 redis database
+    // ============================================================================
+
+    /**
+     * 管道批量执行，回调中通过 connection 执行的命令在一次网络往返中发送，回调中命令的返回值均为 null
+     *
+     * @param action 回调，必须返回 null
+     * @return 各命令的执行结果，按命令顺序排列
+     */
+    public List<Object> executePipelined(RedisCallback<?> action) {
+        RedisTemplate<String, String> template = getRedisTemplate();
+        return template.executePipelined(action, template.getStringSerializer());
+    }
+
+    /**
+     * String 批量获取值
+     *
+     * @param keys keys
+     * @return 与 keys 顺序对应的值，不存在的 key 对应 null
+     */
+    public List<String> strMultiGet(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return getRedisTemplate().opsForValue().multiGet(keys);
+    }
+
+    /**
+     * String 批量设置值，不设置过期时间
+     *
+     * @param map key - value
+     */
+    public void strMultiSet(Map<String, String> map) {
+        if (map == null || map.isEmpty()) {
+            return;
+        }
+        getRedisTemplate().opsForValue().multiSet(map);
+    }
+
+    /**
+     * String 批量设置值并设置过期时间
+     *
+     * @param map key - value
+     * @param expire 存活时长，{@link #NOT_EXPIRE} 表示不过期
+     * @param timeUnit 时间单位，默认秒
+     */
+    public void strMultiSet(Map<String, String> map, long expire, TimeUnit timeUnit) {
+        if (map == null || map.isEmpty()) {
+            return;
+        }
+        if (expire == NOT_EXPIRE) {
+            strMultiSet(map);
+            return;
+        }
+        RedisSerializer<String> redisSerializer = getRedisTemplate().getStringSerializer();
+        Expiration expiration = Expiration.from(expire, timeUnit == null ? TimeUnit.SECONDS : timeUnit);
+        executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                connection.set(redisSerializer.serialize(entry.getKey()), redisSerializer.serialize(entry.getValue()),
+                                expiration, RedisStringCommands.SetOption.upsert());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Hash 批量获取多个散列键中指定域的值
+     *
+     * @param keyHashKeys key - 域
+     * @return key - 与域顺序对应的值，不存在的域对应 null
+     */
+    public Map<String, List<String>> hshMultiGet(Map<String, ? extends Collection<String>> keyHashKeys) {
+        Map<String, List<String>> ret = new LinkedHashMap<>();
+        if (keyHashKeys == null || keyHashKeys.isEmpty()) {
+            return ret;
+        }
+        List<String> keys = new ArrayList<>(keyHashKeys.size());
+        RedisSerializer<String> redisSerializer = getRedisTemplate().getStringSerializer();
+        List<Object> results = executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<String, ? extends Collection<String>> entry : keyHashKeys.entrySet()) {
+                if (entry.getValue() == null || entry.getValue().isEmpty()) {
+                    continue;
+                }
+                byte[][] fields = new byte[entry.getValue().size()][];
+                int i = 0;
+                for (String hashKey : entry.getValue()) {
+                    fields[i++] = redisSerializer.serialize(hashKey);
+                }
+                keys.add(entry.getKey());
+                connection.hMGet(redisSerializer.serialize(entry.getKey()), fields);
+            }
+            return null;
+        });
+        for (Map.Entry<String, ? extends Collection<String>> entry : keyHashKeys.entrySet()) {
+            ret.put(entry.getKey(), new ArrayList<>());
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            ret.put(keys.get(i), castList(results.get(i)));
+        }
+        return ret;
+    }
+
+    /**
+     * Hash 批量获取多个散列键中所有的键值对
+     *
+     * @param keys keys
+     * @return key - 键值对，不存在的 key 对应空 Map
+     */
+    public Map<String, Map<String, String>> hshMultiGetAll(Collection<String> keys) {
+        Map<String, Map<String, String>> ret = new LinkedHashMap<>();
+        if (keys == null || keys.isEmpty()) {
+            return ret;
+        }
+        List<String> keyList = new ArrayList<>(keys);
+        RedisSerializer<String> redisSerializer = getRedisTemplate().getStringSerializer();
+        List<Object> results = executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keyList) {
+                connection.hGetAll(redisSerializer.serialize(key));
+            }
+            return null;
+        });
+        for (int i = 0; i < keyList.size(); i++) {
+            Map<String, String> map = new LinkedHashMap<>();
+            Object result = results.get(i);
+            if (result instanceof Map) {
+                ((Map<?, ?>) result).forEach((k, v) -> map.put((String) k, (String) v));
+            }
+            ret.put(keyList.get(i), map);
+        }
+        return ret;
+    }
+
+    /**
+     * Hash 批量设置多个散列键的键值对
+     *
+     * @param keyMaps key - 键值对
+     */
+    public void hshMultiPutAll(Map<String, Map<String, String>> keyMaps) {
+        if (keyMaps == null || keyMaps.isEmpty()) {
+            return;
+        }
+        RedisSerializer<String> redisSerializer = getRedisTemplate().getStringSerializer();
+        executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<String, Map<String, String>> entry : keyMaps.entrySet()) {
+                if (entry.getValue() == null || entry.getValue().isEmpty()) {
+                    continue;
+                }
+                Map<byte[], byte[]> hashes = new LinkedHashMap<>(entry.getValue().size());
+                entry.getValue().forEach((k, v) -> hashes.put(redisSerializer.serialize(k), redisSerializer.serialize(v)));
+                connection.hMSet(redisSerializer.serialize(entry.getKey()), hashes);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Hash 批量删除多个散列键中的指定域
+     *
+     * @param keyHashKeys key - 域
+     */
+    public void hshMultiDelete(Map<String, ? extends Collection<String>> keyHashKeys) {
+        if (keyHashKeys == null || keyHashKeys.isEmpty()) {
+            return;
+        }
+        RedisSerializer<String> redisSerializer = getRedisTemplate().getStringSerializer();
+        executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<String, ? extends Collection<String>> entry : keyHashKeys.entrySet()) {
+                if (entry.getValue() == null || entry.getValue().isEmpty()) {
+                    continue;
+                }
+                byte[][] fields = new byte[entry.getValue().size()][];
+                int i = 0;
+                for (String hashKey : entry.getValue()) {
+                    fields[i++] = redisSerializer.serialize(hashKey);
+                }
+                connection.hDel(redisSerializer.serialize(entry.getKey()), fields);
+            }
+            return null;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> castList(Object result) {
+        return result instanceof List ? (List<String>) result : new ArrayList<>();
+    }
+
     /**
      * Object转成JSON数据
      */
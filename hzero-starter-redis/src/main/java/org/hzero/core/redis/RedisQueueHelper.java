@@ -1,8 +1,18 @@
 package org.hzero.core.redis;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 /**
  * 基于redis的消息队列，生产者/消费者模式
@@ -12,13 +22,130 @@ import java.util.List;
 public class RedisQueueHelper {
 
     private static final String PREFIX = "hzero-queue:";
+    private static final String PROCESSING_PREFIX = "hzero-queue-processing:";
+    private static final String CONSUMERS_PREFIX = "hzero-queue-consumers:";
+    private static final String HEARTBEAT_PREFIX = "hzero-queue-consumer:";
+    private static final String RETRY_PREFIX = "hzero-queue-retry:";
+    private static final String DELAY_PREFIX = "hzero-queue-delay:";
+    private static final String DELAY_SEQUENCE_PREFIX = "hzero-queue-delay-seq:";
+    private static final String DEAD_PREFIX = "hzero-queue-dead:";
+    /**
+     * 单次转移到期延迟消息的最大数量
+     */
+    private static final int DUE_BATCH_SIZE = 1000;
+
+    /**
+     * 从队列头部或尾部取出指定数量的消息
+     */
+    private static final RedisScript<List> PULL_SCRIPT = new DefaultRedisScript<>(
+            "local n = tonumber(ARGV[1])\n" +
+            "local msgs\n" +
+            "if ARGV[2] == '1' then\n" +
+            "    msgs = redis.call('LRANGE', KEYS[1], 0, n - 1)\n" +
+            "    if #msgs > 0 then redis.call('LTRIM', KEYS[1], #msgs, -1) end\n" +
+            "    return msgs\n" +
+            "end\n" +
+            "msgs = redis.call('LRANGE', KEYS[1], n > 0 and -n or 0, -1)\n" +
+            "if #msgs > 0 then redis.call('LTRIM', KEYS[1], 0, -#msgs - 1) end\n" +
+            "local reversed = {}\n" +
+            "for i = #msgs, 1, -1 do reversed[#reversed + 1] = msgs[i] end\n" +
+            "return reversed", List.class);
+
+    /**
+     * 从队列头部取出指定数量的消息并转移到处理中列表
+     */
+    private static final RedisScript<List> RECEIVE_SCRIPT = new DefaultRedisScript<>(
+            "local msgs = redis.call('LRANGE', KEYS[1], 0, tonumber(ARGV[1]) - 1)\n" +
+            "if #msgs > 0 then\n" +
+            "    redis.call('LTRIM', KEYS[1], #msgs, -1)\n" +
+            "    for i = 1, #msgs do redis.call('LPUSH', KEYS[2], msgs[i]) end\n" +
+            "end\n" +
+            "return msgs", List.class);
+
+    /**
+     * 从处理中列表删除消息并添加到队列尾部
+     */
+    private static final RedisScript<Long> REQUEUE_SCRIPT = new DefaultRedisScript<>(
+            "local count = 0\n" +
+            "for i = 1, #ARGV do\n" +
+            "    if redis.call('LREM', KEYS[2], -1, ARGV[i]) > 0 then\n" +
+            "        redis.call('RPUSH', KEYS[1], ARGV[i])\n" +
+            "        count = count + 1\n" +
+            "    end\n" +
+            "end\n" +
+            "return count", Long.class);
+
+    /**
+     * 从处理中列表删除消息并累加重试次数，未超过最大重试次数时按指数退避加入延迟集合，否则转移到死信列表
+     * <p>
+     * 延迟集合的成员带有自增序号前缀，避免相同内容的消息被合并
+     */
+    private static final RedisScript<Long> RETRY_SCRIPT = new DefaultRedisScript<>(
+            "local maxRetries = tonumber(ARGV[1])\n" +
+            "local backoff = tonumber(ARGV[2])\n" +
+            "local maxBackoff = tonumber(ARGV[3])\n" +
+            "local now = tonumber(ARGV[4])\n" +
+            "local dead = 0\n" +
+            "for i = 5, #ARGV do\n" +
+            "    if redis.call('LREM', KEYS[1], -1, ARGV[i]) > 0 then\n" +
+            "        local n = redis.call('HINCRBY', KEYS[2], ARGV[i], 1)\n" +
+            "        if n > maxRetries then\n" +
+            "            redis.call('HDEL', KEYS[2], ARGV[i])\n" +
+            "            redis.call('RPUSH', KEYS[4], ARGV[i])\n" +
+            "            dead = dead + 1\n" +
+            "        else\n" +
+            "            local delay = math.min(backoff * 2 ^ (n - 1), maxBackoff)\n" +
+            "            redis.call('ZADD', KEYS[3], now + delay, redis.call('INCR', KEYS[5]) .. ':' .. ARGV[i])\n" +
+            "        end\n" +
+            "    end\n" +
+            "end\n" +
+            "return dead", Long.class);
+
+    /**
+     * 将延迟集合中到期的消息去掉序号前缀后转移到队列尾部
+     */
+    private static final RedisScript<Long> DUE_SCRIPT = new DefaultRedisScript<>(
+            "local msgs = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))\n" +
+            "for i = 1, #msgs do\n" +
+            "    redis.call('ZREM', KEYS[1], msgs[i])\n" +
+            "    local p = string.find(msgs[i], ':', 1, true)\n" +
+            "    redis.call('RPUSH', KEYS[2], string.sub(msgs[i], p + 1))\n" +
+            "end\n" +
+            "return #msgs", Long.class);
+
+    /**
+     * 处理中列表的全部消息按原顺序转移回队列头部
+     */
+    private static final RedisScript<Long> RECOVER_SCRIPT = new DefaultRedisScript<>(
+            "local msgs = redis.call('LRANGE', KEYS[2], 0, -1)\n" +
+            "for i = 1, #msgs do redis.call('LPUSH', KEYS[1], msgs[i]) end\n" +
+            "redis.call('DEL', KEYS[2])\n" +
+            "return #msgs", Long.class);
 
     private final RedisHelper redisHelper;
     private final HZeroRedisProperties properties;
+    private final String consumerId;
 
     public RedisQueueHelper(RedisHelper redisHelper, HZeroRedisProperties redisProperties) {
         this.redisHelper = redisHelper;
         this.properties = redisProperties;
+        this.consumerId = StringUtils.isNotBlank(redisProperties.getQueueConsumerId()) ? redisProperties.getQueueConsumerId()
+                : getHostName() + "-" + RandomStringUtils.randomAlphanumeric(8);
+    }
+
+    private static String getHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * @return 当前服务实例的消费者标识
+     */
+    public String getConsumerId() {
+        return consumerId;
     }
 
     /**
@@ -97,17 +224,7 @@ public class RedisQueueHelper {
      * @param key key
      */
     public List<String> pullAll(String key) {
-        redisHelper.setCurrentDatabase(properties.getQueueDb());
-        List<String> result = new ArrayList<>();
-        while (true) {
-            String str = pull(key);
-            if (str == null) {
-                break;
-            }
-            result.add(str);
-        }
-        redisHelper.clearCurrentDatabase();
-        return result;
+        return pullAll(key, true, 0);
     }
 
     /**
@@ -116,17 +233,7 @@ public class RedisQueueHelper {
      * @param key key
      */
     public List<String> pullAll(String key, int maxSize) {
-        redisHelper.setCurrentDatabase(properties.getQueueDb());
-        List<String> result = new ArrayList<>();
-        while (true) {
-            String str = pull(key);
-            if (str == null || result.size() > maxSize) {
-                break;
-            }
-            result.add(str);
-        }
-        redisHelper.clearCurrentDatabase();
-        return result;
+        return pullAll(key, true, maxSize);
     }
 
     /**
@@ -153,35 +260,282 @@ public class RedisQueueHelper {
      * @param key key
      */
     public List<String> pullAll(String key, boolean left) {
+        return pullAll(key, left, 0);
+    }
+
+    /**
+     * 指定方向，批量获取队列消息, 指定最大量，一次请求取出全部消息
+     *
+     * @param key key
+     * @param max 最大量，小于等于 0 时获取全部消息
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> pullAll(String key, boolean left, int max) {
+        redisHelper.setCurrentDatabase(properties.getQueueDb());
+        try {
+            List<String> result = redisHelper.getRedisTemplate().execute(PULL_SCRIPT, Collections.singletonList(PREFIX + key),
+                    String.valueOf(Math.max(max, 0)), left ? "1" : "0");
+            return result == null ? new ArrayList<>() : result;
+        } finally {
+            redisHelper.clearCurrentDatabase();
+        }
+    }
+
+    /**
+     * 阻塞获取队列消息，队列为空时最多等待 timeout
+     *
+     * @param key      key
+     * @param timeout  超时时间
+     * @param timeUnit 时间单位
+     * @return 消息，超时返回 null
+     */
+    public String pull(String key, long timeout, TimeUnit timeUnit) {
+        redisHelper.setCurrentDatabase(properties.getQueueDb());
+        try {
+            return redisHelper.lstLeftPop(PREFIX + key, timeout, timeUnit);
+        } finally {
+            redisHelper.clearCurrentDatabase();
+        }
+    }
+
+    /**
+     * 获取需要确认的队列消息，消息从队列转移到当前消费者的处理中列表，处理成功后调用 {@link #ack(String, Collection)} 确认，
+     * 处理失败调用 {@link #retry(String, Collection)} 延迟重新投递，服务宕机未确认的消息由其他实例通过
+     * {@link #recoverDeadConsumers(String)} 重新投递
+     * <p>
+     * 队列为空时最多阻塞等待 timeout，阻塞等待到的第一条消息取自队列尾部，其余消息取自队列头部
+     *
+     * @param key      key
+     * @param max      最大量，小于等于 0 时获取全部消息
+     * @param timeout  超时时间，小于等于 0 时不等待
+     * @param timeUnit 时间单位
+     * @return 消息，没有消息时返回空集合
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> receive(String key, int max, long timeout, TimeUnit timeUnit) {
         redisHelper.setCurrentDatabase(properties.getQueueDb());
-        List<String> result = new ArrayList<>();
-        while (true) {
-            String str = pull(key, left);
-            if (str == null) {
-                break;
+        try {
+            RedisTemplate<String, String> redisTemplate = redisHelper.getRedisTemplate();
+            String processingKey = getProcessingKey(key, consumerId);
+            List<String> keys = Arrays.asList(PREFIX + key, processingKey);
+            List<String> result = redisTemplate.execute(RECEIVE_SCRIPT, keys, String.valueOf(Math.max(max, 0)));
+            if (CollectionUtils.isNotEmpty(result) || timeout <= 0) {
+                return result == null ? new ArrayList<>() : result;
+            }
+            // 队列为空，阻塞等待并原子的转移到处理中列表
+            String first = redisTemplate.opsForList().rightPopAndLeftPush(PREFIX + key, processingKey, timeout, timeUnit);
+            result = new ArrayList<>();
+            if (first == null) {
+                return result;
+            }
+            result.add(first);
+            if (max != 1) {
+                List<String> rest = redisTemplate.execute(RECEIVE_SCRIPT, keys, String.valueOf(max <= 0 ? 0 : max - 1));
+                if (rest != null) {
+                    result.addAll(rest);
+                }
             }
-            result.add(str);
+            return result;
+        } finally {
+            redisHelper.clearCurrentDatabase();
         }
-        redisHelper.clearCurrentDatabase();
-        return result;
     }
 
     /**
-     * 指定方向，批量获取队列消息, 指定最大量
+     * 确认消息已处理，从当前消费者的处理中列表删除并清除重试次数
+     *
+     * @param key      key
+     * @param messages 消息内容
+     */
+    public void ack(String key, Collection<String> messages) {
+        if (CollectionUtils.isEmpty(messages)) {
+            return;
+        }
+        redisHelper.setCurrentDatabase(properties.getQueueDb());
+        try {
+            RedisSerializer<String> redisSerializer = redisHelper.getRedisTemplate().getStringSerializer();
+            byte[] processingKey = redisSerializer.serialize(getProcessingKey(key, consumerId));
+            byte[] retryKey = redisSerializer.serialize(RETRY_PREFIX + key);
+            redisHelper.executePipelined((RedisCallback<Object>) connection -> {
+                for (String message : messages) {
+                    byte[] value = redisSerializer.serialize(message);
+                    connection.lRem(processingKey, -1, value);
+                    connection.hDel(retryKey, value);
+                }
+                return null;
+            });
+        } finally {
+            redisHelper.clearCurrentDatabase();
+        }
+    }
+
+    /**
+     * 消息处理失败，从当前消费者的处理中列表转移到队列尾部立即重新投递，不计重试次数
+     *
+     * @param key      key
+     * @param messages 消息内容
+     * @return 重新投递的数量
+     */
+    public long requeue(String key, Collection<String> messages) {
+        if (CollectionUtils.isEmpty(messages)) {
+            return 0;
+        }
+        redisHelper.setCurrentDatabase(properties.getQueueDb());
+        try {
+            Long count = redisHelper.getRedisTemplate().execute(REQUEUE_SCRIPT, Arrays.asList(PREFIX + key, getProcessingKey(key, consumerId)),
+                    messages.toArray());
+            return count == null ? 0 : count;
+        } finally {
+            redisHelper.clearCurrentDatabase();
+        }
+    }
+
+    /**
+     * 消息处理失败，从当前消费者的处理中列表删除后延迟重新投递，延迟时间按重试次数指数增长，
+     * 超过最大重试次数的消息转移到死信列表 hzero-queue-dead:{key}，需要定时调用 {@link #moveDueMessages(String)} 投递到期的消息
+     * <p>
+     * 重试次数按消息内容累计，内容相同的消息共用重试次数
+     *
+     * @param key      key
+     * @param messages 消息内容
+     * @return 转移到死信列表的数量
+     */
+    public long retry(String key, Collection<String> messages) {
+        if (CollectionUtils.isEmpty(messages)) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(messages.size() + 4);
+        args.add(String.valueOf(Math.max(properties.getQueueMaxRetries(), 0)));
+        args.add(String.valueOf(Math.max(properties.getQueueRetryBackoff(), 0)));
+        args.add(String.valueOf(Math.max(properties.getQueueRetryMaxBackoff(), 0)));
+        args.add(String.valueOf(System.currentTimeMillis()));
+        args.addAll(messages);
+        redisHelper.setCurrentDatabase(properties.getQueueDb());
+        try {
+            Long count = redisHelper.getRedisTemplate().execute(RETRY_SCRIPT, Arrays.asList(getProcessingKey(key, consumerId),
+                    RETRY_PREFIX + key, DELAY_PREFIX + key, DEAD_PREFIX + key, DELAY_SEQUENCE_PREFIX + key), args.toArray());
+            return count == null ? 0 : count;
+        } finally {
+            redisHelper.clearCurrentDatabase();
+        }
+    }
+
+    /**
+     * 将到期的延迟重试消息转移到队列尾部
      *
      * @param key key
+     * @return 重新投递的数量
      */
-    public List<String> pullAll(String key, boolean left, int max) {
+    public long moveDueMessages(String key) {
+        redisHelper.setCurrentDatabase(properties.getQueueDb());
+        try {
+            List<String> keys = Arrays.asList(DELAY_PREFIX + key, PREFIX + key);
+            long total = 0;
+            Long count;
+            do {
+                count = redisHelper.getRedisTemplate().execute(DUE_SCRIPT, keys, String.valueOf(System.currentTimeMillis()),
+                        String.valueOf(DUE_BATCH_SIZE));
+                total += count == null ? 0 : count;
+            } while (count != null && count >= DUE_BATCH_SIZE);
+            return total;
+        } finally {
+            redisHelper.clearCurrentDatabase();
+        }
+    }
+
+    /**
+     * 注册当前消费者并刷新心跳
+     *
+     * @param key key
+     */
+    public void register(String key) {
+        redisHelper.setCurrentDatabase(properties.getQueueDb());
+        try {
+            redisHelper.setAdd(CONSUMERS_PREFIX + key, new String[]{consumerId});
+        } finally {
+            redisHelper.clearCurrentDatabase();
+        }
+        heartbeat();
+    }
+
+    /**
+     * 刷新当前消费者的心跳，需以小于 queueConsumerTimeout 的间隔定时调用
+     */
+    public void heartbeat() {
+        redisHelper.setCurrentDatabase(properties.getQueueDb());
+        try {
+            redisHelper.strSet(HEARTBEAT_PREFIX + consumerId, String.valueOf(System.currentTimeMillis()),
+                    Math.max(properties.getQueueConsumerTimeout(), 1), TimeUnit.SECONDS);
+        } finally {
+            redisHelper.clearCurrentDatabase();
+        }
+    }
+
+    /**
+     * 注销当前消费者，处理中列表的消息转移回队列头部，用于服务正常关闭
+     *
+     * @param key key
+     * @return 重新投递的数量
+     */
+    public long unregister(String key) {
+        long count = recover(key);
+        redisHelper.setCurrentDatabase(properties.getQueueDb());
+        try {
+            redisHelper.setRemove(CONSUMERS_PREFIX + key, new Object[]{consumerId});
+        } finally {
+            redisHelper.clearCurrentDatabase();
+        }
+        return count;
+    }
+
+    /**
+     * 将心跳已超时的消费者的处理中消息转移回队列头部重新投递，并注销这些消费者，不影响仍在运行的其他实例
+     *
+     * @param key key
+     * @return 重新投递的数量
+     */
+    public long recoverDeadConsumers(String key) {
         redisHelper.setCurrentDatabase(properties.getQueueDb());
-        List<String> result = new ArrayList<>();
-        while (true) {
-            String str = pull(key, left);
-            if (str == null || result.size() > max) {
-                break;
+        try {
+            Set<String> consumers = redisHelper.setMembers(CONSUMERS_PREFIX + key);
+            if (CollectionUtils.isEmpty(consumers)) {
+                return 0;
             }
-            result.add(str);
+            long total = 0;
+            for (String consumer : consumers) {
+                if (consumerId.equals(consumer) || Boolean.TRUE.equals(redisHelper.hasKey(HEARTBEAT_PREFIX + consumer))) {
+                    continue;
+                }
+                total += recover(key, consumer);
+                redisHelper.setRemove(CONSUMERS_PREFIX + key, new Object[]{consumer});
+            }
+            return total;
+        } finally {
+            redisHelper.clearCurrentDatabase();
         }
-        redisHelper.clearCurrentDatabase();
-        return result;
+    }
+
+    /**
+     * 将当前消费者处理中列表的全部消息转移回队列头部重新投递
+     *
+     * @param key key
+     * @return 重新投递的数量
+     */
+    public long recover(String key) {
+        redisHelper.setCurrentDatabase(properties.getQueueDb());
+        try {
+            return recover(key, consumerId);
+        } finally {
+            redisHelper.clearCurrentDatabase();
+        }
+    }
+
+    private long recover(String key, String consumer) {
+        Long count = redisHelper.getRedisTemplate().execute(RECOVER_SCRIPT, Arrays.asList(PREFIX + key, getProcessingKey(key, consumer)));
+        return count == null ? 0 : count;
+    }
+
+    private static String getProcessingKey(String key, String consumer) {
+        return PROCESSING_PREFIX + key + ":" + consumer;
     }
 }
@@ -5,6 +5,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.collections4.CollectionUtils;
@@ -14,6 +15,7 @@ import org.hzero.core.redis.HZeroRedisProperties;
 import org.hzero.core.redis.RedisQueueHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.data.util.ProxyUtils;
 import org.springframework.util.ObjectUtils;
@@ -25,12 +27,14 @@ import io.choerodon.core.convertor.ApplicationContextHelper;
  *
  * @author shuangfei.zhu@hand-china.com 2019/10/23 16:15
  */
-public class HandlerInit implements CommandLineRunner {
+public class HandlerInit implements CommandLineRunner, DisposableBean {
 
     private static Logger logger = LoggerFactory.getLogger(HandlerInit.class);
 
     private final HZeroRedisProperties redisProperties;
     private final RedisQueueHelper redisQueueHelper;
+    private volatile boolean running;
+    private ScheduledExecutorService maintainer;
 
     public HandlerInit(RedisQueueHelper redisQueueHelper, HZeroRedisProperties redisProperties) {
         this.redisQueueHelper = redisQueueHelper;
@@ -42,6 +46,10 @@ public class HandlerInit implements CommandLineRunner {
         if (redisProperties != null && redisProperties.isRedisQueue()) {
             scanQueueHandler();
 
+            if (redisProperties.isQueueBlocking()) {
+                startBlockingConsumer();
+                return;
+            }
             // 启动线程执行消费
             ScheduledExecutorService register =
                     new ScheduledThreadPoolExecutor(1, new BasicThreadFactory.Builder()
@@ -52,6 +60,97 @@ public class HandlerInit implements CommandLineRunner {
         }
     }
 
+    @Override
+    public void destroy() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (maintainer != null) {
+            maintainer.shutdownNow();
+        }
+        // 不中断消费线程，阻塞获取超时后退出，处理中的消息继续处理完成并确认
+        Map<String, ThreadPoolExecutor> executors = HandlerRegistry.getBlockingThreadPools();
+        executors.values().forEach(ThreadPoolExecutor::shutdown);
+        long timeout = Math.max(redisProperties.getQueueBlockTimeout(), 1) + Math.max(redisProperties.getQueueHandlerTimeout(), 0);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout);
+        for (Map.Entry<String, ThreadPoolExecutor> entry : executors.entrySet()) {
+            String key = entry.getKey();
+            boolean terminated;
+            try {
+                terminated = entry.getValue().awaitTermination(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                terminated = false;
+            }
+            if (!terminated) {
+                // 仍有消息在处理，不能转移回队列，否则会重复消费；心跳超时后由其他实例重新投递
+                logger.warn("consumers of queue {} did not finish in {} seconds, unacknowledged messages will be redelivered after heartbeat timeout", key, timeout);
+                continue;
+            }
+            // 未确认的消息转移回队列，由其他实例继续消费
+            try {
+                redisQueueHelper.unregister(key);
+            } catch (Exception e) {
+                logger.warn("unregister consumer of queue {} failed", key, e);
+            }
+        }
+    }
+
+    /**
+     * 阻塞消费，每个队列使用独立的线程池，线程阻塞等待消息并在处理成功后确认
+     * <p>
+     * 每个服务实例使用独立的处理中列表，并定时刷新心跳、投递到期的重试消息、恢复心跳超时的实例未确认的消息
+     */
+    private void startBlockingConsumer() {
+        running = true;
+        int threads = Math.max(redisProperties.getQueueConsumerThreads(), 1);
+        Set<String> keys = HandlerRegistry.getKeySet();
+        for (String key : keys) {
+            redisQueueHelper.register(key);
+            recoverDeadConsumers(key);
+        }
+        long heartbeatInterval = Math.max(redisProperties.getQueueConsumerTimeout() * 1000L / 3, 1000L);
+        maintainer = new ScheduledThreadPoolExecutor(1, new BasicThreadFactory.Builder()
+                .namingPattern("redis-queue-maintainer")
+                .daemon(true)
+                .build());
+        maintainer.scheduleWithFixedDelay(() -> keys.forEach(this::moveDueMessages), 1, 1, TimeUnit.SECONDS);
+        maintainer.scheduleWithFixedDelay(() -> {
+            try {
+                redisQueueHelper.heartbeat();
+            } catch (Exception e) {
+                logger.warn("refresh heartbeat of queue consumer {} failed", redisQueueHelper.getConsumerId(), e);
+            }
+            keys.forEach(this::recoverDeadConsumers);
+        }, heartbeatInterval, heartbeatInterval, TimeUnit.MILLISECONDS);
+        for (String key : keys) {
+            ThreadPoolExecutor executor = HandlerRegistry.getBlockingThreadPool(key, threads);
+            for (int i = 0; i < threads; i++) {
+                executor.execute(new BlockingConsumer(key, redisQueueHelper, redisProperties.getQueueBlockTimeout()));
+            }
+        }
+    }
+
+    private void recoverDeadConsumers(String key) {
+        try {
+            long recovered = redisQueueHelper.recoverDeadConsumers(key);
+            if (recovered > 0) {
+                logger.info("recover {} unacknowledged messages of dead consumers of queue {}", recovered, key);
+            }
+        } catch (Exception e) {
+            logger.warn("recover unacknowledged messages of queue {} failed", key, e);
+        }
+    }
+
+    private void moveDueMessages(String key) {
+        try {
+            redisQueueHelper.moveDueMessages(key);
+        } catch (Exception e) {
+            logger.warn("redeliver delayed messages of queue {} failed", key, e);
+        }
+    }
+
     /**
      * 启动后扫描QueueHandler注解
      */
@@ -87,6 +186,77 @@ public class HandlerInit implements CommandLineRunner {
         }
     }
 
+    /**
+     * 阻塞消费线程
+     */
+    class BlockingConsumer implements Runnable {
+
+        private final String key;
+        private final RedisQueueHelper redisQueueHelper;
+        private final int blockTimeout;
+
+        BlockingConsumer(String key, RedisQueueHelper redisQueueHelper, int blockTimeout) {
+            this.key = key;
+            this.redisQueueHelper = redisQueueHelper;
+            this.blockTimeout = Math.max(blockTimeout, 1);
+        }
+
+        @Override
+        public void run() {
+            Object handler = HandlerRegistry.getHandler(key);
+            int size = handler instanceof IBatchQueueHandler ? ((IBatchQueueHandler) handler).getSize() : 1;
+            while (running && !Thread.currentThread().isInterrupted()) {
+                List<String> messages;
+                try {
+                    messages = redisQueueHelper.receive(key, size, blockTimeout, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    if (!running) {
+                        return;
+                    }
+                    logger.error("receive message of queue " + key + " failed", e);
+                    sleep();
+                    continue;
+                }
+                if (CollectionUtils.isEmpty(messages)) {
+                    continue;
+                }
+                try {
+                    if (handler instanceof IQueueHandler) {
+                        for (String message : messages) {
+                            ((IQueueHandler) handler).process(message);
+                        }
+                    } else {
+                        ((IBatchQueueHandler) handler).process(messages);
+                    }
+                    redisQueueHelper.ack(key, messages);
+                } catch (Exception e) {
+                    logger.error("process message of queue " + key + " failed, messages will be redelivered later", e);
+                    retry(messages);
+                }
+            }
+        }
+
+        private void retry(List<String> messages) {
+            try {
+                long dead = redisQueueHelper.retry(key, messages);
+                if (dead > 0) {
+                    logger.error("{} messages of queue {} exceeded max retries and were moved to the dead letter list", dead, key);
+                }
+            } catch (Exception e) {
+                // 消息仍在处理中列表，服务重启或宕机后由恢复流程重新投递
+                logger.error("retry message of queue " + key + " failed", e);
+            }
+        }
+
+        private void sleep() {
+            try {
+                TimeUnit.SECONDS.sleep(blockTimeout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     /**
      * 消费线程
      */
@@ -1,11 +1,11 @@
 package org.hzero.core.redis.handler;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 
 /**
  * handler存储类
@@ -25,6 +25,10 @@ public class HandlerRegistry {
      * 存储消息队列key与消费处理线程池
      */
     private static Map<String, ThreadPoolExecutor> threadMap = new ConcurrentHashMap<>();
+    /**
+     * 存储消息队列key与阻塞消费线程池
+     */
+    private static Map<String, ThreadPoolExecutor> blockingThreadMap = new ConcurrentHashMap<>();
 
     public static void addHandler(String key, Object handler) {
         if (handlerMap.containsKey(key)) {
@@ -54,4 +58,23 @@ public class HandlerRegistry {
         }
         return threadMap.get(key);
     }
+
+    /**
+     * 阻塞消费使用的线程池，每个线程持续阻塞等待并处理消息
+     *
+     * @param key     消息队列key
+     * @param threads 线程数
+     * @return 线程池
+     */
+    public static ThreadPoolExecutor getBlockingThreadPool(String key, int threads) {
+        return blockingThreadMap.computeIfAbsent(key, k -> new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new BasicThreadFactory.Builder()
+                .namingPattern("redis-queue-" + k + "-%d")
+                .daemon(true)
+                .build()));
+    }
+
+    public static Map<String, ThreadPoolExecutor> getBlockingThreadPools() {
+        return Collections.unmodifiableMap(blockingThreadMap);
+    }
 }